@@ -0,0 +1,135 @@
+package edu.asu.benchmark;
+
+import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.board.MoveResult;
+import edu.asu.util.BoardType;
+import edu.asu.util.PlayerSymbol;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the board operations on the game's hot paths for every board implementation.
+ * Each call works on the next position of the corpus. The execute benchmarks first copy the position into a
+ * scratch board so the corpus is never changed; copyPosition measures that copy on its own.
+ * Run with -prof gc to see the allocation rate next to the throughput.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    private static final int MAX_PLAYOUT_PLIES = 300;
+
+    @Param({"STANDARD", "BITBOARD"})
+    public BoardType implementation;
+
+    private PositionCorpus corpus;
+    private CheckerBoard scratch;
+    private final int[] moves = new int[CheckerBoard.MAX_MOVES];
+    private final int[] firstMoves = new int[PositionCorpus.SIZE];
+    private int index;
+    private long random = PositionCorpus.SEED;
+
+    @Setup
+    public void setUp() {
+        this.corpus = new PositionCorpus(this.implementation);
+        this.scratch = this.corpus.initial.copy();
+        for (int i = 0; i < PositionCorpus.SIZE; i++) {
+            CheckerBoard position = this.corpus.capturePositions[i];
+            position.generateMoves(position.getSideToMove(), this.moves);
+            this.firstMoves[i] = this.moves[0];
+        }
+    }
+
+    @Benchmark
+    public boolean isValidMove() {
+        int i = this.next();
+        return this.corpus.quietPositions[i].isValidMove(this.corpus.quietMoves[i], this.corpus.quietMovers[i]);
+    }
+
+    @Benchmark
+    public CheckerBoard copyPosition() {
+        this.scratch.copyFrom(this.corpus.quietPositions[this.next()]);
+        return this.scratch;
+    }
+
+    @Benchmark
+    public MoveResult executeMove() {
+        int i = this.next();
+        this.scratch.copyFrom(this.corpus.quietPositions[i]);
+        return this.scratch.executeMove(this.corpus.quietMoves[i], this.corpus.quietMovers[i]);
+    }
+
+    @Benchmark
+    public MoveResult executeCaptureMove() {
+        int i = this.next();
+        this.scratch.copyFrom(this.corpus.capturePositions[i]);
+        return this.scratch.executeCaptureMove(this.corpus.captureMoves[i], this.corpus.captureMovers[i]);
+    }
+
+    /**
+     * Plays a capture and takes it back, the step a search takes at every node instead of copying the board
+     */
+    @Benchmark
+    public long makeUnmakeMove() {
+        int i = this.next();
+        CheckerBoard position = this.corpus.capturePositions[i];
+        position.makeMove(this.firstMoves[i]);
+        long key = position.getHashKey();
+        position.unmakeMove();
+        return key;
+    }
+
+    @Benchmark
+    public int numberOfPieces() {
+        return this.corpus.quietPositions[this.next()].numberOfPieces(PlayerSymbol.X.getValue());
+    }
+
+    @Benchmark
+    public boolean won() {
+        return this.corpus.quietPositions[this.next()].won();
+    }
+
+    /**
+     * Plays a random game from the initial position until one side can't move or the ply limit is reached
+     * @return the number of plies played
+     */
+    @Benchmark
+    public int playout() {
+        CheckerBoard board = this.scratch;
+        board.copyFrom(this.corpus.initial);
+        int ply = 0;
+        while (ply < MAX_PLAYOUT_PLIES && !board.won()) {
+            int count = board.generateMoves(board.getSideToMove(), this.moves);
+            board.applyMove(this.moves[this.nextRandom(count)]);
+            ply++;
+        }
+        return ply;
+    }
+
+    private int next() {
+        this.index = (this.index + 1) & (PositionCorpus.SIZE - 1);
+        return this.index;
+    }
+
+    private int nextRandom(int bound) {
+        this.random ^= this.random << 13;
+        this.random ^= this.random >>> 7;
+        this.random ^= this.random << 17;
+        return (int) ((this.random >>> 33) % bound);
+    }
+}
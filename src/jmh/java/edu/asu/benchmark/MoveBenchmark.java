@@ -0,0 +1,42 @@
+package edu.asu.benchmark;
+
+import edu.asu.core.Move;
+import edu.asu.util.BoardType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks turning the moves players type into Move instances, using the moves of the corpus
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveBenchmark {
+    private String[] notations;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        this.notations = new PositionCorpus(BoardType.BITBOARD).notations;
+    }
+
+    @Benchmark
+    public Move toMoves() {
+        this.index = (this.index + 1) & (PositionCorpus.SIZE - 1);
+        return Move.toMoves(this.notations[this.index]);
+    }
+}
@@ -0,0 +1,70 @@
+package edu.asu.benchmark;
+
+import edu.asu.core.Move;
+import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.board.PackedMove;
+import edu.asu.core.piece.Man;
+import edu.asu.core.player.Human;
+import edu.asu.core.player.Player;
+import edu.asu.util.BoardFactory;
+import edu.asu.util.BoardType;
+import edu.asu.util.PlayerSymbol;
+import java.util.SplittableRandom;
+
+/**
+ * This class holds the fixed set of positions the benchmarks run against. The positions come from random games
+ * played with a fixed seed, so every run and every board implementation sees exactly the same ones.
+ * Quiet positions come with a legal simple move and capture positions with a legal capture for the side to move.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+final class PositionCorpus {
+    static final int SIZE = 64; // a power of two so benchmarks can cycle with a mask
+    static final long SEED = 0xC0FFEEL;
+
+    final CheckerBoard initial;
+    final CheckerBoard[] quietPositions = new CheckerBoard[SIZE];
+    final Move[] quietMoves = new Move[SIZE];
+    final Player[] quietMovers = new Player[SIZE];
+    final CheckerBoard[] capturePositions = new CheckerBoard[SIZE];
+    final Move[] captureMoves = new Move[SIZE];
+    final Player[] captureMovers = new Player[SIZE];
+    final String[] notations = new String[SIZE];
+
+    private final Player[] players = {
+            new Human("X", new Man(PlayerSymbol.X.getValue())),
+            new Human("O", new Man(PlayerSymbol.O.getValue()))
+    };
+
+    PositionCorpus(BoardType type) {
+        this.initial = new BoardFactory().createBoard(8, type);
+        this.initial.initializeBoard(this.players[PlayerSymbol.O.ordinal()], this.players[PlayerSymbol.X.ordinal()]);
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] moves = new int[CheckerBoard.MAX_MOVES];
+        int quiet = 0;
+        int captures = 0;
+        while (quiet < SIZE || captures < SIZE) {
+            CheckerBoard board = this.initial.copy();
+            for (int ply = 0; ply < 80; ply++) {
+                int count = board.generateMoves(board.getSideToMove(), moves);
+                if (count == 0) {
+                    break;
+                }
+                int move = moves[random.nextInt(count)];
+                Player mover = this.players[board.getSideToMove()];
+                if (PackedMove.isCapture(move) && captures < SIZE && random.nextInt(4) == 0) {
+                    this.capturePositions[captures] = board.copy();
+                    this.captureMoves[captures] = PackedMove.toMove(move, 8);
+                    this.captureMovers[captures++] = mover;
+                } else if (!PackedMove.isCapture(move) && quiet < SIZE && random.nextInt(8) == 0) {
+                    this.quietPositions[quiet] = board.copy();
+                    this.quietMoves[quiet] = PackedMove.toMove(move, 8);
+                    this.notations[quiet] = PackedMove.toString(move, 8);
+                    this.quietMovers[quiet++] = mover;
+                }
+                board.applyMove(move);
+            }
+        }
+    }
+}
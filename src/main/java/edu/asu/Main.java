@@ -8,7 +8,7 @@ public class Main {
     public static void main(String[] args) {
 
         GameController gameController = new GameController();
-        UI console = new ConsoleUI(gameController);
+        UI console = new ConsoleUI(gameController, args.length > 0 && args[0].equals("--ansi"));
         gameController.setUI(console);
         gameController.startGame();
     }
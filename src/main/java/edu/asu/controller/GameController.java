@@ -2,13 +2,20 @@ package edu.asu.controller;
 
 import edu.asu.core.Move;
 import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.board.MoveNotation;
+import edu.asu.core.board.MoveResult;
 import edu.asu.core.piece.Man;
 import edu.asu.core.piece.Piece;
+import edu.asu.core.player.Computer;
 import edu.asu.core.player.Human;
 import edu.asu.core.player.Player;
+import edu.asu.engine.TranspositionTable;
+import edu.asu.metrics.Metrics;
 import edu.asu.ui.UI;
 import edu.asu.util.BoardFactory;
+import edu.asu.util.BoardType;
 import edu.asu.util.PlayerSymbol;
+import java.util.Arrays;
 import java.util.Map;
 
 /**
@@ -21,7 +28,14 @@ public class GameController {
     private CheckerBoard checkerBoard;
     private Player[] players;
     private Player currentPlayer;
+    private Player winner;
+    private boolean drawn;
+    private int quietPlies; // plies in a row in which only kings moved and nothing was captured
+    private int[] moveHistory = new int[64]; // packed moves played so far
+    private int moveCount;
+    private MoveResult lastMoveResult;
     private UI ui;
+    private TranspositionTable computerTable; // shared by the computer players, or null for a table each
 
     /**
      * Sets up the Game UI
@@ -35,9 +49,10 @@ public class GameController {
      * Sets up the board type to be used for the game.
      * 8x8, 10x10 etc.
      * @param boardSize the board dimension
+     * @param boardType the board implementation
      */
-    private void setBoard(int boardSize){
-        this.checkerBoard = new BoardFactory().createBoard(boardSize);
+    private void setBoard(int boardSize, BoardType boardType){
+        this.checkerBoard = new BoardFactory().createBoard(boardSize, boardType);
     }
 
     /**
@@ -51,19 +66,19 @@ public class GameController {
         Map<String, String> userResponse = this.ui.renderGameMenu();
         String player1Name = userResponse.get("player1Name");
         String player2Name = userResponse.get("player2Name");
+        String player1Type = userResponse.getOrDefault("player1Type", "H");
+        String player2Type = userResponse.getOrDefault("player2Type", "H");
         String boardType = userResponse.get("boardType");
         String option = userResponse.get("option");
 
         if(option.equalsIgnoreCase("E")){
             ui.renderGoodbyeScreen();
-            System.exit(0);
             return;
         }
 
         //initialize players
-        this.setBoard(Integer.parseInt(boardType));
-        this.initializePlayers(player1Name, player2Name);
-        this.checkerBoard.initializeBoard(players[0], players[1]);
+        this.newGame(player1Name, player2Name, player1Type, player2Type, Integer.parseInt(boardType), BoardType.STANDARD);
+        Metrics.get().gameStarted();
         this.ui.renderGameBoard();
         String gameState =
                 "Player 1: " +
@@ -75,26 +90,203 @@ public class GameController {
                 players[1].getPiece().getSymbol()+ " - " +
                         this.checkerBoard.numberOfPieces(players[1].getPiece().getSymbol())+ "\n";
         this.ui.renderGameMessages(gameState);
-        this.currentPlayer = players[0];
         this.gameLoop();
     }
 
+    /**
+     * Sets up a new game without any console interaction. Player 1 moves first
+     * @param player1Name player1's name
+     * @param player2Name player2's name
+     * @param player1Type H for a human or C for a computer
+     * @param player2Type H for a human or C for a computer
+     * @param boardSize the board dimension
+     * @param boardType the board implementation
+     */
+    public void newGame(String player1Name, String player2Name, String player1Type, String player2Type,
+                        int boardSize, BoardType boardType){
+        this.setBoard(boardSize, boardType);
+        this.initializePlayers(player1Name, player2Name, player1Type, player2Type);
+        this.checkerBoard.initializeBoard(players[0], players[1]);
+        this.currentPlayer = players[0];
+        this.winner = null;
+        this.drawn = false;
+        this.quietPlies = 0;
+        this.moveCount = 0;
+    }
+
+    /**
+     * Makes the computer players of the games set up from now on store their searches in a shared table
+     * instead of allocating a table each
+     * @param table transposition table, or null for a table each
+     */
+    public void setComputerTable(TranspositionTable table){
+        this.computerTable = table;
+    }
+
+    /**
+     * Plays one move for the player whose turn it is. This is the whole of a turn without any console interaction:
+     * the move is validated and made, a win or a draw is detected and the turn passes to the other player.
+     * The game is drawn after CheckerBoard.DRAW_PLIES plies in a row in which nothing was captured and no man moved
+     * @param move the move in the board's notation, for example 3B-4C. Ignored when a computer is to move
+     * Every move made or rejected is counted in the Metrics, and a human's move is timed.
+     * The reason a move was rejected is kept for getLastMoveResult, nothing is printed
+     * @return true if the move was made and false if it was rejected or the game is over
+     */
+    public boolean playMove(String move){
+        Metrics metrics = Metrics.get();
+        if(this.isOver()){
+            this.lastMoveResult = null;
+            metrics.moveRejected("game_over", -1);
+            return false;
+        }
+        int side = currentPlayer.getPiece().getColour().ordinal();
+        int kingsBefore = this.checkerBoard.numberOfKings(side);
+        MoveResult result;
+        int packedMove;
+        if(currentPlayer instanceof Computer computer){
+            result = computer.makeMove(null, this.checkerBoard);
+            packedMove = computer.getLastMove();
+            if(result.isValid()){
+                metrics.movePlayed(-1); // the engine's thinking time is counted by the computer
+            }else{
+                metrics.moveRejected(result.getCode(), -1);
+            }
+        }else if(move != null){
+            long start = System.nanoTime();
+            Move parsed = MoveNotation.parseMove(move, this.checkerBoard);
+            packedMove = parsed == null ? 0 : this.checkerBoard.packMove(parsed); // packed before the move changes the board
+            result = parsed == null ? MoveResult.MALFORMED : currentPlayer.makeMove(parsed, this.checkerBoard);
+            long elapsed = System.nanoTime() - start;
+            if(result.isValid()){
+                metrics.movePlayed(elapsed);
+            }else{
+                metrics.moveRejected(result.getCode(), elapsed);
+            }
+        }else{
+            this.lastMoveResult = MoveResult.MALFORMED;
+            metrics.moveRejected("missing", -1);
+            return false;
+        }
+        this.lastMoveResult = result;
+        if(!result.isValid()){
+            return false;
+        }
+        if(this.moveCount == this.moveHistory.length){
+            this.moveHistory = Arrays.copyOf(this.moveHistory, this.moveCount * 2);
+        }
+        this.moveHistory[this.moveCount++] = packedMove;
+        if(this.checkerBoard.isIrreversible(packedMove, kingsBefore)){
+            this.quietPlies = 0;
+        }else{
+            this.quietPlies++;
+        }
+        if(this.checkerBoard.won()){
+            this.winner = currentPlayer;
+        }else if(this.quietPlies >= CheckerBoard.DRAW_PLIES){
+            this.drawn = true;
+        }else{
+            this.switchPlayers();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the outcome of the last call to playMove, for the UI to show why a move was rejected
+     * @return OK, the reason the move was rejected, or null if the game was already over
+     */
+    public MoveResult getLastMoveResult(){
+        return this.lastMoveResult;
+    }
+
+    /**
+     * Returns whether the game has been won or drawn
+     * @return true if the game is over and false otherwise
+     */
+    public boolean isOver(){
+        return this.winner != null || this.drawn;
+    }
+
+    /**
+     * Returns whether the game ended in a draw
+     * @return true if CheckerBoard.DRAW_PLIES plies went by without a capture or a man moving
+     */
+    public boolean isDraw(){
+        return this.drawn;
+    }
+
+    /**
+     * Returns the winner of the game
+     * @return the winner or null while the game is still going or if it was drawn
+     */
+    public Player getWinner(){
+        return this.winner;
+    }
+
+    /**
+     * Returns the moves played so far, oldest first
+     * @return a copy of the packed moves
+     */
+    public int[] getMoveHistory(){
+        return Arrays.copyOf(this.moveHistory, this.moveCount);
+    }
+
+    /**
+     * Returns the number of moves played so far
+     * @return the number of moves
+     */
+    public int getMoveCount(){
+        return this.moveCount;
+    }
+
+    /**
+     * Returns the player whose turn it is
+     * @return the current player
+     */
+    public Player getCurrentPlayer(){
+        return this.currentPlayer;
+    }
+
+    /**
+     * Returns the board the game is played on
+     * @return the board
+     */
+    public CheckerBoard getCheckerBoard(){
+        return this.checkerBoard;
+    }
+
     /**
      * Initializers the players
      * @param player1Name player1's name
      * @param player2Name player2's name
+     * @param player1Type H for a human or C for a computer
+     * @param player2Type H for a human or C for a computer
+     */
+    private void initializePlayers(String player1Name, String player2Name, String player1Type, String player2Type){
+        Piece xPiece = Man.of(PlayerSymbol.X);
+        Piece oPiece = Man.of(PlayerSymbol.O);
+        this.players = new Player[]{createPlayer(player1Name, player1Type, oPiece), createPlayer(player2Name, player2Type, xPiece)};
+    }
+
+    /**
+     * Creates a human or computer player
+     * @param playerName player's name
+     * @param playerType H for a human or C for a computer
+     * @param piece player's piece
+     * @return the player
      */
-    private void initializePlayers(String player1Name, String player2Name){
-        Piece xPiece = new Man(PlayerSymbol.X.getValue());
-        Piece oPiece = new Man(PlayerSymbol.O.getValue());
-        this.players = new Player[]{new Human(player1Name, oPiece), new Human(player2Name, xPiece)};
+    private Player createPlayer(String playerName, String playerType, Piece piece){
+        if(playerType.equalsIgnoreCase("C")){
+            return this.computerTable == null ? new Computer(playerName, piece) :
+                    new Computer(playerName, piece, this.computerTable);
+        }
+        return new Human(playerName, piece);
     }
 
     /**
      * Switches players after each player's turn
      */
     private void switchPlayers(){
-        if(currentPlayer.getPiece().getSymbol().equalsIgnoreCase(PlayerSymbol.X.getValue())){
+        if(currentPlayer.getPiece().getColour() == PlayerSymbol.X){
             currentPlayer = players[0];
         }else{
             currentPlayer = players[1];
@@ -110,23 +302,27 @@ public class GameController {
     }
 
     /**
-     * Runs infinitely until a winner emerges or a tie or a block is detected.
+     * Runs until a winner emerges or the game is drawn.
      */
     private void gameLoop(){
         while(true){
             this.ui.renderGameMessages("["+this.checkerBoard.numberOfPieces(currentPlayer.getPiece().getSymbol())+ " - "+currentPlayer.getPiece().getSymbol()+ "] "+ currentPlayer.getPlayerName()+ " Your turn");
             boolean isValidMove = false;
             while(!isValidMove){
-                String playerMove = this.ui.getMove(this.checkerBoard.getMOVE_REGEX());
-                isValidMove = currentPlayer.makeMove(Move.toMoves(playerMove), this.checkerBoard);
+                String playerMove = currentPlayer instanceof Computer ? null : this.ui.getMove(this.checkerBoard.getMOVE_REGEX());
+                isValidMove = this.playMove(playerMove);
+                if(!isValidMove && this.lastMoveResult != null){
+                    this.ui.renderGameMessages(this.lastMoveResult.getMessage());
+                }
             }
             this.ui.renderGameBoard();
-            if(this.checkerBoard.won()){
-                this.ui.renderGameMessages(currentPlayer.getPlayerName() + " Won!!!!!!!!!");
+            if(this.isOver()){
+                Metrics.get().gameFinished();
+                this.ui.renderGameMessages(this.drawn ? "Draw: " + CheckerBoard.DRAW_PLIES / 2 +
+                        " moves each without a capture or a man moving" : winner.getPlayerName() + " Won!!!!!!!!!");
                 this.ui.renderGoodbyeScreen();
-                System.exit(0);
+                return;
             }
-            this.switchPlayers();
         }
     }
 
@@ -1,7 +1,6 @@
 package edu.asu.core;
 
 
-import edu.asu.util.Letter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -35,14 +34,16 @@ public class Move {
      * @return a move
      */
     public static Move toMoves(String move){
-        List<Position> playerMoves = new ArrayList<>();
-        String[] moves = move.split("-");
-
-        for(String decodedMove : moves){
-            int row = Integer.parseInt(String.valueOf(decodedMove.charAt(0))) - 1;
-            int col = Letter.valueOf(String.valueOf(decodedMove.charAt(1))).ordinal();
-            Position position = new Position(row, col);
-            playerMoves.add(position);
+        List<Position> playerMoves = new ArrayList<>(move.length() / 3 + 1);
+        int row = 0;
+        for (int i = 0; i < move.length(); i++) {
+            char c = move.charAt(i);
+            if (c >= '0' && c <= '9') {
+                row = row * 10 + c - '0';
+            } else if (c != '-') {
+                playerMoves.add(new Position(row - 1, (c | 0x20) - 'a'));
+                row = 0;
+            }
         }
         return new Move(playerMoves);
     }
@@ -1,14 +1,15 @@
 package edu.asu.core;
 
 /**
- * This class represents the x and y coordinate on the checker's board
+ * This class represents the x and y coordinate on the checker's board. Positions are immutable,
+ * so boards hand out shared instances for their squares
  * @author Martin Alemajoh
  * @version 1.0
  */
 public class Position {
 
-    private int row;
-    private int column;
+    private final int row;
+    private final int column;
 
     /**
      * Constructs a new position
@@ -37,19 +38,22 @@ public class Position {
     }
 
     /**
-     * Sets the x coordinate
-     * @param row x coordinate
+     * Checks if another object is a position with the same coordinates
+     * @param other object to compare with
+     * @return true if both positions name the same square
      */
-    public void setRow(int row) {
-        this.row = row;
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Position position && position.row == this.row && position.column == this.column;
     }
 
     /**
-     * Sets the y coordinate
-     * @param column y coordinate
+     * Returns a hash code consistent with equals
+     * @return the hash code
      */
-    public void setColumn(int column) {
-        this.column = column;
+    @Override
+    public int hashCode() {
+        return 31 * this.row + this.column;
     }
 
     /**
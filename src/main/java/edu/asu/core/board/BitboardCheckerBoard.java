@@ -0,0 +1,607 @@
+package edu.asu.core.board;
+
+import edu.asu.core.Move;
+import edu.asu.core.Position;
+import edu.asu.core.piece.King;
+import edu.asu.core.piece.Man;
+import edu.asu.core.piece.Piece;
+import edu.asu.core.player.Player;
+import edu.asu.util.PlayerSymbol;
+
+/**
+ * This class represents a standard 8x8 checkerboard stored as bitmasks.
+ * The 32 dark squares are numbered row by row from the top left, each one mapping to a bit,
+ * and every side keeps one mask for its men and one for its kings.
+ * The piece grid handed to the UI is only rebuilt when it is asked for after a change.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class BitboardCheckerBoard extends CheckerBoard {
+
+    private static final int BOARD_SIZE = 8;
+    private static final int SQUARES_PER_ROW = BOARD_SIZE / 2;
+    private static final int X_PROMOTION_ROW = 0x0000000F; // squares 0..3, X moves upwards
+    private static final int O_PROMOTION_ROW = 0xF0000000; // squares 28..31, O moves downwards
+    private static final int[][] NEIGHBOR = BoardGeometry.of(BOARD_SIZE).neighbor; // -1 off the board
+    private static final int[][] JUMP = BoardGeometry.of(BOARD_SIZE).jump;
+
+    private final int[] men = new int[2]; // indexed by PlayerSymbol ordinal
+    private final int[] kings = new int[2];
+    private final int[] scratch = new int[MAX_MOVES];
+    private boolean stale = true;
+
+    /**
+     * Constructs an 8x8 bitboard
+     */
+    public BitboardCheckerBoard() {
+        super(BOARD_SIZE, BOARD_SIZE);
+    }
+
+    /**
+     * Returns the board state, rebuilding the piece grid from the bitmasks if it is out of date
+     * @return the board state
+     */
+    @Override
+    public Piece[][] getBoardState() {
+        if (this.stale) {
+            for (int row = 0; row < BOARD_SIZE; row++) {
+                for (int col = 0; col < BOARD_SIZE; col++) {
+                    this.grid[row][col] = this.pieceAt(squareOf(row, col));
+                }
+            }
+            this.stale = false;
+        }
+        return this.grid;
+    }
+
+    /**
+     * Return the regular expression used to valid moves
+     * @return a regex used to valid a move on the board
+     */
+    @Override
+    public String getMOVE_REGEX() {
+        return MoveNotation.regex(this.getBoardSize());
+    }
+
+    /**
+     * Returns the count left for a piece on the board
+     * @param playerSymbol player symbol also referred to as piece
+     * @return the count left for a piece on the board
+     */
+    @Override
+    public int numberOfPieces(String playerSymbol) {
+        int side = PlayerSymbol.of(playerSymbol).ordinal();
+        return Integer.bitCount(this.men[side] | this.kings[side]);
+    }
+
+    /**
+     * Initializes the checkerboard
+     * @param player1 player 1 instance
+     * @param player2 player 2 instance
+     */
+    @Override
+    public void initializeBoard(Player player1, Player player2) {
+        this.men[PlayerSymbol.O.ordinal()] = 0x00000FFF; // rows 1 to 3
+        this.men[PlayerSymbol.X.ordinal()] = 0xFFF00000; // rows 6 to 8
+        this.kings[PlayerSymbol.O.ordinal()] = 0;
+        this.kings[PlayerSymbol.X.ordinal()] = 0;
+        this.rehash(player1.getPiece().getColour().ordinal());
+    }
+
+    /**
+     * Sets up an arbitrary position, for example one loaded from a file
+     * @param men squares of each side's men, indexed by PlayerSymbol ordinal
+     * @param kings squares of each side's kings, indexed by PlayerSymbol ordinal
+     * @param sideToMove PlayerSymbol ordinal of the side to move
+     */
+    @Override
+    public void setUpPosition(int[][] men, int[][] kings, int sideToMove) {
+        for (int side = 0; side < 2; side++) {
+            this.men[side] = 0;
+            this.kings[side] = 0;
+            for (int square : men[side]) {
+                this.men[side] |= 1 << square;
+            }
+            for (int square : kings[side]) {
+                this.kings[side] |= 1 << square;
+            }
+        }
+        this.rehash(sideToMove);
+    }
+
+    /**
+     * Sets up an arbitrary position from bitmasks, one bit per dark square
+     * @param xMen squares of X's men
+     * @param oMen squares of O's men
+     * @param xKings squares of X's kings
+     * @param oKings squares of O's kings
+     * @param sideToMove PlayerSymbol ordinal of the side to move
+     */
+    public void setUpPosition(int xMen, int oMen, int xKings, int oKings, int sideToMove) {
+        this.men[PlayerSymbol.X.ordinal()] = xMen;
+        this.men[PlayerSymbol.O.ordinal()] = oMen;
+        this.kings[PlayerSymbol.X.ordinal()] = xKings;
+        this.kings[PlayerSymbol.O.ordinal()] = oKings;
+        this.rehash(sideToMove);
+    }
+
+    /**
+     * Returns the squares of a side's men as a bitmask
+     * @param side PlayerSymbol ordinal of the side
+     * @return the bitmask
+     */
+    public int getMen(int side) {
+        return this.men[side];
+    }
+
+    /**
+     * Returns the squares of a side's kings as a bitmask
+     * @param side PlayerSymbol ordinal of the side
+     * @return the bitmask
+     */
+    public int getKings(int side) {
+        return this.kings[side];
+    }
+
+    /**
+     * Recomputes the hash key and piece-square score from scratch after the whole board has been set up
+     */
+    private void rehash(int sideToMove) {
+        this.hashKey = 0;
+        this.score = 0;
+        for (int side = 0; side < 2; side++) {
+            for (int pieces = this.men[side]; pieces != 0; pieces &= pieces - 1) {
+                this.addPiece(side, false, Integer.numberOfTrailingZeros(pieces));
+            }
+            for (int pieces = this.kings[side]; pieces != 0; pieces &= pieces - 1) {
+                this.addPiece(side, true, Integer.numberOfTrailingZeros(pieces));
+            }
+        }
+        this.sideToMove = PlayerSymbol.X.ordinal();
+        this.setSideToMove(sideToMove);
+        this.clearUndo();
+        this.stale = true;
+    }
+
+    /**
+     * Lists every legal move for a side into a caller supplied buffer as packed moves.
+     * @param side PlayerSymbol ordinal of the side
+     * @param moves buffer of at least MAX_MOVES entries
+     * @return the number of moves written
+     */
+    @Override
+    public int generateMoves(int side, int[] moves) {
+        int count = this.generateCaptures(side, moves);
+        if (count > 0) {
+            return count;
+        }
+        int empty = ~(this.men[0] | this.men[1] | this.kings[0] | this.kings[1]);
+        int forward = side == PlayerSymbol.X.ordinal() ? PackedMove.UP_LEFT : PackedMove.DOWN_LEFT;
+        for (int pieces = this.men[side] | this.kings[side]; pieces != 0; pieces &= pieces - 1) {
+            int from = Integer.numberOfTrailingZeros(pieces);
+            boolean king = (this.kings[side] >>> from & 1) != 0;
+            int last = king ? 4 : forward + 2;
+            for (int dir = king ? 0 : forward; dir < last; dir++) {
+                int to = NEIGHBOR[dir][from];
+                if (to >= 0 && (empty >>> to & 1) != 0) {
+                    moves[count++] = PackedMove.simple(from, dir);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Plays a packed move produced by generateMoves for the side to move without validating it again
+     * and passes the turn to the other side
+     * @param move packed move
+     * @return the undo flags of the move
+     */
+    @Override
+    protected int play(int move) {
+        int side = this.sideToMove;
+        int from = PackedMove.from(move);
+        int square = from;
+        int captured = 0;
+        int flags = 0;
+        for (int step = 0; step < PackedMove.steps(move); step++) {
+            int dir = PackedMove.direction(move, step);
+            if (PackedMove.isCapture(move)) {
+                int jumped = NEIGHBOR[dir][square];
+                captured |= 1 << jumped;
+                flags |= (this.kings[side ^ 1] >>> jumped & 1) << step;
+                square = JUMP[dir][square];
+            } else {
+                square = NEIGHBOR[dir][square];
+            }
+        }
+        if (this.movePiece(side, from, square)) {
+            flags |= PROMOTED;
+        }
+        for (; captured != 0; captured &= captured - 1) {
+            this.removePiece(Integer.numberOfTrailingZeros(captured));
+        }
+        this.setSideToMove(side ^ 1);
+        return flags;
+    }
+
+    /**
+     * Puts back the pieces a move changed, without touching the hash key or the side to move
+     * @param move packed move
+     * @param flags undo flags returned by play
+     */
+    @Override
+    protected void takeBack(int move, int flags) {
+        int side = this.sideToMove ^ 1;
+        int from = PackedMove.from(move);
+        int square = from;
+        for (int step = 0; step < PackedMove.steps(move); step++) {
+            int dir = PackedMove.direction(move, step);
+            if (PackedMove.isCapture(move)) {
+                int jumped = 1 << NEIGHBOR[dir][square];
+                if ((flags & 1 << step) != 0) {
+                    this.kings[side ^ 1] |= jumped;
+                } else {
+                    this.men[side ^ 1] |= jumped;
+                }
+                square = JUMP[dir][square];
+            } else {
+                square = NEIGHBOR[dir][square];
+            }
+        }
+        int toBit = 1 << square;
+        if ((flags & PROMOTED) != 0 || (this.men[side] & toBit) != 0) {
+            this.men[side] |= 1 << from;
+        } else {
+            this.kings[side] |= 1 << from;
+        }
+        this.men[side] &= ~toBit;
+        this.kings[side] &= ~toBit;
+        this.stale = true;
+    }
+
+    /**
+     * Moves a side's piece between two squares, crowning a man that reaches the far row. Returns true if it crowned one
+     */
+    private boolean movePiece(int side, int from, int to) {
+        int fromBit = 1 << from;
+        int toBit = 1 << to;
+        boolean promoted = false;
+        if ((this.kings[side] & fromBit) != 0) {
+            this.kings[side] = this.kings[side] & ~fromBit | toBit;
+            this.subtractPiece(side, true, from);
+            this.addPiece(side, true, to);
+        } else if ((toBit & promotionRow(side)) != 0) {
+            this.men[side] &= ~fromBit;
+            this.kings[side] |= toBit;
+            this.subtractPiece(side, false, from);
+            this.addPiece(side, true, to);
+            promoted = true;
+        } else {
+            this.men[side] = this.men[side] & ~fromBit | toBit;
+            this.subtractPiece(side, false, from);
+            this.addPiece(side, false, to);
+        }
+        this.stale = true;
+        return promoted;
+    }
+
+    /**
+     * Takes whatever piece stands on a square off the board
+     */
+    private void removePiece(int square) {
+        int bit = 1 << square;
+        for (int side = 0; side < 2; side++) {
+            if ((this.men[side] & bit) != 0) {
+                this.men[side] &= ~bit;
+                this.subtractPiece(side, false, square);
+            } else if ((this.kings[side] & bit) != 0) {
+                this.kings[side] &= ~bit;
+                this.subtractPiece(side, true, square);
+            }
+        }
+        this.stale = true;
+    }
+
+    /**
+     * Returns a new board holding the same position
+     * @return a copy of the board
+     */
+    @Override
+    public CheckerBoard copy() {
+        BitboardCheckerBoard copy = new BitboardCheckerBoard();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Overwrites this board with the position of another bitboard
+     * @param other the board to copy from
+     */
+    @Override
+    public void copyFrom(CheckerBoard other) {
+        BitboardCheckerBoard source = (BitboardCheckerBoard) other;
+        this.men[0] = source.men[0];
+        this.men[1] = source.men[1];
+        this.kings[0] = source.kings[0];
+        this.kings[1] = source.kings[1];
+        this.sideToMove = source.sideToMove;
+        this.hashKey = source.hashKey;
+        this.clearUndo();
+        this.stale = true;
+        this.copyScore(source);
+    }
+
+    /**
+     * Returns the number of men a side has on the board
+     * @param side PlayerSymbol ordinal of the side
+     * @return the number of men
+     */
+    @Override
+    public int numberOfMen(int side) {
+        return Integer.bitCount(this.men[side]);
+    }
+
+    /**
+     * Returns the number of kings a side has on the board
+     * @param side PlayerSymbol ordinal of the side
+     * @return the number of kings
+     */
+    @Override
+    public int numberOfKings(int side) {
+        return Integer.bitCount(this.kings[side]);
+    }
+
+    private int generateCaptures(int side, int[] moves) {
+        int count = 0;
+        int opponents = this.men[side ^ 1] | this.kings[side ^ 1];
+        int occupied = this.men[side] | this.kings[side] | opponents;
+        for (int pieces = this.men[side] | this.kings[side]; pieces != 0; pieces &= pieces - 1) {
+            int from = Integer.numberOfTrailingZeros(pieces);
+            boolean king = (this.kings[side] >>> from & 1) != 0;
+            count = this.extendCapture(side, king, from, occupied & ~(1 << from), opponents, from, moves, count);
+        }
+        return count;
+    }
+
+    /**
+     * Follows every jump available from a square, writing each finished sequence to the buffer.
+     * Jumped pieces stay on the board as obstacles until the sequence is over but can't be jumped twice.
+     */
+    private int extendCapture(int side, boolean king, int square, int occupied, int opponents, int move, int[] moves, int count) {
+        boolean extended = false;
+        if (PackedMove.steps(move) < PackedMove.MAX_STEPS) {
+            int forward = side == PlayerSymbol.X.ordinal() ? PackedMove.UP_LEFT : PackedMove.DOWN_LEFT;
+            int last = king ? 4 : forward + 2;
+            for (int dir = king ? 0 : forward; dir < last; dir++) {
+                int over = NEIGHBOR[dir][square];
+                int land = JUMP[dir][square];
+                if (land < 0 || (opponents >>> over & 1) == 0 || (occupied >>> land & 1) != 0) {
+                    continue;
+                }
+                extended = true;
+                int next = PackedMove.addJump(move, dir);
+                if (!king && ((1 << land) & promotionRow(side)) != 0) {
+                    moves[count++] = next; // crowning ends the move
+                } else {
+                    count = this.extendCapture(side, king, land, occupied, opponents & ~(1 << over), next, moves, count);
+                }
+            }
+        }
+        if (!extended && PackedMove.steps(move) > 0) {
+            moves[count++] = move;
+        }
+        return count;
+    }
+
+    /**
+     * Updates a move made by a player. A move is represented by a start and end position
+     * A man reaching the far row of the board is crowned a king.
+     * @param origin the origin of the move
+     * @param destination the destination of the move
+     */
+    @Override
+    public void updateMove(Position origin, Position destination) {
+        int from = squareOf(origin.getRow(), origin.getColumn());
+        int side = ((this.men[0] | this.kings[0]) >>> from & 1) != 0 ? 0 : 1;
+        this.movePiece(side, from, squareOf(destination.getRow(), destination.getColumn()));
+    }
+
+    /**
+     * Updates a capture move. A capture move is a move attempted to capture opponents piece.
+     * It is represented by a start position capture piece position and destination
+     * @param captured the position of the piece to be captured
+     */
+    @Override
+    public void updateCaptureMove(Position captured) {
+        this.removePiece(squareOf(captured.getRow(), captured.getColumn()));
+    }
+
+    /**
+     * Validates the origin, destination and direction of a simple move
+     * @param moves Player's move
+     * @param player Player
+     * @return OK if the move is valid, otherwise the reason it is not
+     */
+    @Override
+    protected MoveResult validateSimpleMove(Move moves, Player player) {
+        Position origin = moves.getMoves().get(0);
+        Position destination = moves.getMoves().get(1);
+        int side = player.getPiece().getColour().ordinal();
+        int from = squareOf(origin.getRow(), origin.getColumn());
+
+        if (!this.isOccupied(from)) {
+            return MoveResult.EMPTY_ORIGIN;
+        }
+
+        if (!this.isOwnedBy(from, side)) {
+            return MoveResult.OPPONENT_PIECE;
+        }
+
+        if (this.isOccupied(squareOf(destination.getRow(), destination.getColumn()))) {
+            return MoveResult.OCCUPIED_DESTINATION;
+        }
+
+        if (!this.isValidForwardDiagonalMove(origin, destination, player)) {
+            return MoveResult.NOT_DIAGONAL;
+        }
+        return MoveResult.OK;
+    }
+
+    /**
+     * Checks if there is a block. A block occurs when the player to move can neither make a move nor a capture
+     * @return a boolean representing the result of the check. True if there is a block and false otherwise
+     */
+    @Override
+    public boolean isBlocked() {
+        return this.generateMoves(this.sideToMove, this.scratch) == 0;
+    }
+
+    /**
+     * Checks if there is a win. A win occurs when one player has zero pieces or one player is blocked
+     * @return a boolean representing the result of the check. True if there is a win and false otherwise
+     */
+    @Override
+    public boolean won() {
+        return (this.men[0] | this.kings[0]) == 0 || (this.men[1] | this.kings[1]) == 0 || this.isBlocked();
+    }
+
+    /**
+     * Validates if a move, based on the player is valid. If a player uses the top portion of the board they can only move downwards
+     * Similarly if a player uses the bottom portion of the board, they can only move upwards. Kings can move both ways.
+     * @param origin The origin of the move.
+     * @param destination The destination of the move
+     * @param player The player
+     * @return a boolean representing the validation. True if move is valid and false otherwise
+     */
+    @Override
+    public boolean isValidForwardDiagonalMove(Position origin, Position destination, Player player) {
+        int side = player.getPiece().getColour().ordinal();
+        int forward = side == PlayerSymbol.X.ordinal() ? -1 : 1;
+        int rowStep = destination.getRow() - origin.getRow();
+        int colStep = destination.getColumn() - origin.getColumn();
+        if (colStep != 1 && colStep != -1) {
+            return false;
+        }
+        int from = squareOf(origin.getRow(), origin.getColumn());
+        boolean king = from >= 0 && (this.kings[side] & (1 << from)) != 0;
+        return rowStep == forward || king && rowStep == -forward;
+    }
+
+    /**
+     * Validates if a capture move is valid. A valid capture move must have a valid start position
+     * The capture piece, start and destination position must be valid diagonals
+     * destination must be empty.
+     * @param origin The origin of the move
+     * @param capturePiece The position of the opponent's piece
+     * @param destination The destination of the move
+     * @param player The player
+     * @return OK if the capture is valid, otherwise the reason it is not
+     */
+    @Override
+    public MoveResult validateCaptureMove(Position origin, Position capturePiece, Position destination, Player player) {
+        int side = player.getPiece().getColour().ordinal();
+        int from = squareOf(origin.getRow(), origin.getColumn());
+        int captured = squareOf(capturePiece.getRow(), capturePiece.getColumn());
+
+        if (!this.isValidForwardDiagonalMove(origin, capturePiece, player)) {
+            return MoveResult.NOT_FORWARD_CAPTURE;
+        }
+
+        if (!this.isOccupied(from)) {
+            return MoveResult.EMPTY_ORIGIN;
+        }
+
+        if (!this.isOwnedBy(from, side)) {
+            return MoveResult.OPPONENT_PIECE;
+        }
+
+        if (!this.isOccupied(captured)) {
+            return MoveResult.EMPTY_CAPTURE;
+        }
+
+        if (this.isOwnedBy(captured, side)) {
+            return MoveResult.OWN_CAPTURE;
+        }
+
+        if (!isOnBoard(destination) || this.isOccupied(squareOf(destination.getRow(), destination.getColumn()))) {
+            return MoveResult.OCCUPIED_DESTINATION;
+        }
+
+        if (!isStraightJump(origin, capturePiece, destination)) {
+            return MoveResult.NOT_STRAIGHT_JUMP;
+        }
+
+        return MoveResult.OK;
+    }
+
+    /**
+     * Returns the dark square index of a row and column
+     * @param row row
+     * @param column column
+     * @return the square index or -1 for a light square
+     */
+    static int squareOf(int row, int column) {
+        return ((row + column) & 1) == 0 ? -1 : row * SQUARES_PER_ROW + (column >> 1);
+    }
+
+    /**
+     * Returns the far row a side's men are crowned on
+     * @param side side index
+     * @return the promotion row mask
+     */
+    private static int promotionRow(int side) {
+        return side == PlayerSymbol.X.ordinal() ? X_PROMOTION_ROW : O_PROMOTION_ROW;
+    }
+
+    /**
+     * Checks that a position lies within the board
+     * @param position position
+     * @return true if the position is on the board
+     */
+    private static boolean isOnBoard(Position position) {
+        return position.getRow() >= 0 && position.getRow() < BOARD_SIZE &&
+                position.getColumn() >= 0 && position.getColumn() < BOARD_SIZE;
+    }
+
+    /**
+     * Checks that the destination continues the line from the origin over the captured piece
+     * @param origin origin
+     * @param captured captured piece
+     * @param destination destination
+     * @return true if the three positions form a straight jump
+     */
+    private static boolean isStraightJump(Position origin, Position captured, Position destination) {
+        return destination.getRow() - captured.getRow() == captured.getRow() - origin.getRow() &&
+                destination.getColumn() - captured.getColumn() == captured.getColumn() - origin.getColumn();
+    }
+
+    private boolean isOccupied(int square) {
+        if (square < 0) {
+            return false;
+        }
+        int bit = 1 << square;
+        return ((this.men[0] | this.men[1] | this.kings[0] | this.kings[1]) & bit) != 0;
+    }
+
+    private boolean isOwnedBy(int square, int side) {
+        return square >= 0 && ((this.men[side] | this.kings[side]) & (1 << square)) != 0;
+    }
+
+    private Piece pieceAt(int square) {
+        if (square < 0) {
+            return null;
+        }
+        int bit = 1 << square;
+        for (PlayerSymbol symbol : PlayerSymbol.values()) {
+            int side = symbol.ordinal();
+            if ((this.men[side] & bit) != 0) {
+                return Man.of(symbol);
+            }
+            if ((this.kings[side] & bit) != 0) {
+                return King.of(symbol);
+            }
+        }
+        return null;
+    }
+}
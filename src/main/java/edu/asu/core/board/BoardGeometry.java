@@ -0,0 +1,199 @@
+package edu.asu.core.board;
+
+import edu.asu.util.PlayerSymbol;
+
+/**
+ * This class holds the tables describing the dark squares of a board of one size: the row and column of every
+ * square, the square one diagonal step away, the landing square of a jump and the ray of squares up to the edge
+ * in each direction, and the squares each side starts on and is crowned on. The tables are built once per size
+ * and shared by every board of that size, so moving a piece costs a table lookup on any board instead of bounds
+ * checks on rows and columns. The rays are walked by the flying kings of the international rules, which boards
+ * of INTERNATIONAL_SIZE and up play by.
+ * Squares are numbered as in PackedMove and directions are the PackedMove directions.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public final class BoardGeometry {
+    public static final int MIN_SIZE = 4;
+    public static final int MAX_SIZE = 12; // Zobrist keys and packed moves cover the 72 dark squares of a 12x12 board
+    public static final int INTERNATIONAL_SIZE = 10; // smallest board played by the international rules
+
+    private static final BoardGeometry[] GEOMETRIES = new BoardGeometry[MAX_SIZE + 1];
+
+    private final int size;
+    private final int squares;
+    final int[] rows; // row of every square
+    final int[] columns; // column of every square
+    final int[][] neighbor; // square one step away per direction, -1 off the board
+    final int[][] jump; // landing square of a jump per direction, -1 off the board
+    final int[][][] ray; // squares from the nearest to the edge of the board per direction
+    private final int startingRows;
+
+    private BoardGeometry(int size) {
+        this.size = size;
+        this.squares = size * size / 2;
+        this.rows = new int[this.squares];
+        this.columns = new int[this.squares];
+        this.neighbor = new int[4][this.squares];
+        this.jump = new int[4][this.squares];
+        this.ray = new int[4][this.squares][];
+        this.startingRows = size / 2 - 1;
+        for (int square = 0; square < this.squares; square++) {
+            int row = PackedMove.rowOf(square, size);
+            int column = PackedMove.columnOf(square, size);
+            this.rows[square] = row;
+            this.columns[square] = column;
+            for (int dir = 0; dir < 4; dir++) {
+                this.neighbor[dir][square] = this.squareAt(row + PackedMove.rowStep(dir), column + PackedMove.columnStep(dir));
+                this.jump[dir][square] = this.squareAt(row + 2 * PackedMove.rowStep(dir), column + 2 * PackedMove.columnStep(dir));
+                int length = 0;
+                while (this.squareAt(row + (length + 1) * PackedMove.rowStep(dir),
+                        column + (length + 1) * PackedMove.columnStep(dir)) >= 0) {
+                    length++;
+                }
+                this.ray[dir][square] = new int[length];
+                for (int distance = 1; distance <= length; distance++) {
+                    this.ray[dir][square][distance - 1] = this.squareAt(row + distance * PackedMove.rowStep(dir),
+                            column + distance * PackedMove.columnStep(dir));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the shared geometry of a board size
+     * @param size board dimension, even and between MIN_SIZE and MAX_SIZE
+     * @return the geometry
+     */
+    public static BoardGeometry of(int size) {
+        if (size < MIN_SIZE || size > MAX_SIZE || size % 2 != 0) {
+            throw new IllegalArgumentException("Invalid board size or we don't support it at the moment: " + size);
+        }
+        BoardGeometry geometry = GEOMETRIES[size];
+        if (geometry == null) {
+            synchronized (GEOMETRIES) {
+                geometry = GEOMETRIES[size];
+                if (geometry == null) {
+                    geometry = new BoardGeometry(size);
+                    GEOMETRIES[size] = geometry;
+                }
+            }
+        }
+        return geometry;
+    }
+
+    /**
+     * Returns the board dimension
+     * @return the number of rows and columns
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of dark squares
+     * @return the number of squares
+     */
+    public int getSquares() {
+        return this.squares;
+    }
+
+    /**
+     * Checks whether the board is played by the international rules: men capture backwards as well as forwards,
+     * kings fly along the diagonals and the capture taking the most pieces must be played
+     * @return true for boards of INTERNATIONAL_SIZE and up, false for the English rules of the smaller boards
+     */
+    public boolean isInternational() {
+        return this.size >= INTERNATIONAL_SIZE;
+    }
+
+    /**
+     * Returns the number of rows each side fills at the start of a game: 3 on 8x8, 4 on 10x10 and 5 on 12x12
+     * @return the number of rows
+     */
+    public int getStartingRows() {
+        return this.startingRows;
+    }
+
+    /**
+     * Returns the row of a square
+     * @param square dark square index
+     * @return the row
+     */
+    public int rowOf(int square) {
+        return this.rows[square];
+    }
+
+    /**
+     * Returns the column of a square
+     * @param square dark square index
+     * @return the column
+     */
+    public int columnOf(int square) {
+        return this.columns[square];
+    }
+
+    /**
+     * Returns the square one diagonal step away
+     * @param direction PackedMove direction
+     * @param square dark square index
+     * @return the square or -1 if the step leaves the board
+     */
+    public int neighbor(int direction, int square) {
+        return this.neighbor[direction][square];
+    }
+
+    /**
+     * Returns the square a jump lands on
+     * @param direction PackedMove direction
+     * @param square dark square index of the jumping piece
+     * @return the square or -1 if the jump leaves the board
+     */
+    public int jump(int direction, int square) {
+        return this.jump[direction][square];
+    }
+
+    /**
+     * Returns the squares along a diagonal, nearest first, up to the edge of the board. The array is shared
+     * and must not be changed
+     * @param direction PackedMove direction
+     * @param square dark square index
+     * @return the squares, empty when the square is on the edge in that direction
+     */
+    public int[] ray(int direction, int square) {
+        return this.ray[direction][square];
+    }
+
+    /**
+     * Returns the dark square at a row and column
+     * @param row row
+     * @param column column
+     * @return the square index or -1 for a light square or one off the board
+     */
+    public int squareAt(int row, int column) {
+        if (row < 0 || row >= this.size || column < 0 || column >= this.size || ((row + column) & 1) == 0) {
+            return -1;
+        }
+        return PackedMove.squareOf(row, column, this.size);
+    }
+
+    /**
+     * Returns the row a side's men are crowned on. X moves upwards and O moves downwards
+     * @param side PlayerSymbol ordinal of the side
+     * @return the promotion row
+     */
+    public int promotionRow(int side) {
+        return side == PlayerSymbol.X.ordinal() ? 0 : this.size - 1;
+    }
+
+    /**
+     * Checks whether a side's men start a game on a square
+     * @param side PlayerSymbol ordinal of the side
+     * @param square dark square index
+     * @return true if the side has a man on the square in the starting position
+     */
+    public boolean isStartingSquare(int side, int square) {
+        int row = this.rows[square];
+        return side == PlayerSymbol.X.ordinal() ? row >= this.size - this.startingRows : row < this.startingRows;
+    }
+}
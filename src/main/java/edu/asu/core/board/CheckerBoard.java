@@ -4,6 +4,9 @@ import edu.asu.core.Move;
 import edu.asu.core.Position;
 import edu.asu.core.piece.Piece;
 import edu.asu.core.player.Player;
+import edu.asu.util.PlayerSymbol;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This abstract class serves as a base class for all types of checkerboards: 8x8 10x10 etc.
@@ -12,7 +15,31 @@ import edu.asu.core.player.Player;
  * @version 1.0
  */
 public abstract class CheckerBoard {
+    public static final int MAX_MOVES = 256; // size of a buffer large enough for every legal move in a position
+    public static final int DRAW_PLIES = 80; // 40 moves each without a capture or a man moving ends in a draw
+    public static final int MAX_UNDO = 512; // number of moves makeMove can stack before they are taken back
+    private static final Map<Integer, Position[][]> POSITIONS = new ConcurrentHashMap<>();
+    protected static final int PROMOTED = 1 << 31; // undo flag of a move that crowned the moving man
+    private static final int[] NO_VALUES = new int[4 * Zobrist.MAX_SQUARES];
+
     protected Piece[][] grid; // 2D array to represent the grid;
+    private final Position[][] positions; // immutable position of every square, shared by boards of the same size
+    protected int sideToMove; // PlayerSymbol ordinal of the player whose turn it is
+    protected long hashKey; // Zobrist key of the position, kept up to date as pieces move
+    protected int score; // sum of the piece-square values of every piece, kept up to date as pieces move
+    private int[] pieceSquareValues = NO_VALUES;
+
+    // undo stack of makeMove, one frame per move: the packed move, flags with bit i set when the piece jumped
+    // on step i was a king plus PROMOTED, the XOR of the hash keys before and after the move and the piece-square
+    // score before it.
+    // It is allocated by the first makeMove so boards that are only played through the execute methods stay small
+    private int[] undoMoves;
+    private int[] undoFlags;
+    private long[] undoHashes;
+    private int[] undoScores;
+    private int undoSize;
+    private CheckerBoard validationBoard; // copy of the position the jumps of a capture are checked on
+    private int[] legalMoves; // buffer for checking a player's move against generateMoves
 
     /**
      * Constructs a 2D checkerboard
@@ -21,6 +48,28 @@ public abstract class CheckerBoard {
      */
     public CheckerBoard(int rows, int columns) {
         this.grid = new Piece[rows][columns];
+        this.positions = POSITIONS.computeIfAbsent(rows << 16 | columns, size -> {
+            Position[][] positions = new Position[rows][columns];
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    positions[row][column] = new Position(row, column);
+                }
+            }
+            return positions;
+        });
+    }
+
+    /**
+     * Returns the shared position of a square, or a new one for coordinates off the board
+     * @param row row
+     * @param column column
+     * @return the position
+     */
+    public Position getPosition(int row, int column) {
+        if (row < 0 || row >= this.positions.length || column < 0 || column >= this.positions[row].length) {
+            return new Position(row, column);
+        }
+        return this.positions[row][column];
     }
 
     /**
@@ -29,6 +78,260 @@ public abstract class CheckerBoard {
      */
     public abstract Piece[][] getBoardState();
 
+    /**
+     * Returns the Zobrist key of the position, including the side to move
+     * @return the hash key
+     */
+    public long getHashKey() {
+        return this.hashKey;
+    }
+
+    /**
+     * Returns the sum of the piece-square values of every piece on the board. It is kept up to date as pieces move,
+     * like the hash key, so an evaluation can read it at every leaf of a search without looking at the board
+     * @return the score, positive when the values favour X
+     */
+    public int getPieceSquareScore() {
+        return this.score;
+    }
+
+    /**
+     * Sets the values the piece-square score adds up and recomputes the score
+     * @param values one value per side, kind and square, laid out as Zobrist.index, with O's values negated
+     *               so the score is X's total less O's
+     */
+    public void setPieceSquareValues(int[] values) {
+        if (values.length != NO_VALUES.length) {
+            throw new IllegalArgumentException("Expected " + NO_VALUES.length + " piece-square values, got " + values.length);
+        }
+        this.pieceSquareValues = values;
+        this.score = this.computeScore();
+    }
+
+    /**
+     * Returns the values the piece-square score adds up
+     * @return the values, all zero unless they have been set
+     */
+    public int[] getPieceSquareValues() {
+        return this.pieceSquareValues;
+    }
+
+    /**
+     * Accounts for a piece put on a square in the hash key and the piece-square score
+     * @param side PlayerSymbol ordinal of the piece's owner
+     * @param king true for a king and false for a man
+     * @param square dark square index
+     */
+    protected final void addPiece(int side, boolean king, int square) {
+        int index = Zobrist.index(side, king, square);
+        this.hashKey ^= Zobrist.piece(side, king, square);
+        this.score += this.pieceSquareValues[index];
+    }
+
+    /**
+     * Accounts for a piece taken off a square in the hash key and the piece-square score
+     * @param side PlayerSymbol ordinal of the piece's owner
+     * @param king true for a king and false for a man
+     * @param square dark square index
+     */
+    protected final void subtractPiece(int side, boolean king, int square) {
+        int index = Zobrist.index(side, king, square);
+        this.hashKey ^= Zobrist.piece(side, king, square);
+        this.score -= this.pieceSquareValues[index];
+    }
+
+    /**
+     * Takes the piece-square score of a board whose position has just been copied, recomputing it if the two
+     * boards add up different values
+     * @param source the board the position was copied from
+     */
+    protected void copyScore(CheckerBoard source) {
+        this.score = source.pieceSquareValues == this.pieceSquareValues ? source.score : this.computeScore();
+    }
+
+    /**
+     * Adds up the piece-square values of the pieces on the board from scratch
+     */
+    private int computeScore() {
+        Piece[][] grid = this.getBoardState();
+        int score = 0;
+        for (int row = 0; row < grid.length; row++) {
+            for (int column = 0; column < grid[row].length; column++) {
+                Piece piece = grid[row][column];
+                if (piece != null) {
+                    score += this.pieceSquareValues[Zobrist.index(piece.getColour().ordinal(), piece.isKing(),
+                            PackedMove.squareOf(row, column, grid.length))];
+                }
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Gives the turn to a side, keeping the hash key in step
+     * @param side PlayerSymbol ordinal of the side to move
+     */
+    protected void setSideToMove(int side) {
+        if (side != this.sideToMove) {
+            this.hashKey ^= Zobrist.side();
+            this.sideToMove = side;
+        }
+    }
+
+    /**
+     * Returns the board dimension
+     * @return the number of rows and columns
+     */
+    public int getBoardSize() {
+        return this.grid.length;
+    }
+
+    /**
+     * Returns the side whose turn it is
+     * @return the PlayerSymbol ordinal of the player to move
+     */
+    public int getSideToMove() {
+        return this.sideToMove;
+    }
+
+    /**
+     * Lists every legal move for a player into a caller supplied buffer as packed moves.
+     * A capture must be taken when one is available and a jump sequence is followed until no further jump is possible
+     * or, by the English rules, a man is crowned. By the international rules only the captures taking the most pieces are legal.
+     * @param player Player
+     * @param moves buffer of at least MAX_MOVES entries
+     * @return the number of moves written
+     */
+    public int generateMoves(Player player, int[] moves) {
+        return this.generateMoves(player.getPiece().getColour().ordinal(), moves);
+    }
+
+    /**
+     * Lists every legal move for a side into a caller supplied buffer as packed moves.
+     * @param side PlayerSymbol ordinal of the side
+     * @param moves buffer of at least MAX_MOVES entries
+     * @return the number of moves written
+     */
+    public abstract int generateMoves(int side, int[] moves);
+
+    /**
+     * Plays a packed move produced by generateMoves for the side to move without validating it again
+     * and passes the turn to the other side
+     * @param move packed move
+     */
+    public void applyMove(int move) {
+        this.play(move);
+    }
+
+    /**
+     * Plays a packed move like applyMove and remembers what it changed so unmakeMove can take it back,
+     * without allocating. Moves are taken back in the reverse order they were made, and the position must not be
+     * changed in any other way in between
+     * @param move packed move
+     */
+    public void makeMove(int move) {
+        if (this.undoMoves == null) {
+            this.undoMoves = new int[MAX_UNDO];
+            this.undoFlags = new int[MAX_UNDO];
+            this.undoHashes = new long[MAX_UNDO];
+            this.undoScores = new int[MAX_UNDO];
+        }
+        if (this.undoSize == MAX_UNDO) {
+            throw new IllegalStateException("More than " + MAX_UNDO + " moves made without being taken back");
+        }
+        long hashBefore = this.hashKey;
+        this.undoScores[this.undoSize] = this.score;
+        this.undoFlags[this.undoSize] = this.play(move);
+        this.undoMoves[this.undoSize] = move;
+        this.undoHashes[this.undoSize] = hashBefore ^ this.hashKey;
+        this.undoSize++;
+    }
+
+    /**
+     * Takes back the last move played with makeMove, a whole jump sequence at once, and gives the turn back
+     */
+    public void unmakeMove() {
+        if (this.undoSize == 0) {
+            throw new IllegalStateException("There is no move to take back");
+        }
+        this.undoSize--;
+        this.takeBack(this.undoMoves[this.undoSize], this.undoFlags[this.undoSize]);
+        this.sideToMove ^= 1;
+        this.hashKey ^= this.undoHashes[this.undoSize];
+        this.score = this.undoScores[this.undoSize];
+    }
+
+    /**
+     * Returns the number of moves made with makeMove that have not been taken back
+     * @return the undo stack size
+     */
+    public int getUndoSize() {
+        return this.undoSize;
+    }
+
+    /**
+     * Forgets every move on the undo stack, for when the position is replaced as a whole
+     */
+    protected void clearUndo() {
+        this.undoSize = 0;
+    }
+
+    /**
+     * Plays a packed move for the side to move and passes the turn
+     * @param move packed move
+     * @return the undo flags of the move: bit i set when the piece jumped on step i was a king, plus PROMOTED
+     */
+    protected abstract int play(int move);
+
+    /**
+     * Puts back the pieces a move changed. The side to move and the hash key are restored by the caller
+     * @param move packed move
+     * @param flags undo flags returned by play
+     */
+    protected abstract void takeBack(int move, int flags);
+
+    /**
+     * Returns a new board holding the same position
+     * @return a copy of the board
+     */
+    public abstract CheckerBoard copy();
+
+    /**
+     * Overwrites this board with the position of another board of the same type
+     * @param other the board to copy from
+     */
+    public abstract void copyFrom(CheckerBoard other);
+
+    /**
+     * Returns the number of men a side has on the board
+     * @param side PlayerSymbol ordinal of the side
+     * @return the number of men
+     */
+    public abstract int numberOfMen(int side);
+
+    /**
+     * Returns the number of kings a side has on the board
+     * @param side PlayerSymbol ordinal of the side
+     * @return the number of kings
+     */
+    public abstract int numberOfKings(int side);
+
+    /**
+     * Returns whether a move just played can never be undone: a capture, a man crowned or a man moving.
+     * Players count the moves since the last one and draw the game at DRAW_PLIES
+     * @param move packed move, already played on this board
+     * @param kingsBefore number of kings the side that played it had before the move
+     * @return true if the move was a capture, a crowning or a man move, and false for a king moving
+     */
+    public boolean isIrreversible(int move, int kingsBefore) {
+        if (PackedMove.isCapture(move) || this.numberOfKings(this.sideToMove ^ 1) > kingsBefore) {
+            return true;
+        }
+        int size = this.getBoardSize();
+        int to = PackedMove.destination(move, size);
+        return !this.getBoardState()[PackedMove.rowOf(to, size)][PackedMove.columnOf(to, size)].isKing();
+    }
+
     /**
      * Return the regular expression used to valid moves
      * @return a regex used to valid a move on the board
@@ -43,12 +346,20 @@ public abstract class CheckerBoard {
     public abstract int numberOfPieces(String playerSymbol);
 
     /**
-     * Initializes the checkerboard
+     * Initializes the checkerboard. Player 1 moves first
      * @param player1 player 1 instance
      * @param player2 player 2 instance
      */
     public abstract void initializeBoard(Player player1, Player player2);
 
+    /**
+     * Sets up an arbitrary position, for example one loaded from a file
+     * @param men squares of each side's men, indexed by PlayerSymbol ordinal
+     * @param kings squares of each side's kings, indexed by PlayerSymbol ordinal
+     * @param sideToMove PlayerSymbol ordinal of the side to move
+     */
+    public abstract void setUpPosition(int[][] men, int[][] kings, int sideToMove);
+
     /**
      * Updates a move made by a player. A move is represented by a start and end position
      * Must be within the bound of the board
@@ -65,12 +376,100 @@ public abstract class CheckerBoard {
     public abstract void updateCaptureMove(Position captured);
 
     /**
-     * Attempts to make a capture.
+     * Attempts to make a capture. Every jump is checked on a copy of the position first, so a capture rejected
+     * part of the way through leaves the board as it was. The capture must also be a whole one: it goes on while
+     * the piece can jump again and, by the English rules, ends when a man is crowned. By the international rules
+     * it must take as many pieces as any capture can
      * @param moves Player's move
      * @param player Player
-     * @return a boolean representing the result of the execution. True if the execution was successful and false otherwise
+     * @return OK if the capture was made, otherwise the reason it was rejected
      */
-    public abstract boolean executeCaptureMove(Move moves, Player player);
+    public MoveResult executeCaptureMove(Move moves, Player player) {
+        if (this.validationBoard == null) {
+            this.validationBoard = this.copy();
+        }
+        CheckerBoard board = this.validationBoard;
+        board.copyFrom(this);
+        for (int i = 0; i + 2 < moves.getMoves().size(); i += 2) {
+            Position origin = moves.getMoves().get(i);
+            Position capture = moves.getMoves().get(i + 1);
+            Position destination = moves.getMoves().get(i + 2);
+            MoveResult result = board.validateCaptureMove(origin, capture, destination, player);
+            if (result != MoveResult.OK) {
+                return result;
+            }
+            board.updateMove(origin, destination);
+            board.updateCaptureMove(capture);
+        }
+        int move = this.packMove(moves);
+        if (!this.isLegal(move, player)) {
+            return MoveResult.INCOMPLETE_CAPTURE;
+        }
+        this.setSideToMove(player.getPiece().getColour().ordinal());
+        this.applyMove(move); // takes the pieces and crowns a man only once the capture is over
+        return MoveResult.OK;
+    }
+
+    /**
+     * Packs a move entered by a player, in the position it is played in
+     * @param moves origin and destination for a move, origin followed by each captured piece and landing square for a capture
+     * @return the packed move, or 0 for a capture by the international rules that no legal capture matches
+     */
+    public int packMove(Move moves) {
+        return PackedMove.of(moves, this.getBoardSize());
+    }
+
+    /**
+     * Lists the positions a capture by the international rules goes through, for PackedMove.toMove.
+     * Only boards of BoardGeometry.INTERNATIONAL_SIZE and up play such captures
+     * @param move packed capture, legal in the position on the board
+     * @return origin followed by each captured piece and landing square
+     */
+    protected Move unpackCapture(int move) {
+        throw new IllegalArgumentException("The board doesn't play by the international rules");
+    }
+
+    /**
+     * Validates a simple move made by a player. Besides the move itself, a simple move is only legal when the player
+     * has no capture, since captures are compulsory
+     * @param moves Player's move
+     * @param player Player
+     * @return OK if the move is valid, otherwise the reason it is not
+     */
+    public MoveResult validateMove(Move moves, Player player) {
+        MoveResult result = this.validateSimpleMove(moves, player);
+        if (result == MoveResult.OK && !this.isLegal(this.packMove(moves), player)) {
+            return MoveResult.CAPTURE_REQUIRED;
+        }
+        return result;
+    }
+
+    /**
+     * Validates the origin, destination and direction of a simple move
+     * @param moves Player's move
+     * @param player Player
+     * @return OK if the move is valid, otherwise the reason it is not
+     */
+    protected abstract MoveResult validateSimpleMove(Move moves, Player player);
+
+    /**
+     * Checks whether a move is one generateMoves lists for a player, the test every move must pass
+     * @param move packed move
+     * @param player Player
+     * @return true if the move is legal
+     */
+    private boolean isLegal(int move, Player player) {
+        if (this.legalMoves == null) {
+            this.legalMoves = new int[MAX_MOVES];
+        }
+        int count = this.generateMoves(player, this.legalMoves);
+        for (int i = 0; i < count; i++) {
+            if (this.legalMoves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     /**
      * Validates if a move made by a player is valid
@@ -78,24 +477,28 @@ public abstract class CheckerBoard {
      * @param player Player
      * @return a boolean representing the result of validation. True if the validation was successful and false otherwise
      */
-    public abstract boolean isValidMove(Move moves, Player player);
+    public boolean isValidMove(Move moves, Player player) {
+        return this.validateMove(moves, player).isValid();
+    }
 
     /**
      * Attempts to make a move
      * @param moves Players move
      * @param player Player
-     * @return a boolean representing the result of execution. True if the execution was successful and false otherwise
+     * @return OK if the move was made, otherwise the reason it was rejected
      */
-    public abstract boolean executeMove(Move moves, Player player);
-
-    /**
-     * Checks if there is a tie. A tie occurs when neither players can make a move nor a capture
-     * @return a boolean representing the result of the check. True if there is a tie and false otherwise
-     */
-    public abstract boolean isTie();
+    public MoveResult executeMove(Move moves, Player player) {
+        MoveResult result = this.validateMove(moves, player);
+        if (result != MoveResult.OK) {
+            return result;
+        }
+        this.updateMove(moves.getMoves().get(0), moves.getMoves().get(1));
+        this.setSideToMove(player.getPiece().getColour().ordinal() ^ 1);
+        return MoveResult.OK;
+    }
 
     /**
-     * Checks if there is a block. A block occurs when a player can neither make a move nor a capture
+     * Checks if there is a block. A block occurs when the player to move can neither make a move nor a capture
      * @return a boolean representing the result of the check. True if there is a block and false otherwise
      */
     public abstract boolean isBlocked();
@@ -116,6 +519,18 @@ public abstract class CheckerBoard {
      */
     public abstract boolean isValidForwardDiagonalMove(Position origin, Position destination, Player player);
 
+    /**
+     * Validates if a capture move is valid. A valid capture move must have a valid start position
+     * The capture piece, start and destination position must be valid diagonals
+     * destination must be empty. Only the one jump is checked; executeCaptureMove checks the capture is a whole one.
+     * @param origin The origin of the move
+     * @param capturePiece The position of the opponent's piece
+     * @param destination The destination of the move
+     * @param player The player
+     * @return OK if the capture is valid, otherwise the reason it is not
+     */
+    public abstract MoveResult validateCaptureMove(Position origin, Position capturePiece, Position destination, Player player);
+
     /**
      * Validates if a capture move is valid. A valid capture move must have a valid start position
      * The capture piece, start and destination position must be valid diagonals
@@ -126,7 +541,9 @@ public abstract class CheckerBoard {
      * @param player The player
      * @return a boolean representing the validation. True if capture is valid and false otherwise
      */
-    public abstract boolean isValidCaptureMove(Position origin, Position capturePiece, Position destination, Player player);
+    public boolean isValidCaptureMove(Position origin, Position capturePiece, Position destination, Player player) {
+        return this.validateCaptureMove(origin, capturePiece, destination, player).isValid();
+    }
 
 
 }
@@ -0,0 +1,133 @@
+package edu.asu.core.board;
+
+import edu.asu.core.piece.King;
+import edu.asu.core.piece.Piece;
+import edu.asu.util.PlayerSymbol;
+import java.util.Arrays;
+
+/**
+ * This class reads and writes positions in the FEN notation of Portable Draughts Notation, for example B:W21,22,K30:B1-3,K9.
+ * The first letter is the side to move, then each side lists the square numbers of its pieces with kings prefixed by K.
+ * Black is O, which starts at the top of the board and moves first, and White is X.
+ * Squares are numbered from 1 along the dark squares, row by row from the top left.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public final class Fen {
+    private static final char BLACK = 'B';
+    private static final char WHITE = 'W';
+
+    private Fen() {
+    }
+
+    /**
+     * Sets a board up with the position described by a FEN string
+     * @param board board to set up
+     * @param fen position in FEN notation
+     */
+    public static void load(CheckerBoard board, String fen) {
+        String text = fen.trim();
+        if (text.length() > 1 && text.charAt(0) == '"' && text.charAt(text.length() - 1) == '"') {
+            text = text.substring(1, text.length() - 1).trim();
+        }
+        if (text.endsWith(".")) {
+            text = text.substring(0, text.length() - 1);
+        }
+        int squares = board.getBoardSize() * board.getBoardSize() / 2;
+        int[][] men = new int[2][squares];
+        int[][] kings = new int[2][squares];
+        int[] menCount = new int[2];
+        int[] kingCount = new int[2];
+
+        int sideToMove = sideOf(text.isEmpty() ? ' ' : text.charAt(0), fen);
+        int position = 1;
+        while (position < text.length()) {
+            if (text.charAt(position) != ':' || position + 1 >= text.length()) {
+                throw new IllegalArgumentException("Invalid FEN: " + fen);
+            }
+            int side = sideOf(text.charAt(position + 1), fen);
+            int end = text.indexOf(':', position + 1);
+            end = end < 0 ? text.length() : end;
+            int start = position + 2;
+            while (start < end) {
+                int comma = text.indexOf(',', start);
+                comma = comma < 0 || comma > end ? end : comma;
+                boolean king = text.charAt(start) == 'K' || text.charAt(start) == 'k';
+                int from = king ? start + 1 : start;
+                int dash = text.indexOf('-', from);
+                int first = parseSquare(text, from, dash > 0 && dash < comma ? dash : comma, squares, fen);
+                int last = dash > 0 && dash < comma ? parseSquare(text, dash + 1, comma, squares, fen) : first;
+                for (int square = first; square <= last; square++) {
+                    if (king) {
+                        kings[side][kingCount[side]++] = square;
+                    } else {
+                        men[side][menCount[side]++] = square;
+                    }
+                }
+                start = comma + 1;
+            }
+            position = end;
+        }
+        for (int side = 0; side < 2; side++) {
+            men[side] = Arrays.copyOf(men[side], menCount[side]);
+            kings[side] = Arrays.copyOf(kings[side], kingCount[side]);
+        }
+        board.setUpPosition(men, kings, sideToMove);
+    }
+
+    /**
+     * Describes the position on a board in FEN notation
+     * @param board board
+     * @return the position in FEN notation
+     */
+    public static String of(CheckerBoard board) {
+        Piece[][] state = board.getBoardState();
+        int size = board.getBoardSize();
+        StringBuilder fen = new StringBuilder();
+        fen.append(board.getSideToMove() == PlayerSymbol.O.ordinal() ? BLACK : WHITE);
+        for (PlayerSymbol symbol : new PlayerSymbol[]{PlayerSymbol.X, PlayerSymbol.O}) {
+            fen.append(':').append(symbol == PlayerSymbol.O ? BLACK : WHITE);
+            boolean first = true;
+            for (int square = 0; square < size * size / 2; square++) {
+                Piece piece = state[PackedMove.rowOf(square, size)][PackedMove.columnOf(square, size)];
+                if (piece == null || piece.getColour() != symbol) {
+                    continue;
+                }
+                if (!first) {
+                    fen.append(',');
+                }
+                first = false;
+                if (piece.isKing()) {
+                    fen.append('K');
+                }
+                fen.append(square + 1);
+            }
+        }
+        return fen.toString();
+    }
+
+    private static int sideOf(char colour, String fen) {
+        if (colour == BLACK || colour == 'b') {
+            return PlayerSymbol.O.ordinal();
+        }
+        if (colour == WHITE || colour == 'w') {
+            return PlayerSymbol.X.ordinal();
+        }
+        throw new IllegalArgumentException("Invalid FEN: " + fen);
+    }
+
+    private static int parseSquare(String text, int start, int end, int squares, String fen) {
+        int number = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid FEN: " + fen);
+            }
+            number = number * 10 + (c - '0');
+        }
+        if (start == end || number < 1 || number > squares) {
+            throw new IllegalArgumentException("Invalid FEN square " + number + ": " + fen);
+        }
+        return number - 1;
+    }
+}
@@ -0,0 +1,254 @@
+package edu.asu.core.board;
+
+import edu.asu.core.Move;
+import edu.asu.core.Position;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class reads and writes moves in the notation players enter, for example 3B-4C or 10B-9C for a move and
+ * 3B-4C-5D for a capture, which lists the origin followed by each captured piece and landing square.
+ * A square is its row number from 1, one or two digits, followed by its column letter from A.
+ * Moves are read in a single pass straight into packed moves and written straight from them, without allocating,
+ * from and to a CharSequence or a ByteBuffer of ASCII text. Reading checks the shape of the move, that every square
+ * is a dark square on the board and that the steps are diagonal, but not that the move is legal in a position.
+ * By the international rules of the boards of BoardGeometry.INTERNATIONAL_SIZE and up a king moves and captures
+ * any distance along a diagonal. Which pieces such a capture takes depends on the position, so a capture is read
+ * with the board it is played on and written as its origin and landing square joined by x, for example 4Bx8F.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public final class MoveNotation {
+    private static final String[] REGEX = new String[13]; // by board size
+
+    private MoveNotation() {
+    }
+
+    /**
+     * Reads a move. On a board of BoardGeometry.INTERNATIONAL_SIZE and up a capture needs the position, see parseMove
+     * @param text the move
+     * @param boardSize board dimension
+     * @return the packed move or 0 if the text is not a well formed move on the board
+     */
+    public static int parse(CharSequence text, int boardSize) {
+        return parse(text, null, 0, text.length(), boardSize);
+    }
+
+    /**
+     * Reads a move from the bytes between the position and the limit of a buffer, leaving the position unchanged
+     * @param bytes the move in ASCII
+     * @param boardSize board dimension
+     * @return the packed move or 0 if the text is not a well formed move on the board
+     */
+    public static int parse(ByteBuffer bytes, int boardSize) {
+        return parse(null, bytes, bytes.position(), bytes.limit(), boardSize);
+    }
+
+    private static int parse(CharSequence text, ByteBuffer bytes, int start, int end, int boardSize) {
+        boolean flying = boardSize >= BoardGeometry.INTERNATIONAL_SIZE;
+        int i = start;
+        int count = 0;
+        int previousRow = 0;
+        int previousColumn = 0;
+        int direction = 0;
+        int distance = 0;
+        int packed = 0;
+        while (true) {
+            int row = 0;
+            int digits = 0;
+            for (int c; i < end && (c = charAt(text, bytes, i)) >= '0' && c <= '9' && digits < 2; i++, digits++) {
+                row = row * 10 + c - '0';
+            }
+            if (digits == 0 || row < 1 || row > boardSize || i == end) {
+                return 0;
+            }
+            int column = (charAt(text, bytes, i++) | 0x20) - 'a'; // either case
+            if (column < 0 || column >= boardSize) {
+                return 0;
+            }
+            row--;
+            if (count == 0) {
+                if (((row + column) & 1) == 0) {
+                    return 0; // a light square
+                }
+                packed = PackedMove.squareOf(row, column, boardSize);
+            } else {
+                int rowStep = row - previousRow;
+                int columnStep = column - previousColumn;
+                distance = Math.abs(rowStep);
+                if (distance == 0 || distance != Math.abs(columnStep) || (distance > 1 && !flying)) {
+                    return 0;
+                }
+                int stepDirection = (rowStep < 0 ? PackedMove.UP_LEFT : PackedMove.DOWN_LEFT) + (columnStep < 0 ? 0 : 1);
+                if ((count & 1) == 1) {
+                    direction = stepDirection; // a step onto a piece, or the only step of a move
+                } else if (stepDirection != direction || PackedMove.steps(packed) == PackedMove.MAX_STEPS) {
+                    return 0; // a jump must land straight behind the piece it takes
+                } else {
+                    packed = PackedMove.addJump(packed, direction);
+                }
+            }
+            count++;
+            previousRow = row;
+            previousColumn = column;
+            if (i == end) {
+                break;
+            }
+            if (charAt(text, bytes, i++) != '-') {
+                return 0;
+            }
+        }
+        if (count == 2) {
+            return PackedMove.slide(packed, direction, distance);
+        }
+        return count >= 3 && (count & 1) == 1 && !flying ? packed : 0;
+    }
+
+    /**
+     * Reads a move into the positions a player enters, for playing it on a board. A capture by the international
+     * rules may take a piece any distance away and land any distance behind it
+     * @param text the move
+     * @param board the board the move is played on
+     * @return the move, or null if the text is not a well formed move on the board
+     */
+    public static Move parseMove(CharSequence text, CheckerBoard board) {
+        int boardSize = board.getBoardSize();
+        if (boardSize < BoardGeometry.INTERNATIONAL_SIZE) {
+            int packed = parse(text, boardSize);
+            return packed == 0 ? null : PackedMove.toMove(packed, board);
+        }
+        if (text.isEmpty() || text.charAt(text.length() - 1) == '-') {
+            return null;
+        }
+        List<Position> positions = new ArrayList<>();
+        int direction = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int row = 0;
+            int digits = 0;
+            for (char c; i < text.length() && (c = text.charAt(i)) >= '0' && c <= '9' && digits < 2; i++, digits++) {
+                row = row * 10 + c - '0';
+            }
+            if (digits == 0 || row < 1 || row > boardSize || i == text.length()) {
+                return null;
+            }
+            int column = (text.charAt(i++) | 0x20) - 'a';
+            if (column < 0 || column >= boardSize || ((row - 1 + column) & 1) == 0 ||
+                    (i < text.length() && text.charAt(i) != '-')) {
+                return null;
+            }
+            Position position = board.getPosition(row - 1, column);
+            if (!positions.isEmpty()) {
+                Position previous = positions.get(positions.size() - 1);
+                int rowStep = position.getRow() - previous.getRow();
+                int columnStep = position.getColumn() - previous.getColumn();
+                if (rowStep == 0 || Math.abs(rowStep) != Math.abs(columnStep)) {
+                    return null;
+                }
+                int stepDirection = (rowStep < 0 ? PackedMove.UP_LEFT : PackedMove.DOWN_LEFT) + (columnStep < 0 ? 0 : 1);
+                if ((positions.size() & 1) == 1) {
+                    direction = stepDirection; // a step onto a piece, or the only step of a move
+                } else if (stepDirection != direction) {
+                    return null; // a jump must land straight behind the piece it takes
+                }
+            }
+            positions.add(position);
+        }
+        if (positions.size() < 2 || (positions.size() > 2 && (positions.size() & 1) == 0)) {
+            return null;
+        }
+        return new Move(positions);
+    }
+
+    private static int charAt(CharSequence text, ByteBuffer bytes, int i) {
+        return text != null ? text.charAt(i) : bytes.get(i) & 0xFF;
+    }
+
+    /**
+     * Writes a move
+     * @param move packed move
+     * @param boardSize board dimension
+     * @param out destination
+     * @return the destination
+     */
+    public static StringBuilder format(int move, int boardSize, StringBuilder out) {
+        int row = PackedMove.rowOf(PackedMove.from(move), boardSize);
+        int column = PackedMove.columnOf(PackedMove.from(move), boardSize);
+        out.append(row + 1).append((char) ('A' + column));
+        boolean capture = PackedMove.isCapture(move);
+        if (capture && boardSize >= BoardGeometry.INTERNATIONAL_SIZE) {
+            int to = PackedMove.destination(move, boardSize);
+            return out.append('x').append(PackedMove.rowOf(to, boardSize) + 1)
+                    .append((char) ('A' + PackedMove.columnOf(to, boardSize)));
+        }
+        int distance = capture ? 1 : PackedMove.distance(move);
+        for (int step = 0; step < PackedMove.steps(move); step++) {
+            int rowStep = distance * PackedMove.rowStep(PackedMove.direction(move, step));
+            int columnStep = distance * PackedMove.columnStep(PackedMove.direction(move, step));
+            row += rowStep;
+            column += columnStep;
+            out.append('-').append(row + 1).append((char) ('A' + column));
+            if (capture) {
+                row += rowStep;
+                column += columnStep;
+                out.append('-').append(row + 1).append((char) ('A' + column));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Writes a move as ASCII at the position of a buffer, advancing it
+     * @param move packed move
+     * @param boardSize board dimension
+     * @param out destination
+     */
+    public static void format(int move, int boardSize, ByteBuffer out) {
+        int row = PackedMove.rowOf(PackedMove.from(move), boardSize);
+        int column = PackedMove.columnOf(PackedMove.from(move), boardSize);
+        putSquare(out, row, column);
+        boolean capture = PackedMove.isCapture(move);
+        if (capture && boardSize >= BoardGeometry.INTERNATIONAL_SIZE) {
+            int to = PackedMove.destination(move, boardSize);
+            putSquare(out.put((byte) 'x'), PackedMove.rowOf(to, boardSize), PackedMove.columnOf(to, boardSize));
+            return;
+        }
+        int distance = capture ? 1 : PackedMove.distance(move);
+        for (int step = 0; step < PackedMove.steps(move); step++) {
+            int rowStep = distance * PackedMove.rowStep(PackedMove.direction(move, step));
+            int columnStep = distance * PackedMove.columnStep(PackedMove.direction(move, step));
+            row += rowStep;
+            column += columnStep;
+            putSquare(out.put((byte) '-'), row, column);
+            if (capture) {
+                row += rowStep;
+                column += columnStep;
+                putSquare(out.put((byte) '-'), row, column);
+            }
+        }
+    }
+
+    private static void putSquare(ByteBuffer out, int row, int column) {
+        if (row >= 9) {
+            out.put((byte) ('0' + (row + 1) / 10));
+        }
+        out.put((byte) ('0' + (row + 1) % 10)).put((byte) ('A' + column));
+    }
+
+    /**
+     * Returns a regular expression matching the shape of moves on a board, for validating input as it is typed
+     * @param boardSize board dimension, up to 12
+     * @return the regular expression
+     */
+    public static String regex(int boardSize) {
+        String regex = REGEX[boardSize];
+        if (regex == null) {
+            String row = boardSize < 10 ? "[1-" + boardSize + "]" :
+                    boardSize == 10 ? "(?:10|[1-9])" : "(?:1[0-" + (boardSize - 10) + "]|[1-9])";
+            String square = row + "[A-" + (char) ('A' + boardSize - 1) + "]";
+            regex = square + "(?:-" + square + ")+";
+            REGEX[boardSize] = regex;
+        }
+        return regex;
+    }
+}
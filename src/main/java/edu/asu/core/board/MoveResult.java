@@ -0,0 +1,59 @@
+package edu.asu.core.board;
+
+import java.util.Locale;
+
+/**
+ * This enum is the outcome of validating or making a move: OK, or the reason the move was rejected.
+ * The board only returns it and never prints it; showing the message to a player is up to the UI,
+ * and the short code is what the Metrics count rejected moves by.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public enum MoveResult {
+    OK("Move made"),
+    MALFORMED("Not a move on this board"),
+    EMPTY_ORIGIN("Origin can't be empty"),
+    OPPONENT_PIECE("You can't move opponent's piece"),
+    OCCUPIED_DESTINATION("Destination must be empty"),
+    NOT_DIAGONAL("Origin must be a valid diagonal with destination"),
+    NOT_FORWARD_CAPTURE("Must be a valid forward diagonal"),
+    EMPTY_CAPTURE("Capture piece can't be empty"),
+    OWN_CAPTURE("Can't capture your own piece"),
+    NOT_STRAIGHT_JUMP("Destination must be a valid forward diagonal with capture piece"),
+    CAPTURE_REQUIRED("A capture is available and must be taken"),
+    INCOMPLETE_CAPTURE("A capture must go on while the piece can jump again and ends when a man is crowned"),
+    BLOCKED("No legal move"),
+    WRONG_TURN("It is not your turn");
+
+    private final String message;
+    private final String code;
+
+    MoveResult(String message) {
+        this.message = message;
+        this.code = this.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns whether the move was valid
+     * @return true for OK and false for any reason to reject the move
+     */
+    public boolean isValid() {
+        return this == OK;
+    }
+
+    /**
+     * Returns the message to show a player
+     * @return the message
+     */
+    public String getMessage() {
+        return this.message;
+    }
+
+    /**
+     * Returns the short lower case code, for example empty_origin, which the GameServer sends with a rejected move
+     * @return the code
+     */
+    public String getCode() {
+        return this.code;
+    }
+}
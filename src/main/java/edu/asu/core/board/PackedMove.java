@@ -0,0 +1,309 @@
+package edu.asu.core.board;
+
+import edu.asu.core.Move;
+import edu.asu.core.Position;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class encodes moves generated by a checkerboard as single ints so they can be kept in primitive buffers.
+ * Bits 0-6 hold the origin square, bit 7 flags a capture, bits 8-11 the number of steps and every step
+ * after that takes two bits holding its direction. A step is a single diagonal move or a jump over a piece.
+ * A move that is not a capture has a single step, and bits 14-17 hold the number of squares it goes less one,
+ * which is only above 0 for the flying kings of the international rules.
+ * A capture by the international rules can't spell out its path, since a king may land any distance behind the
+ * piece it takes. Bits 8-11 hold the number of pieces taken, bits 12-18 the landing square and bits 19-31
+ * number the capture among those the piece has with the same landing square, in the order the board generates them,
+ * so only the board can tell which pieces it takes.
+ * Squares are the dark squares of the board numbered row by row from the top left.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public final class PackedMove {
+
+    public static final int MAX_STEPS = 10;
+    public static final int MAX_CAPTURES = 15; // pieces a capture by the international rules can take
+
+
+    public static final int UP_LEFT = 0;
+    public static final int UP_RIGHT = 1;
+    public static final int DOWN_LEFT = 2;
+    public static final int DOWN_RIGHT = 3;
+
+    private static final int SQUARE_MASK = 0x7F;
+    private static final int CAPTURE = 1 << 7;
+    private static final int STEPS_SHIFT = 8;
+    private static final int DIRECTIONS_SHIFT = 12;
+    private static final int DISTANCE_SHIFT = 14;
+    private static final int DESTINATION_SHIFT = 12;
+    private static final int INDEX_SHIFT = 19;
+
+    private PackedMove() {
+    }
+
+    /**
+     * Packs a single diagonal move
+     * @param from origin square
+     * @param direction direction of the move
+     * @return the packed move
+     */
+    public static int simple(int from, int direction) {
+        return from | 1 << STEPS_SHIFT | direction << DIRECTIONS_SHIFT;
+    }
+
+    /**
+     * Packs a move of a king any number of squares along a diagonal
+     * @param from origin square
+     * @param direction direction of the move
+     * @param distance number of squares, 1 for a single diagonal move
+     * @return the packed move
+     */
+    public static int slide(int from, int direction, int distance) {
+        return simple(from, direction) | (distance - 1) << DISTANCE_SHIFT;
+    }
+
+    /**
+     * Packs a capture by the international rules
+     * @param from origin square
+     * @param captures number of pieces taken, up to MAX_CAPTURES
+     * @param destination landing square
+     * @param index number of the capture among those of the piece with the same landing square
+     * @return the packed capture
+     */
+    public static int capture(int from, int captures, int destination, int index) {
+        return from | CAPTURE | captures << STEPS_SHIFT | destination << DESTINATION_SHIFT | index << INDEX_SHIFT;
+    }
+
+    /**
+     * Appends a jump to a capture sequence. Start a sequence with the origin square alone.
+     * @param move the capture so far
+     * @param direction direction of the jump
+     * @return the packed capture
+     */
+    public static int addJump(int move, int direction) {
+        int steps = steps(move);
+        return (move & ~(0xF << STEPS_SHIFT)) | CAPTURE | (steps + 1) << STEPS_SHIFT |
+                direction << (DIRECTIONS_SHIFT + 2 * steps);
+    }
+
+    /**
+     * Packs a move entered by a player, the inverse of toMove. The move is assumed to have been validated.
+     * A capture by the international rules is packed by the board, see CheckerBoard.packMove
+     * @param move origin and destination for a move, origin followed by each captured piece and landing square for a capture
+     * @param boardSize board dimension
+     * @return the packed move
+     */
+    public static int of(Move move, int boardSize) {
+        List<Position> positions = move.getMoves();
+        Position origin = positions.get(0);
+        int packed = squareOf(origin.getRow(), origin.getColumn(), boardSize);
+        if (positions.size() == 2) {
+            Position destination = positions.get(1);
+            return slide(packed, directionOf(origin, destination), Math.abs(destination.getRow() - origin.getRow()));
+        }
+        if (boardSize >= BoardGeometry.INTERNATIONAL_SIZE) {
+            throw new IllegalArgumentException("A capture by the international rules is packed by the board");
+        }
+        for (int i = 2; i < positions.size(); i += 2) {
+            packed = addJump(packed, directionOf(positions.get(i - 2), positions.get(i)));
+        }
+        return packed;
+    }
+
+    private static int directionOf(Position origin, Position destination) {
+        int vertical = destination.getRow() > origin.getRow() ? DOWN_LEFT : UP_LEFT;
+        return destination.getColumn() > origin.getColumn() ? vertical + 1 : vertical;
+    }
+
+    /**
+     * Returns the origin square
+     * @param move packed move
+     * @return the origin square
+     */
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * Checks if the move is a capture
+     * @param move packed move
+     * @return true if the move jumps over at least one piece
+     */
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * Returns the number of steps, which is the number of pieces captured for a capture
+     * @param move packed move
+     * @return the number of steps
+     */
+    public static int steps(int move) {
+        return move >>> STEPS_SHIFT & 0xF;
+    }
+
+    /**
+     * Returns the number of squares a move that is not a capture goes
+     * @param move packed move
+     * @return the distance, 1 unless a flying king moved
+     */
+    public static int distance(int move) {
+        return (move >>> DISTANCE_SHIFT & 0xF) + 1;
+    }
+
+    /**
+     * Returns the number of a capture by the international rules among those of the piece with the same landing square
+     * @param move packed capture
+     * @return the index
+     */
+    public static int index(int move) {
+        return move >>> INDEX_SHIFT;
+    }
+
+    /**
+     * Returns the direction of a step
+     * @param move packed move
+     * @param step step index
+     * @return the direction of the step
+     */
+    public static int direction(int move, int step) {
+        return move >>> (DIRECTIONS_SHIFT + 2 * step) & 3;
+    }
+
+    /**
+     * Returns the row offset of a direction
+     * @param direction direction
+     * @return -1 for upwards and 1 for downwards
+     */
+    public static int rowStep(int direction) {
+        return direction < DOWN_LEFT ? -1 : 1;
+    }
+
+    /**
+     * Returns the column offset of a direction
+     * @param direction direction
+     * @return -1 for left and 1 for right
+     */
+    public static int columnStep(int direction) {
+        return (direction & 1) == 0 ? -1 : 1;
+    }
+
+    /**
+     * Returns the dark square index of a row and column
+     * @param row row
+     * @param column column
+     * @param boardSize board dimension
+     * @return the square index
+     */
+    public static int squareOf(int row, int column, int boardSize) {
+        return row * (boardSize / 2) + (column >> 1);
+    }
+
+    /**
+     * Returns the row of a square
+     * @param square square index
+     * @param boardSize board dimension
+     * @return the row
+     */
+    public static int rowOf(int square, int boardSize) {
+        return square / (boardSize / 2);
+    }
+
+    /**
+     * Returns the column of a square
+     * @param square square index
+     * @param boardSize board dimension
+     * @return the column
+     */
+    public static int columnOf(int square, int boardSize) {
+        int half = boardSize / 2;
+        return 2 * (square % half) + ((square / half + 1) & 1);
+    }
+
+    /**
+     * Returns the square a move ends on
+     * @param move packed move
+     * @param boardSize board dimension
+     * @return the destination square
+     */
+    public static int destination(int move, int boardSize) {
+        if (isCapture(move) && boardSize >= BoardGeometry.INTERNATIONAL_SIZE) {
+            return move >>> DESTINATION_SHIFT & SQUARE_MASK;
+        }
+        int row = rowOf(from(move), boardSize);
+        int column = columnOf(from(move), boardSize);
+        int stride = isCapture(move) ? 2 : distance(move);
+        for (int step = 0; step < steps(move); step++) {
+            row += stride * rowStep(direction(move, step));
+            column += stride * columnStep(direction(move, step));
+        }
+        return squareOf(row, column, boardSize);
+    }
+
+    /**
+     * Converts a packed move into the positions a player would enter: origin and destination for a move,
+     * origin followed by each captured piece and landing square for a capture.
+     * A capture by the international rules needs the position it is played in, see toMove with a board
+     * @param move packed move
+     * @param boardSize board dimension
+     * @return a move
+     */
+    public static Move toMove(int move, int boardSize) {
+        return toMove(move, boardSize, null);
+    }
+
+    /**
+     * Converts a packed move into the positions a player would enter, using the board's shared positions.
+     * The board must hold the position the move is played in, before it is played
+     * @param move packed move
+     * @param board board the move is played on
+     * @return a move
+     */
+    public static Move toMove(int move, CheckerBoard board) {
+        return toMove(move, board.getBoardSize(), board);
+    }
+
+    private static Move toMove(int move, int boardSize, CheckerBoard board) {
+        if (isCapture(move) && boardSize >= BoardGeometry.INTERNATIONAL_SIZE) {
+            if (board == null) {
+                throw new IllegalArgumentException("A capture by the international rules needs the board it is played on");
+            }
+            return board.unpackCapture(move);
+        }
+        List<Position> positions = new ArrayList<>(2 * steps(move) + 1);
+        int row = rowOf(from(move), boardSize);
+        int column = columnOf(from(move), boardSize);
+        positions.add(positionOf(row, column, board));
+        for (int step = 0; step < steps(move); step++) {
+            int rowStep = rowStep(direction(move, step));
+            int columnStep = columnStep(direction(move, step));
+            if (isCapture(move)) {
+                row += rowStep;
+                column += columnStep;
+                positions.add(positionOf(row, column, board));
+            } else {
+                rowStep *= distance(move);
+                columnStep *= distance(move);
+            }
+            row += rowStep;
+            column += columnStep;
+            positions.add(positionOf(row, column, board));
+        }
+        return new Move(positions);
+    }
+
+    private static Position positionOf(int row, int column, CheckerBoard board) {
+        return board == null ? new Position(row, column) : board.getPosition(row, column);
+    }
+
+    /**
+     * Returns the move in the notation players enter, for example 3B-4C. A capture by the international rules
+     * is written as its origin and landing square, see MoveNotation.format
+     * @param move packed move
+     * @param boardSize board dimension
+     * @return the move notation
+     */
+    public static String toString(int move, int boardSize) {
+        return MoveNotation.format(move, boardSize, new StringBuilder(3 * (2 * steps(move) + 1))).toString();
+    }
+}
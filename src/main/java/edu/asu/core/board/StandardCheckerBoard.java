@@ -2,26 +2,84 @@ package edu.asu.core.board;
 
 import edu.asu.core.Move;
 import edu.asu.core.Position;
+import edu.asu.core.piece.King;
 import edu.asu.core.piece.Man;
 import edu.asu.core.piece.Piece;
 import edu.asu.core.player.Player;
 import edu.asu.util.PlayerSymbol;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
- * This class represents standard 8x8 checkerboard.
+ * This class represents a standard checkerboard of any supported size: 8x8 by default, or 10x10 and 12x12,
+ * each side starting on the rows nearest to it up to the two middle rows. Boards below 10x10 play by the English
+ * rules: men move and capture forward only, kings move one square and a man crowned by a capture stops there.
+ * 10x10 plays international draughts and 12x12 Canadian checkers, which share the international rules: men capture
+ * backwards too, kings fly along the diagonals and capture any distance away, the capture taking the most pieces
+ * must be played, the pieces taken only come off once the capture is over and a man is only crowned when it ends
+ * on the far row.
+ * Pieces are kept per dark square next to the grid handed to the UI, and moves follow the neighbour, jump and ray
+ * tables of the board's BoardGeometry, so a move costs the same on every size.
  * It defines the regex used for validation and the board size
  * @author Martin Alemajoh
  * @version 1.0
  */
 public class StandardCheckerBoard extends CheckerBoard{
 
-    private static final int BOARD_SIZE = 8;
+    private static final int DEFAULT_SIZE = 8;
+    private static final PlayerSymbol[] SYMBOLS = PlayerSymbol.values(); // values() copies the array on every call
+
+    private final BoardGeometry geometry;
+    private final int[][] neighbor; // tables shared by every board of the size
+    private final int[][] jump;
+    private final int[][][] ray;
+    private final boolean international; // plays by the international rules, see BoardGeometry.isInternational
+    private final Piece[] squares; // piece on every dark square, kept in step with the grid
+    private final boolean[] jumped; // squares of the pieces taken so far by the capture being generated
+    private final int[] scratch = new int[MAX_MOVES];
+    private final int[] menCount = new int[2]; // indexed by PlayerSymbol ordinal
+    private final int[] kingCount = new int[2];
+
+    // state of the search for captures by the international rules, which generates them when target is 0
+    // and otherwise looks for the route of the packed capture target
+    private final int[] path; // square taken and landing square of every jump of the capture being followed
+    private final int[] route; // path of the capture found for target
+    private final long[] takenLow; // squares taken by every capture found so far, as two masks of 64 squares
+    private final long[] takenHigh;
+    private int[] found; // buffer the captures are generated into
+    private int foundCount; // captures generated, or routes with the target's landing square seen so far
+    private int firstOfPiece; // first capture generated for the piece being followed
+    private int longest; // most pieces taken by a capture so far
+    private int origin;
+    private int target;
+    private boolean routeFound;
+    private int[] captured; // squares taken by the capture of every makeMove frame, allocated by the first one
 
     /**
      * Constructs and 8x8 checkerboard
      */
     public StandardCheckerBoard() {
-        super(BOARD_SIZE,BOARD_SIZE); // Call to superclass constructor
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Constructs a checkerboard of any supported size
+     * @param size board dimension, even and between BoardGeometry.MIN_SIZE and BoardGeometry.MAX_SIZE
+     */
+    public StandardCheckerBoard(int size) {
+        super(size, size); // Call to superclass constructor
+        this.geometry = BoardGeometry.of(size);
+        this.neighbor = this.geometry.neighbor;
+        this.jump = this.geometry.jump;
+        this.ray = this.geometry.ray;
+        this.international = this.geometry.isInternational();
+        this.squares = new Piece[this.geometry.getSquares()];
+        this.jumped = new boolean[this.geometry.getSquares()];
+        this.path = this.international ? new int[2 * PackedMove.MAX_CAPTURES] : null;
+        this.route = this.international ? new int[2 * PackedMove.MAX_CAPTURES] : null;
+        this.takenLow = this.international ? new long[MAX_MOVES] : null;
+        this.takenHigh = this.international ? new long[MAX_MOVES] : null;
     }
 
     /**
@@ -33,12 +91,20 @@ public class StandardCheckerBoard extends CheckerBoard{
         return this.grid;
     }
 
+    /**
+     * Returns the tables describing the squares of the board
+     * @return the shared geometry of the board's size
+     */
+    public BoardGeometry getGeometry() {
+        return this.geometry;
+    }
+
     /**
      * Return the regular expression used to valid moves
      * @return a regex used to valid a move on the board
      */
     public String getMOVE_REGEX() {
-        return "[1-8][A-H](-[1-8][A-H])*-[1-8][A-H]$";
+        return MoveNotation.regex(this.getBoardSize());
     }
 
     /**
@@ -47,15 +113,8 @@ public class StandardCheckerBoard extends CheckerBoard{
      * @return the count left for a piece on the board
      */
     public int numberOfPieces(String playerSymbol) {
-        int total = 0;
-        for (Piece[] pieces : this.grid) {
-            for (Piece piece : pieces) {
-                if (piece != null && playerSymbol.equalsIgnoreCase(piece.getSymbol())) {
-                    total += 1;
-                }
-            }
-        }
-        return total;
+        int side = PlayerSymbol.of(playerSymbol).ordinal();
+        return this.menCount[side] + this.kingCount[side];
     }
 
     /**
@@ -65,139 +124,600 @@ public class StandardCheckerBoard extends CheckerBoard{
      */
     @Override
     public void initializeBoard(Player player1, Player player2) {
-        // Set all spots to empty initially
-        for(int i = 0; i < 8; i++) {
-            for(int j = 0; j < 8; j++) {
-                this.grid[i][j] = null;
+        for (int square = 0; square < this.squares.length; square++) {
+            Piece piece = null;
+            if (this.geometry.isStartingSquare(PlayerSymbol.O.ordinal(), square)) {
+                piece = Man.of(PlayerSymbol.O); // the first player fills the top rows
+            } else if (this.geometry.isStartingSquare(PlayerSymbol.X.ordinal(), square)) {
+                piece = Man.of(PlayerSymbol.X);
+            }
+            this.put(square, piece);
+        }
+        this.rehash(player1.getPiece().getColour().ordinal());
+    }
+
+    /**
+     * Sets up an arbitrary position, for example one loaded from a file
+     * @param men squares of each side's men, indexed by PlayerSymbol ordinal
+     * @param kings squares of each side's kings, indexed by PlayerSymbol ordinal
+     * @param sideToMove PlayerSymbol ordinal of the side to move
+     */
+    @Override
+    public void setUpPosition(int[][] men, int[][] kings, int sideToMove) {
+        for (int square = 0; square < this.squares.length; square++) {
+            this.put(square, null);
+        }
+        for (PlayerSymbol symbol : PlayerSymbol.values()) {
+            for (int square : men[symbol.ordinal()]) {
+                this.put(square, Man.of(symbol));
+            }
+            for (int square : kings[symbol.ordinal()]) {
+                this.put(square, King.of(symbol));
+            }
+        }
+        this.rehash(sideToMove);
+    }
+
+    /**
+     * Recomputes the hash key, piece-square score and piece counts from scratch after the whole board has been set up
+     */
+    private void rehash(int sideToMove) {
+        this.hashKey = 0;
+        this.score = 0;
+        Arrays.fill(this.menCount, 0);
+        Arrays.fill(this.kingCount, 0);
+        for (int square = 0; square < this.squares.length; square++) {
+            Piece piece = this.squares[square];
+            if (piece != null) {
+                int side = piece.getColour().ordinal();
+                this.addPiece(side, piece.isKing(), square);
+                if (piece.isKing()) {
+                    this.kingCount[side]++;
+                } else {
+                    this.menCount[side]++;
+                }
+            }
+        }
+        this.sideToMove = PlayerSymbol.X.ordinal();
+        this.setSideToMove(sideToMove);
+        this.clearUndo();
+    }
+
+    /**
+     * Puts a piece on a square, or clears it, in both the square array and the grid
+     */
+    private void put(int square, Piece piece) {
+        this.squares[square] = piece;
+        this.grid[this.geometry.rows[square]][this.geometry.columns[square]] = piece;
+    }
+
+    /**
+     * Lists every legal move for a side into a caller supplied buffer as packed moves.
+     * By the international rules only the captures taking the most pieces are listed, once for every set of pieces
+     * taken and landing square
+     * @param side PlayerSymbol ordinal of the side
+     * @param moves buffer of at least MAX_MOVES entries
+     * @return the number of moves written
+     */
+    @Override
+    public int generateMoves(int side, int[] moves) {
+        PlayerSymbol colour = SYMBOLS[side];
+        Piece[] squares = this.squares;
+        int count = 0;
+        if (this.international) {
+            this.found = moves;
+            this.foundCount = 0;
+            this.longest = 1;
+        }
+        for (int square = 0; square < squares.length; square++) {
+            Piece piece = squares[square];
+            if (piece != null && piece.getColour() == colour) {
+                squares[square] = null; // the moving piece leaves its square
+                if (this.international) {
+                    this.origin = square;
+                    this.firstOfPiece = this.foundCount;
+                    this.flyingCapture(colour, piece.isKing(), square, 0);
+                } else {
+                    count = this.extendCapture(colour, piece.isKing(), square, square, moves, count);
+                }
+                squares[square] = piece;
+            }
+        }
+        if (this.international) {
+            count = this.foundCount;
+            this.found = null;
+        }
+        if (count > 0) {
+            return count;
+        }
+        int forward = forwardDirection(colour);
+        for (int square = 0; square < squares.length; square++) {
+            Piece piece = squares[square];
+            if (piece == null || piece.getColour() != colour) {
+                continue;
+            }
+            int last = piece.isKing() ? 4 : forward + 2;
+            for (int dir = piece.isKing() ? 0 : forward; dir < last; dir++) {
+                if (piece.isKing() && this.international) {
+                    int[] ray = this.ray[dir][square];
+                    for (int distance = 1; distance <= ray.length && squares[ray[distance - 1]] == null; distance++) {
+                        moves[count++] = PackedMove.slide(square, dir, distance);
+                    }
+                    continue;
+                }
+                int to = this.neighbor[dir][square];
+                if (to >= 0 && squares[to] == null) {
+                    moves[count++] = PackedMove.simple(square, dir);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Plays a packed move produced by generateMoves for the side to move without validating it again
+     * and passes the turn to the other side
+     * @param move packed move
+     * @return the undo flags of the move
+     */
+    @Override
+    protected int play(int move) {
+        int from = PackedMove.from(move);
+        int square = from;
+        int flags = 0;
+        if (!PackedMove.isCapture(move)) {
+            square = this.ray[PackedMove.direction(move, 0)][from][PackedMove.distance(move) - 1];
+        } else if (this.international) {
+            this.findCapture(move);
+            if (this.captured == null) {
+                this.captured = new int[(MAX_UNDO + 1) * PackedMove.MAX_CAPTURES];
+            }
+            int frame = this.getUndoSize() * PackedMove.MAX_CAPTURES; // applyMove uses the frame past the last
+            for (int step = 0; step < PackedMove.steps(move); step++) {
+                this.captured[frame + step] = this.route[2 * step];
+                if (this.removePiece(this.route[2 * step]).isKing()) {
+                    flags |= 1 << step;
+                }
+            }
+            square = this.route[2 * PackedMove.steps(move) - 1];
+        } else {
+            for (int step = 0; step < PackedMove.steps(move); step++) {
+                int dir = PackedMove.direction(move, step);
+                if (this.removePiece(this.neighbor[dir][square]).isKing()) {
+                    flags |= 1 << step;
+                }
+                square = this.jump[dir][square];
+            }
+        }
+        if (this.movePiece(from, square)) {
+            flags |= PROMOTED;
+        }
+        this.setSideToMove(this.sideToMove ^ 1);
+        return flags;
+    }
+
+    /**
+     * Puts back the pieces a move changed, without touching the hash key or the side to move
+     * @param move packed move
+     * @param flags undo flags returned by play
+     */
+    @Override
+    protected void takeBack(int move, int flags) {
+        int mover = this.sideToMove ^ 1;
+        int opponent = this.sideToMove;
+        int from = PackedMove.from(move);
+        int square = from;
+        if (!PackedMove.isCapture(move)) {
+            square = this.ray[PackedMove.direction(move, 0)][from][PackedMove.distance(move) - 1];
+        } else if (this.international) {
+            int frame = this.getUndoSize() * PackedMove.MAX_CAPTURES;
+            for (int step = 0; step < PackedMove.steps(move); step++) {
+                this.restorePiece(opponent, (flags & 1 << step) != 0, this.captured[frame + step]);
+            }
+            square = PackedMove.destination(move, this.getBoardSize());
+        } else {
+            for (int step = 0; step < PackedMove.steps(move); step++) {
+                int dir = PackedMove.direction(move, step);
+                this.restorePiece(opponent, (flags & 1 << step) != 0, this.neighbor[dir][square]);
+                square = this.jump[dir][square];
+            }
+        }
+        Piece piece = this.squares[square];
+        if ((flags & PROMOTED) != 0) {
+            piece = Man.of(SYMBOLS[mover]);
+            this.kingCount[mover]--;
+            this.menCount[mover]++;
+        }
+        this.put(square, null);
+        this.put(from, piece);
+    }
+
+    /**
+     * Puts back a piece taken by a capture
+     */
+    private void restorePiece(int side, boolean king, int square) {
+        this.put(square, Piece.of(SYMBOLS[side], king));
+        if (king) {
+            this.kingCount[side]++;
+        } else {
+            this.menCount[side]++;
+        }
+    }
+
+    /**
+     * Returns a new board holding the same position
+     * @return a copy of the board
+     */
+    @Override
+    public CheckerBoard copy() {
+        StandardCheckerBoard copy = new StandardCheckerBoard(this.getBoardSize());
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Overwrites this board with the position of another standard board of the same size
+     * @param other the board to copy from
+     */
+    @Override
+    public void copyFrom(CheckerBoard other) {
+        StandardCheckerBoard source = (StandardCheckerBoard) other;
+        if (source.geometry != this.geometry) {
+            throw new IllegalArgumentException("Can't copy a " + source.getBoardSize() + "x" + source.getBoardSize() +
+                    " board onto a " + this.getBoardSize() + "x" + this.getBoardSize() + " board");
+        }
+        System.arraycopy(source.squares, 0, this.squares, 0, this.squares.length);
+        for (int row = 0; row < this.grid.length; row++) {
+            System.arraycopy(source.grid[row], 0, this.grid[row], 0, this.grid.length);
+        }
+        this.sideToMove = source.sideToMove;
+        this.hashKey = source.hashKey;
+        System.arraycopy(source.menCount, 0, this.menCount, 0, 2);
+        System.arraycopy(source.kingCount, 0, this.kingCount, 0, 2);
+        this.clearUndo();
+        this.copyScore(source);
+    }
+
+    /**
+     * Returns the number of men a side has on the board
+     * @param side PlayerSymbol ordinal of the side
+     * @return the number of men
+     */
+    @Override
+    public int numberOfMen(int side) {
+        return this.menCount[side];
+    }
+
+    /**
+     * Returns the number of kings a side has on the board
+     * @param side PlayerSymbol ordinal of the side
+     * @return the number of kings
+     */
+    @Override
+    public int numberOfKings(int side) {
+        return this.kingCount[side];
+    }
+
+    /**
+     * Follows every jump available from a square, writing each finished sequence to the buffer.
+     * Jumped pieces stay on the board as obstacles until the sequence is over but can't be jumped twice.
+     */
+    private int extendCapture(PlayerSymbol colour, boolean king, int square, int move, int[] moves, int count) {
+        boolean extended = false;
+        if (PackedMove.steps(move) < PackedMove.MAX_STEPS) {
+            int forward = forwardDirection(colour);
+            int last = king ? 4 : forward + 2;
+            for (int dir = king ? 0 : forward; dir < last; dir++) {
+                int land = this.jump[dir][square];
+                if (land < 0 || this.squares[land] != null) {
+                    continue;
+                }
+                int over = this.neighbor[dir][square];
+                Piece piece = this.squares[over];
+                if (piece == null || piece.getColour() == colour || this.jumped[over]) {
+                    continue;
+                }
+                extended = true;
+                int next = PackedMove.addJump(move, dir);
+                if (!king && this.geometry.rows[land] == this.geometry.promotionRow(colour.ordinal())) {
+                    moves[count++] = next; // crowning ends the move
+                } else {
+                    this.jumped[over] = true;
+                    count = this.extendCapture(colour, king, land, next, moves, count);
+                    this.jumped[over] = false;
+                }
             }
         }
+        if (!extended && PackedMove.steps(move) > 0) {
+            moves[count++] = move;
+        }
+        return count;
+    }
+
+    /**
+     * Follows every capture by the international rules available from a square. A man takes a piece next to it
+     * in any direction and lands straight behind it, a king takes the first piece along a diagonal and lands on
+     * any empty square behind it. Jumped pieces stay on the board as obstacles until the capture is over
+     * but can't be jumped twice, and the moving piece has left its origin. Every finished capture goes to capture
+     */
+    private void flyingCapture(PlayerSymbol colour, boolean king, int square, int depth) {
+        boolean extended = false;
+        for (int dir = 0; dir < 4 && depth < PackedMove.MAX_CAPTURES; dir++) {
+            int[] ray = this.ray[dir][square];
+            int over = 0;
+            if (king) {
+                while (over < ray.length && this.squares[ray[over]] == null) {
+                    over++;
+                }
+            }
+            if (over + 1 >= ray.length) {
+                continue;
+            }
+            Piece piece = this.squares[ray[over]];
+            if (piece == null || piece.getColour() == colour || this.jumped[ray[over]]) {
+                continue;
+            }
+            int last = king ? ray.length : over + 2;
+            for (int land = over + 1; land < last && this.squares[ray[land]] == null; land++) {
+                extended = true;
+                this.path[2 * depth] = ray[over];
+                this.path[2 * depth + 1] = ray[land];
+                this.jumped[ray[over]] = true;
+                this.flyingCapture(colour, king, ray[land], depth + 1);
+                this.jumped[ray[over]] = false;
+                if (this.routeFound) {
+                    return;
+                }
+            }
+        }
+        if (!extended && depth > 0) {
+            this.capture(square, depth);
+        }
+    }
 
-        // Place the pieces for the first player
-        for(int i = 0; i < 3; i++) {
-            for(int j = (i+1) % 2; j < 8; j+=2) {
-                this.grid[i][j] = new Man(PlayerSymbol.O.getValue(), new Position(i, j));
+    /**
+     * Takes a finished capture: generates it if it takes at least as many pieces as any capture so far, or checks
+     * whether it is the route of the target. Captures taking the same pieces to the same square are one move,
+     * the others landing on the same square are numbered in the order they are found
+     */
+    private void capture(int square, int depth) {
+        if (this.target != 0 ? depth != PackedMove.steps(this.target) ||
+                square != PackedMove.destination(this.target, this.getBoardSize()) : depth < this.longest) {
+            return;
+        }
+        if (this.target == 0 && depth > this.longest) {
+            this.longest = depth; // the shorter captures found so far are not legal
+            this.foundCount = 0;
+            this.firstOfPiece = 0;
+        }
+        long low = 0;
+        long high = 0;
+        for (int step = 0; step < depth; step++) {
+            int taken = this.path[2 * step];
+            if (taken < Long.SIZE) {
+                low |= 1L << taken;
+            } else {
+                high |= 1L << taken - Long.SIZE;
+            }
+        }
+        int index = 0;
+        for (int i = this.target != 0 ? 0 : this.firstOfPiece; i < this.foundCount; i++) {
+            if (this.target == 0 && PackedMove.destination(this.found[i], this.getBoardSize()) != square) {
+                continue;
             }
+            if (this.takenLow[i] == low && this.takenHigh[i] == high) {
+                return;
+            }
+            index++;
+        }
+        this.takenLow[this.foundCount] = low;
+        this.takenHigh[this.foundCount] = high;
+        if (this.target == 0) {
+            this.found[this.foundCount] = PackedMove.capture(this.origin, depth, square, index);
+        } else if (index == PackedMove.index(this.target)) {
+            System.arraycopy(this.path, 0, this.route, 0, 2 * depth);
+            this.routeFound = true;
+        }
+        this.foundCount++;
+    }
+
+    /**
+     * Finds the route of a capture by the international rules, leaving it in the route field
+     */
+    private void findCapture(int move) {
+        int from = PackedMove.from(move);
+        Piece piece = this.squares[from];
+        if (piece == null) {
+            throw new IllegalArgumentException("No piece to capture with on square " + from);
+        }
+        this.target = move;
+        this.foundCount = 0;
+        this.routeFound = false;
+        this.squares[from] = null;
+        this.flyingCapture(piece.getColour(), piece.isKing(), from, 0);
+        this.squares[from] = piece;
+        this.target = 0;
+        if (!this.routeFound) {
+            throw new IllegalArgumentException("Not a capture in this position: " +
+                    PackedMove.toString(move, this.getBoardSize()));
         }
+        this.routeFound = false;
+    }
 
-        // Place the pieces for the second player
-        for(int i = 5; i < 8; i++) {
-            for(int j = (i+1) % 2; j < 8; j+=2) {
-                this.grid[i][j] = new Man(PlayerSymbol.X.getValue(), new Position(i, j));
+    /**
+     * Lists the positions a capture by the international rules goes through
+     * @param move packed capture, legal in the position on the board
+     * @return origin followed by each captured piece and landing square
+     */
+    @Override
+    protected Move unpackCapture(int move) {
+        this.findCapture(move);
+        List<Position> positions = new ArrayList<>(2 * PackedMove.steps(move) + 1);
+        positions.add(this.getPosition(this.geometry.rows[PackedMove.from(move)], this.geometry.columns[PackedMove.from(move)]));
+        for (int i = 0; i < 2 * PackedMove.steps(move); i++) {
+            positions.add(this.getPosition(this.geometry.rows[this.route[i]], this.geometry.columns[this.route[i]]));
+        }
+        return new Move(positions);
+    }
+
+    /**
+     * Packs a move entered by a player. By the international rules a capture is the legal capture from the same
+     * origin to the same landing square that takes the same pieces, whichever way it goes
+     * @param moves origin and destination for a move, origin followed by each captured piece and landing square for a capture
+     * @return the packed move, or 0 for a capture by the international rules that no legal capture matches
+     */
+    @Override
+    public int packMove(Move moves) {
+        List<Position> positions = moves.getMoves();
+        if (!this.international || positions.size() < 3) {
+            return super.packMove(moves);
+        }
+        int from = this.squareOf(positions.get(0));
+        int to = this.squareOf(positions.get(positions.size() - 1));
+        Piece piece = from < 0 ? null : this.squares[from];
+        if (piece == null || to < 0) {
+            return 0;
+        }
+        int captures = positions.size() / 2;
+        long low = 0;
+        long high = 0;
+        for (int i = 1; i < positions.size(); i += 2) {
+            int taken = this.squareOf(positions.get(i));
+            if (taken < 0) {
+                return 0;
+            } else if (taken < Long.SIZE) {
+                low |= 1L << taken;
+            } else {
+                high |= 1L << taken - Long.SIZE;
+            }
+        }
+        int count = this.generateMoves(piece.getColour().ordinal(), this.scratch);
+        for (int i = 0; i < count; i++) {
+            int move = this.scratch[i];
+            if (!PackedMove.isCapture(move) || PackedMove.from(move) != from || PackedMove.steps(move) != captures ||
+                    PackedMove.destination(move, this.getBoardSize()) != to) {
+                continue;
+            }
+            this.findCapture(move);
+            if (this.takenLow[PackedMove.index(move)] == low && this.takenHigh[PackedMove.index(move)] == high) {
+                return move;
             }
         }
+        return 0;
+    }
+
+    /**
+     * Returns the first of the two directions a player's men move in
+     * @param colour player symbol
+     * @return UP_LEFT for X and DOWN_LEFT for O
+     */
+    private static int forwardDirection(PlayerSymbol colour) {
+        return colour == PlayerSymbol.X ? PackedMove.UP_LEFT : PackedMove.DOWN_LEFT;
+    }
+
+    /**
+     * Returns the dark square of a position
+     */
+    private int squareOf(Position position) {
+        return this.geometry.squareAt(position.getRow(), position.getColumn());
     }
 
     /**
      * Updates a move made by a player. A move is represented by a start and end position
-     * Must be within the bound of the board
+     * Must be within the bound of the board. A man reaching the far row of the board is crowned a king.
      * @param origin the origin of the move
      * @param destination the destination of the move
      */
     @Override
     public void updateMove(Position origin, Position destination) {
-        this.getBoardState()[destination.getRow()][destination.getColumn()] = this.getBoardState()[origin.getRow()][origin.getColumn()];
-        this.getBoardState()[origin.getRow()][origin.getColumn()] = null;
+        this.movePiece(this.squareOf(origin), this.squareOf(destination));
     }
 
     /**
-     * Updates a capture move. A capture move is a move attempted to capture opponents piece.
-     * It is represented by a start position capture piece position and destination
-     * @param captured the position of the piece to be captured
+     * Moves a piece between two squares, crowning a man that reaches the far row. Returns true if it crowned one
      */
-    @Override
-    public void updateCaptureMove(Position captured) {
-        this.getBoardState()[captured.getRow()][captured.getColumn()] = null;
+    private boolean movePiece(int from, int to) {
+        Piece piece = this.squares[from];
+        boolean promoted = false;
+        int side = piece.getColour().ordinal();
+        this.put(from, null);
+        this.subtractPiece(side, piece.isKing(), from);
+        if (!piece.isKing() && this.geometry.rows[to] == this.geometry.promotionRow(side)) {
+            this.menCount[side]--;
+            this.kingCount[side]++;
+            piece = King.of(piece.getColour());
+            promoted = true;
+        }
+        this.put(to, piece);
+        this.addPiece(side, piece.isKing(), to);
+        return promoted;
     }
 
     /**
-     * Attempts to make a capture.
-     * @param moves Player's move
-     * @param player Player
-     * @return a boolean representing the result of the execution. True if the execution was successful and false otherwise
+     * Takes the piece standing on a square off the board and returns it
      */
-    public boolean executeCaptureMove(Move moves, Player player) {
-        int lengthOfMoves = moves.getMoves().size() / 2;
-
-        for (int i = 0; i <= lengthOfMoves; i += 2) {
-            Position origin = moves.getMoves().get(i);
-            Position capture = moves.getMoves().get(i + 1);
-            Position destination = moves.getMoves().get(i + 2);
-            if (!this.isValidCaptureMove(origin, capture, destination, player)) {
-                System.out.println("Invalid capture move");
-                return false;
+    private Piece removePiece(int square) {
+        Piece piece = this.squares[square];
+        if (piece != null) {
+            this.put(square, null);
+            this.subtractPiece(piece.getColour().ordinal(), piece.isKing(), square);
+            if (piece.isKing()) {
+                this.kingCount[piece.getColour().ordinal()]--;
+            } else {
+                this.menCount[piece.getColour().ordinal()]--;
             }
-            this.updateMove(origin, destination);
-            this.updateCaptureMove(capture);
         }
-        return true;
+        return piece;
     }
 
     /**
-     * Attempts to make a move
-     * @param moves Players move
-     * @param player Player
-     * @return a boolean representing the result of execution. True if the execution was successful and false otherwise
+     * Updates a capture move. A capture move is a move attempted to capture opponents piece.
+     * It is represented by a start position capture piece position and destination
+     * @param captured the position of the piece to be captured
      */
-    public boolean executeMove(Move moves, Player player){
-        if(!this.isValidMove(moves, player)){
-           System.out.println("Invalid move");
-           return false;
-        }
-        this.updateMove(moves.getMoves().get(0), moves.getMoves().get(1));
-        return true;
+    @Override
+    public void updateCaptureMove(Position captured) {
+        this.removePiece(this.squareOf(captured));
     }
 
     /**
-     * Validates if a move made by a player is valid
+     * Validates the origin, destination and direction of a simple move
      * @param moves Player's move
      * @param player Player
-     * @return a boolean representing the result of validation. True if the validation was successful and false otherwise
+     * @return OK if the move is valid, otherwise the reason it is not
      */
-    public boolean isValidMove(Move moves, Player player) {
+    @Override
+    protected MoveResult validateSimpleMove(Move moves, Player player) {
         Position origin = moves.getMoves().get(0);
         Position destination = moves.getMoves().get(1);
-        String playerSymbol = player.getPiece().getSymbol();
+        PlayerSymbol colour = player.getPiece().getColour();
 
         if (this.getBoardState()[origin.getRow()][origin.getColumn()] == null) {
-            System.out.println("Origin can't be empty");
-            return false;
+            return MoveResult.EMPTY_ORIGIN;
         }
 
-        if (!this.getBoardState()[origin.getRow()][origin.getColumn()].getSymbol().equalsIgnoreCase(playerSymbol)) {
-            System.out.println("You can't move opponent's piece");
-            return false;
+        if (this.getBoardState()[origin.getRow()][origin.getColumn()].getColour() != colour) {
+            return MoveResult.OPPONENT_PIECE;
         }
 
         if (this.getBoardState()[destination.getRow()][destination.getColumn()] != null) {
-            System.out.println("Destination must be empty");
-            return false;
+            return MoveResult.OCCUPIED_DESTINATION;
         }
 
         boolean validDiagonal = isValidForwardDiagonalMove(origin, destination, player);
         if (!validDiagonal) {
-            System.out.println("Origin must be a valid diagonal with destination");
-            return false;
+            return MoveResult.NOT_DIAGONAL;
         }
-        return true;
-    }
-
-    /**
-     * Checks if there is a tie. A tie occurs when neither players can make a move nor a capture
-     * @return a boolean representing the result of the check. True if there is a tie and false otherwise
-     */
-    @Override
-    public boolean isTie() {
-        return false;
+        return MoveResult.OK;
     }
 
-
     /**
-     * Checks if there is a block. A block occurs when a player can neither make a move nor a capture
+     * Checks if there is a block. A block occurs when the player to move can neither make a move nor a capture
      * @return a boolean representing the result of the check. True if there is a block and false otherwise
      */
     @Override
     public boolean isBlocked() {
-        return false;
+        return this.generateMoves(this.sideToMove, this.scratch) == 0;
     }
 
     /**
@@ -206,88 +726,109 @@ public class StandardCheckerBoard extends CheckerBoard{
      */
     @Override
     public boolean won() {
-        return this.numberOfPieces(PlayerSymbol.X.getValue()) == 0 || this.numberOfPieces(PlayerSymbol.O.getValue()) == 0;
+        return this.menCount[0] + this.kingCount[0] == 0 || this.menCount[1] + this.kingCount[1] == 0 || this.isBlocked();
     }
 
     /**
      * Validates if a move, based on the player is valid. If a player uses the top portion of the board they can only move downwards
-     * Similarly if a player uses the bottom portion of the board, they can only move upwards
+     * Similarly if a player uses the bottom portion of the board, they can only move upwards. Kings can move both ways,
+     * and by the international rules any number of empty squares along a diagonal.
      * @param origin The origin of the move.
      * @param destination The destination of the move
      * @param player The player
      * @return a boolean representing the validation. True if move is valid and false otherwise
      */
     public boolean isValidForwardDiagonalMove(Position origin, Position destination, Player player) {
-        String symbol = player.getPiece().getSymbol();
-        Position leftForwardDiagonal = new Position(Integer.MIN_VALUE, Integer.MIN_VALUE);
-        Position rightForwardDiagonal = new Position(Integer.MIN_VALUE, Integer.MIN_VALUE);
-        if (symbol.equalsIgnoreCase(PlayerSymbol.X.getValue())) {
-            leftForwardDiagonal.setRow(origin.getRow() - 1);
-            leftForwardDiagonal.setColumn(origin.getColumn() - 1);
-            rightForwardDiagonal.setRow(origin.getRow() - 1);
-            rightForwardDiagonal.setColumn(origin.getColumn() + 1);
-        } else if (symbol.equalsIgnoreCase(PlayerSymbol.O.getValue())) {
-            leftForwardDiagonal.setRow(origin.getRow() + 1);
-            leftForwardDiagonal.setColumn(origin.getColumn() - 1);
-            rightForwardDiagonal.setRow(origin.getRow() + 1);
-            rightForwardDiagonal.setColumn(origin.getColumn() + 1);
+        int forwardRow = origin.getRow() + (player.getPiece().getColour() == PlayerSymbol.X ? -1 : 1);
+        boolean diagonal = Math.abs(destination.getColumn() - origin.getColumn()) == 1;
+        if (destination.getRow() == forwardRow) {
+            return diagonal;
         }
+        Piece piece = this.getBoardState()[origin.getRow()][origin.getColumn()];
+        if (piece != null && piece.isKing() && this.international) {
+            return this.isOpenDiagonal(origin, destination, this.getBoardSize());
+        }
+        return piece != null && piece.isKing() && diagonal && destination.getRow() == 2 * origin.getRow() - forwardRow;
+    }
 
-        return leftForwardDiagonal.getRow() == destination.getRow() &&
-                leftForwardDiagonal.getColumn() == destination.getColumn() ||
-                rightForwardDiagonal.getRow() == destination.getRow() &&
-                        rightForwardDiagonal.getColumn() == destination.getColumn();
+    /**
+     * Checks whether a square is along a diagonal from another, at most a number of squares away,
+     * with only empty squares in between. Both squares must be on the board
+     */
+    private boolean isOpenDiagonal(Position origin, Position destination, int reach) {
+        int rows = destination.getRow() - origin.getRow();
+        int columns = destination.getColumn() - origin.getColumn();
+        int distance = Math.abs(rows);
+        if (distance == 0 || distance != Math.abs(columns) || distance > reach) {
+            return false;
+        }
+        for (int step = 1; step < distance; step++) {
+            if (this.grid[origin.getRow() + step * rows / distance][origin.getColumn() + step * columns / distance] != null) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
      * Validates if a capture move is valid. A valid capture move must have a valid start position
      * The capture piece, start and destination position must be valid diagonals
-     * destination must be empty.
+     * destination must be empty. By the international rules men capture backwards too, and kings capture a piece
+     * any distance away along an open diagonal and land any distance behind it.
      * @param origin The origin of the move
      * @param capturePiece The position of the opponent's piece
      * @param destination The destination of the move
      * @param player The player
-     * @return a boolean representing the validation. True if capture is valid and false otherwise
+     * @return OK if the capture is valid, otherwise the reason it is not
      */
-    public boolean isValidCaptureMove(Position origin, Position capturePiece, Position destination, Player player) {
-        String playerSymbol = player.getPiece().getSymbol();
-
-        if (!this.isValidForwardDiagonalMove(origin, capturePiece, player)) {
-            System.out.println("Must be a valid forward diagonal");
-            return false;
+    @Override
+    public MoveResult validateCaptureMove(Position origin, Position capturePiece, Position destination, Player player) {
+        PlayerSymbol colour = player.getPiece().getColour();
+        Piece mover = this.getBoardState()[origin.getRow()][origin.getColumn()];
+        int reach = mover != null && mover.isKing() ? this.getBoardSize() : 1;
+
+        if (this.international ? !this.isOpenDiagonal(origin, capturePiece, reach) :
+                !this.isValidForwardDiagonalMove(origin, capturePiece, player)) {
+            return MoveResult.NOT_FORWARD_CAPTURE;
         }
 
         if (this.getBoardState()[origin.getRow()][origin.getColumn()] == null) {
-            System.out.println("Origin can't be empty");
-            return false;
+            return MoveResult.EMPTY_ORIGIN;
         }
 
-        if (!this.getBoardState()[origin.getRow()][origin.getColumn()].getSymbol().equalsIgnoreCase(playerSymbol)) {
-            System.out.println("You can't move opponent's piece");
-            return false;
+        if (this.getBoardState()[origin.getRow()][origin.getColumn()].getColour() != colour) {
+            return MoveResult.OPPONENT_PIECE;
         }
 
         if (this.getBoardState()[capturePiece.getRow()][capturePiece.getColumn()] == null) {
-            System.out.println("Capture piece can't be empty");
-            return false;
+            return MoveResult.EMPTY_CAPTURE;
         }
 
-        if (this.getBoardState()[capturePiece.getRow()][capturePiece.getColumn()].getSymbol().equalsIgnoreCase(playerSymbol)) {
-            System.out.println("Can't capture your own piece");
-            return false;
+        if (this.getBoardState()[capturePiece.getRow()][capturePiece.getColumn()].getColour() == colour) {
+            return MoveResult.OWN_CAPTURE;
         }
 
-        if (this.getBoardState()[destination.getRow()][destination.getColumn()] != null) {
-            System.out.println("Destination must be empty");
-            return false;
+        if (destination.getRow() < 0 || destination.getRow() >= this.getBoardSize() ||
+                destination.getColumn() < 0 || destination.getColumn() >= this.getBoardSize() ||
+                this.getBoardState()[destination.getRow()][destination.getColumn()] != null) {
+            return MoveResult.OCCUPIED_DESTINATION;
         }
 
-        boolean validDiagonal = isValidForwardDiagonalMove(capturePiece, destination, player);
+        boolean validDiagonal;
+        if (this.international) {
+            validDiagonal = Integer.signum(destination.getRow() - capturePiece.getRow()) ==
+                    Integer.signum(capturePiece.getRow() - origin.getRow()) &&
+                    Integer.signum(destination.getColumn() - capturePiece.getColumn()) ==
+                    Integer.signum(capturePiece.getColumn() - origin.getColumn()) &&
+                    this.isOpenDiagonal(capturePiece, destination, reach);
+        } else {
+            validDiagonal = destination.getRow() - capturePiece.getRow() == capturePiece.getRow() - origin.getRow() &&
+                    destination.getColumn() - capturePiece.getColumn() == capturePiece.getColumn() - origin.getColumn();
+        }
         if (!validDiagonal) {
-            System.out.println("Destination must be a valid forward diagonal with capture piece");
-            return false;
+            return MoveResult.NOT_STRAIGHT_JUMP;
         }
 
-        return true;
+        return MoveResult.OK;
     }
 }
@@ -0,0 +1,59 @@
+package edu.asu.core.board;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class holds the random keys used to hash checkerboard positions.
+ * A position's key is the XOR of one key per piece on the board, picked by side, kind and square,
+ * plus the side key when O is to move. Boards keep their key up to date as pieces move.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public final class Zobrist {
+    public static final int MAX_SQUARES = 72; // dark squares of a 12x12 board
+
+    private static final long[] PIECES = new long[2 * 2 * MAX_SQUARES];
+    private static final long SIDE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C4EC_4E25L);
+        for (int i = 0; i < PIECES.length; i++) {
+            PIECES[i] = random.nextLong();
+        }
+        SIDE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the key of a piece on a square
+     * @param side PlayerSymbol ordinal of the piece's owner
+     * @param king true for a king and false for a man
+     * @param square dark square index
+     * @return the key
+     */
+    public static long piece(int side, boolean king, int square) {
+        return PIECES[index(side, king, square)];
+    }
+
+    /**
+     * Returns the index of a piece on a square among the 4 * MAX_SQUARES side, kind and square combinations,
+     * the layout of the piece keys and of the piece-square values of a board
+     * @param side PlayerSymbol ordinal of the piece's owner
+     * @param king true for a king and false for a man
+     * @param square dark square index
+     * @return the index
+     */
+    public static int index(int side, boolean king, int square) {
+        return ((side << 1) + (king ? 1 : 0)) * MAX_SQUARES + square;
+    }
+
+    /**
+     * Returns the key toggled every time the turn passes
+     * @return the side key
+     */
+    public static long side() {
+        return SIDE;
+    }
+}
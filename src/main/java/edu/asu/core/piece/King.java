@@ -1,6 +1,7 @@
 package edu.asu.core.piece;
 
 import edu.asu.core.Position;
+import edu.asu.util.PlayerSymbol;
 
 /**
  * This class represents a King piece. A King piece is a superior piece on the checker's board with advance moves.
@@ -8,6 +9,7 @@ import edu.asu.core.Position;
  * @version 1.0
  */
 public class King extends Piece{
+    private static final King[] SHARED = {new King(PlayerSymbol.X), new King(PlayerSymbol.O)};
 
     /**
      * Constructs a king piece by assigning it a symbol X or O
@@ -26,13 +28,35 @@ public class King extends Piece{
         super(symbol, position);
     }
 
+    private King(PlayerSymbol colour) {
+        super(colour);
+    }
+
+    /**
+     * Returns the shared king of a colour, which has no position of its own
+     * @param colour the player symbol the piece belongs to
+     * @return the shared king
+     */
+    public static King of(PlayerSymbol colour) {
+        return SHARED[colour.ordinal()];
+    }
+
     /**
      * Returns a piece symbol
      * @return a symbol representing the piece
      */
     @Override
     public String getSymbol() {
-        return this.symbol;
+        return this.colour.getValue();
+    }
+
+    /**
+     * Returns whether the piece is a king
+     * @return true
+     */
+    @Override
+    public boolean isKing() {
+        return true;
     }
 
     /**
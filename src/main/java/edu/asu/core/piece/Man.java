@@ -1,6 +1,7 @@
 package edu.asu.core.piece;
 
 import edu.asu.core.Position;
+import edu.asu.util.PlayerSymbol;
 
 /**
  * This class represents a Man piece. A man piece is the regular piece on the checker's board with basic moves.
@@ -8,6 +9,7 @@ import edu.asu.core.Position;
  * @version 1.0
  */
 public class Man extends Piece{
+    private static final Man[] SHARED = {new Man(PlayerSymbol.X), new Man(PlayerSymbol.O)};
 
     /**
      * Constructs a Man piece by assigning it a symbol X or O
@@ -26,13 +28,35 @@ public class Man extends Piece{
         super(symbol, position);
     }
 
+    private Man(PlayerSymbol colour) {
+        super(colour);
+    }
+
+    /**
+     * Returns the shared man of a colour, which has no position of its own
+     * @param colour the player symbol the piece belongs to
+     * @return the shared man
+     */
+    public static Man of(PlayerSymbol colour) {
+        return SHARED[colour.ordinal()];
+    }
+
     /**
      * Returns a piece symbol
      * @return a symbol representing the piece
      */
     @Override
     public String getSymbol() {
-        return this.symbol;
+        return this.colour.getValue();
+    }
+
+    /**
+     * Returns whether the piece is a king
+     * @return false
+     */
+    @Override
+    public boolean isKing() {
+        return false;
     }
 
     /**
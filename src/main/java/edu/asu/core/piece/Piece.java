@@ -1,6 +1,7 @@
 package edu.asu.core.piece;
 
 import edu.asu.core.Position;
+import edu.asu.util.PlayerSymbol;
 
 /**
  * This abstract class serves a base class for different type of piece such as King and Man and their capabilities
@@ -9,7 +10,7 @@ import edu.asu.core.Position;
  * @version 1.0
  */
 public abstract class Piece {
-    protected String symbol;
+    protected final PlayerSymbol colour;
 
     protected Position position;
 
@@ -18,7 +19,7 @@ public abstract class Piece {
      * @param symbol a symbol X or O
      */
     public Piece(String symbol) {
-        this.symbol = symbol;
+        this(PlayerSymbol.of(symbol));
     }
 
     /**
@@ -31,15 +32,47 @@ public abstract class Piece {
         this.position = position;
     }
 
+    /**
+     * Constructs a piece of a colour
+     * @param colour the player symbol the piece belongs to
+     */
+    protected Piece(PlayerSymbol colour) {
+        this.colour = colour;
+    }
+
     /**
      * Returns a piece symbol
      * @return a symbol representing the piece
      */
     public abstract String getSymbol();
 
+    /**
+     * Returns the player symbol the piece belongs to. Compare colours with == rather than symbols as strings
+     * @return the colour of the piece
+     */
+    public PlayerSymbol getColour() {
+        return this.colour;
+    }
+
+    /**
+     * Returns whether the piece is a king
+     * @return true for a king and false for a man
+     */
+    public abstract boolean isKing();
+
     /**
      * Returns the position of the piece on the board
      * @return the position of the piece on the board
      */
     public abstract Position getPosition();
+
+    /**
+     * Returns the shared piece of a colour and kind. Boards put these on their squares instead of allocating pieces
+     * @param colour the player symbol the piece belongs to
+     * @param king true for a king and false for a man
+     * @return the shared piece
+     */
+    public static Piece of(PlayerSymbol colour, boolean king) {
+        return king ? King.of(colour) : Man.of(colour);
+    }
 }
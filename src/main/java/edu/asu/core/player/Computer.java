@@ -0,0 +1,171 @@
+package edu.asu.core.player;
+
+import edu.asu.core.Move;
+import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.board.MoveResult;
+import edu.asu.core.board.PackedMove;
+import edu.asu.core.piece.Piece;
+import edu.asu.engine.OpeningBook;
+import edu.asu.engine.ParallelSearch;
+import edu.asu.engine.Search;
+import edu.asu.engine.TranspositionTable;
+import edu.asu.metrics.Metrics;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class represents a Computer player. It picks its moves by searching the board instead of reading them from the UI,
+ * or from its opening book while the game is still in the book
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class Computer extends Player {
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 1000;
+
+    private final Search search;
+    private final int[] moves = new int[CheckerBoard.MAX_MOVES];
+    private OpeningBook book;
+    private RandomGenerator random; // picks among book moves, null for the calling thread's ThreadLocalRandom
+    private int lastMove;
+
+    /**
+     * Constructs a computer player that thinks for about a second per move
+     * @param playerName player name
+     * @param piece player's piece
+     */
+    public Computer(String playerName, Piece piece) {
+        this(playerName, piece, new TranspositionTable(Search.DEFAULT_TABLE_SIZE_MB));
+    }
+
+    /**
+     * Constructs a computer player that thinks for about a second per move, storing its results in a table
+     * that may be shared with other computer players
+     * @param playerName player name
+     * @param piece player's piece
+     * @param table transposition table
+     */
+    public Computer(String playerName, Piece piece, TranspositionTable table) {
+        this(playerName, piece, new Search(table));
+        this.search.setTimeLimit(DEFAULT_TIME_LIMIT_MILLIS);
+    }
+
+    /**
+     * Constructs a computer player that thinks for about a second per move on several threads sharing one table
+     * @param playerName player name
+     * @param piece player's piece
+     * @param threads number of search threads
+     */
+    public Computer(String playerName, Piece piece, int threads) {
+        this(playerName, piece, new ParallelSearch(threads, new TranspositionTable(Search.DEFAULT_TABLE_SIZE_MB)));
+        this.search.setTimeLimit(DEFAULT_TIME_LIMIT_MILLIS);
+    }
+
+    /**
+     * Constructs a computer player backed by a configured search
+     * @param playerName player name
+     * @param piece player's piece
+     * @param search search used to pick moves
+     */
+    public Computer(String playerName, Piece piece, Search search) {
+        super(playerName, piece);
+        this.search = search;
+    }
+
+    /**
+     * Returns a players name
+     * @return player's name
+     */
+    @Override
+    public String getPlayerName() {
+        return this.playerName;
+    }
+
+    /**
+     * Returns a player's piece
+     * @return player's piece
+     */
+    @Override
+    public Piece getPiece() {
+        return this.piece;
+    }
+
+    /**
+     * Returns the search used to pick moves, so its budget can be changed
+     * @return the search
+     */
+    public Search getSearch() {
+        return this.search;
+    }
+
+    /**
+     * Sets the opening book looked up before searching
+     * @param book the book, or null to search every move
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Sets the random source that picks among the book moves of a position, so games can be replayed from a seed
+     * @param random the random source, or null for the calling thread's ThreadLocalRandom
+     */
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Returns the move picked by the last call to makeMove
+     * @return the packed move or 0 if there was none
+     */
+    public int getLastMove() {
+        return this.lastMove;
+    }
+
+    /**
+     * Makes a move taken from the opening book or chosen by searching the board
+     * @param moves ignored, the computer picks its own move
+     * @param board board instance
+     * @return OK if the move was made, or BLOCKED if the computer has no legal move
+     */
+    @Override
+    public MoveResult makeMove(Move moves, CheckerBoard board) {
+        int best = this.bookMove(board);
+        if (best == 0) {
+            long start = System.nanoTime();
+            best = this.search.findBestMove(board);
+            Metrics.get().searchFinished(System.nanoTime() - start, this.search.getNodes(),
+                    this.search.getCompletedDepth(), this.search.getTableProbes(), this.search.getTableHits());
+        }
+        this.lastMove = best;
+        if (best == 0) {
+            return MoveResult.BLOCKED;
+        }
+        Move move = PackedMove.toMove(best, board);
+        if (PackedMove.isCapture(best)) {
+            return board.executeCaptureMove(move, this);
+        }
+        return board.executeMove(move, this);
+    }
+
+    /**
+     * Looks the position up in the opening book
+     * @param board board instance
+     * @return a legal book move or 0 if the position is not in the book
+     */
+    private int bookMove(CheckerBoard board) {
+        if (this.book == null) {
+            return 0;
+        }
+        RandomGenerator random = this.random == null ? ThreadLocalRandom.current() : this.random;
+        int move = this.book.getMove(board, random.nextDouble());
+        if (move != 0) {
+            int count = board.generateMoves(board.getSideToMove(), this.moves);
+            for (int i = 0; i < count; i++) {
+                if (this.moves[i] == move) {
+                    return move;
+                }
+            }
+        }
+        return 0;
+    }
+}
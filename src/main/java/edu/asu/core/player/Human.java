@@ -2,6 +2,7 @@ package edu.asu.core.player;
 
 import edu.asu.core.Move;
 import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.board.MoveResult;
 import edu.asu.core.piece.Piece;
 
 /**
@@ -42,19 +43,16 @@ public class Human extends Player {
      * Makes a move
      * @param moves player's move
      * @param board board instance
-     * @return a boolean representing the result of the move. True if move was successfully made and false otherwise
+     * @return OK if the move was made, otherwise the reason it was rejected
      */
     @Override
-    public boolean makeMove(Move moves, CheckerBoard board) {
-        boolean isValidMove = false;
+    public MoveResult makeMove(Move moves, CheckerBoard board) {
         if (moves.getMoves().size() == 2) {
-            System.out.println("A move");
-            isValidMove = board.executeMove(moves, this);
+            return board.executeMove(moves, this);
         } else if (moves.getMoves().size() % 2 != 0) {
-            System.out.println("A capture");
-           isValidMove = board.executeCaptureMove(moves, this);
+            return board.executeCaptureMove(moves, this);
         }
-        return isValidMove;
+        return MoveResult.MALFORMED;
     }
 
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package edu.asu.core.player;
 
 import edu.asu.core.Move;
 import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.board.MoveResult;
 import edu.asu.core.piece.Piece;
 
 /**
@@ -39,7 +40,7 @@ public abstract class Player {
      * Makes a move
      * @param moves player's move
      * @param board board instance
-     * @return a boolean representing the result of the move. True if move was successfully made and false otherwise
+     * @return OK if the move was made, otherwise the reason it was rejected
      */
-    public abstract boolean makeMove(Move moves, CheckerBoard board);
+    public abstract MoveResult makeMove(Move moves, CheckerBoard board);
 }
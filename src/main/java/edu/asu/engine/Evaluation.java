@@ -0,0 +1,186 @@
+package edu.asu.engine;
+
+import edu.asu.core.board.BoardGeometry;
+import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.board.Zobrist;
+import edu.asu.util.PlayerSymbol;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * This class scores positions for the search. Material, king value, advancement, back rank guard and centre control
+ * are all worth a fixed amount for a piece of one kind on one square, so they are folded into one table of
+ * piece-square values per board size that the board adds up as pieces move and unmove; reading the score at a leaf
+ * costs nothing. Mobility is the number of moves the search already generated at the leaf.
+ * The weights are read from a properties file, with evaluation.properties next to this class supplying the defaults
+ * for any weight the file leaves out.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public final class Evaluation {
+    public static final String[] TERMS = {"man", "king", "advancement", "backRank", "centre", "mobility"};
+    public static final int MAN = 0; // indexes of the terms
+    public static final int KING = 1;
+    public static final int ADVANCEMENT = 2;
+    public static final int BACK_RANK = 3;
+    public static final int CENTRE = 4;
+    public static final int MOBILITY = 5;
+
+    private static final Properties DEFAULTS = new Properties();
+    private static final Evaluation DEFAULT;
+
+    static {
+        try (InputStream in = Evaluation.class.getResourceAsStream("evaluation.properties")) {
+            if (in == null) {
+                throw new IllegalStateException("evaluation.properties is missing from the class path");
+            }
+            DEFAULTS.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        DEFAULT = of(DEFAULTS);
+    }
+
+    private final int[] weights; // in the order of TERMS
+    private final int[][] values = new int[BoardGeometry.MAX_SIZE + 1][]; // piece-square values by board size
+
+    /**
+     * Constructs an evaluation
+     * @param weights one weight per term, in the order of TERMS
+     */
+    public Evaluation(int[] weights) {
+        if (weights.length != TERMS.length) {
+            throw new IllegalArgumentException("Expected " + TERMS.length + " weights, got " + weights.length);
+        }
+        this.weights = weights.clone();
+        for (int size = BoardGeometry.MIN_SIZE; size <= BoardGeometry.MAX_SIZE; size += 2) {
+            this.values[size] = this.buildValues(BoardGeometry.of(size));
+        }
+    }
+
+    /**
+     * Returns the evaluation with the default weights
+     * @return the default evaluation
+     */
+    public static Evaluation getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Reads an evaluation from a properties file
+     * @param file properties file with one weight per term
+     * @return the evaluation
+     * @throws IOException if the file can't be read
+     */
+    public static Evaluation load(Path file) throws IOException {
+        Properties properties = new Properties(DEFAULTS);
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        return of(properties);
+    }
+
+    /**
+     * Builds an evaluation from properties
+     * @param properties one weight per term, falling back to the defaults
+     * @return the evaluation
+     */
+    public static Evaluation of(Properties properties) {
+        int[] weights = new int[TERMS.length];
+        for (int i = 0; i < TERMS.length; i++) {
+            String value = properties.getProperty(TERMS[i], DEFAULTS.getProperty(TERMS[i]));
+            try {
+                weights[i] = Integer.parseInt(value.trim());
+            } catch (NumberFormatException | NullPointerException e) {
+                throw new IllegalArgumentException("Invalid weight for " + TERMS[i] + ": " + value);
+            }
+        }
+        return new Evaluation(weights);
+    }
+
+    /**
+     * Returns the weights as properties, the form load reads back
+     * @return one property per term
+     */
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        for (int i = 0; i < TERMS.length; i++) {
+            properties.setProperty(TERMS[i], Integer.toString(this.weights[i]));
+        }
+        return properties;
+    }
+
+    /**
+     * Returns the weights
+     * @return one weight per term, in the order of TERMS
+     */
+    public int[] getWeights() {
+        return this.weights.clone();
+    }
+
+    /**
+     * Returns the weight of a term
+     * @param term index in TERMS
+     * @return the weight
+     */
+    public int getWeight(int term) {
+        return this.weights[term];
+    }
+
+    /**
+     * Returns the piece-square values a board of a size adds up for this evaluation,
+     * to be handed to CheckerBoard.setPieceSquareValues
+     * @param boardSize board dimension
+     * @return the values, shared by every board of the size
+     */
+    public int[] pieceSquareValues(int boardSize) {
+        return this.values[boardSize];
+    }
+
+    /**
+     * Scores a position from the point of view of the side to move. The board must be adding up this evaluation's
+     * piece-square values
+     * @param board the position
+     * @param moveCount number of moves the side to move has
+     * @return the score in hundredths of a man
+     */
+    public int evaluate(CheckerBoard board, int moveCount) {
+        int score = board.getPieceSquareScore();
+        if (board.getSideToMove() == PlayerSymbol.O.ordinal()) {
+            score = -score;
+        }
+        return score + this.weights[MOBILITY] * moveCount;
+    }
+
+    /**
+     * Works out what every kind of piece is worth on every square of a board, O's values negated
+     */
+    private int[] buildValues(BoardGeometry geometry) {
+        int man = this.weights[MAN];
+        int king = this.weights[KING];
+        int advancement = this.weights[ADVANCEMENT];
+        int backRank = this.weights[BACK_RANK];
+        int centre = this.weights[CENTRE];
+        int size = geometry.getSize();
+        int[] values = new int[4 * Zobrist.MAX_SQUARES];
+        for (int square = 0; square < geometry.getSquares(); square++) {
+            int row = geometry.rowOf(square);
+            int column = geometry.columnOf(square);
+            boolean central = (row == size / 2 - 1 || row == size / 2) && column >= size / 4 && column < size - size / 4;
+            int centreValue = central ? centre : 0;
+            for (PlayerSymbol symbol : PlayerSymbol.values()) {
+                int side = symbol.ordinal();
+                int advanced = symbol == PlayerSymbol.X ? size - 1 - row : row; // X starts at the bottom
+                int sign = symbol == PlayerSymbol.X ? 1 : -1;
+                int manValue = man + advancement * advanced + (advanced == 0 ? backRank : 0) + centreValue;
+                values[Zobrist.index(side, false, square)] = sign * manValue;
+                values[Zobrist.index(side, true, square)] = sign * (king + centreValue);
+            }
+        }
+        return values;
+    }
+}
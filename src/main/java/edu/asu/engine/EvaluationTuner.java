@@ -0,0 +1,409 @@
+package edu.asu.engine;
+
+import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.board.PackedMove;
+import edu.asu.core.piece.Man;
+import edu.asu.core.player.Human;
+import edu.asu.core.player.Player;
+import edu.asu.record.GameLogReader;
+import edu.asu.record.GameLogWriter;
+import edu.asu.record.PdnGame;
+import edu.asu.record.PdnReader;
+import edu.asu.util.BoardFactory;
+import edu.asu.util.BoardType;
+import edu.asu.util.PlayerSymbol;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class tunes the weights of the evaluation on positions from finished games, Texel style: every position is
+ * labelled with the result of its game, a score is turned into an expected result with a sigmoid, and the weights are
+ * moved to minimise the mean squared difference between expected and actual results.
+ * The evaluation is linear in its weights, so each position is reduced once to its features, the amount of each term
+ * it holds for X less that for O, and stored as six shorts and a result byte. Tens of millions of positions fit in
+ * memory and an error is a dot product per position. The features of the piece-square terms are read from one board
+ * per term adding up that term alone, replayed in step, so they match the evaluation exactly.
+ * Only quiet positions are kept, where the side to move has no capture, after the first plies of each game.
+ * Each pass computes the error and its gradient over all positions in parallel with fork-join, and the weights
+ * follow the gradient with Adam. The man weight stays fixed, as every score is in hundredths of a man.
+ * Games are read from game logs, or from PDN files when the name ends in .pdn.
+ * Usage: EvaluationTuner FILE... [--out FILE] [--eval FILE] [--size N] [--skip N] [--iterations N] [--threads N]
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class EvaluationTuner {
+    private static final int FEATURES = Evaluation.TERMS.length;
+    private static final int CHUNK = 1 << 14; // positions one fork-join task sums without splitting
+    private static final double LEARNING_RATE = 1.0;
+    private static final double BETA1 = 0.9;
+    private static final double BETA2 = 0.999;
+
+    private final int boardSize;
+    private final int skipPlies;
+    private final CheckerBoard[] boards = new CheckerBoard[Evaluation.MOBILITY]; // one per piece-square term
+    private final Player[] players = {new Human("Player 1", Man.of(PlayerSymbol.O)), new Human("Player 2", Man.of(PlayerSymbol.X))};
+    private final int[] moves = new int[CheckerBoard.MAX_MOVES];
+    private int[] gameMoves = new int[256];
+
+    private short[] features = new short[FEATURES * 1024]; // FEATURES per position
+    private byte[] results = new byte[1024]; // X's result in half points: 0 loss, 1 draw, 2 win
+    private int positions;
+    private int games;
+
+    /**
+     * Constructs a tuner
+     * @param boardSize board dimension of the games to read, others are skipped
+     * @param skipPlies number of plies at the start of every game whose positions are left out
+     */
+    public EvaluationTuner(int boardSize, int skipPlies) {
+        this.boardSize = boardSize;
+        this.skipPlies = skipPlies;
+        for (int term = 0; term < this.boards.length; term++) {
+            int[] unit = new int[FEATURES];
+            unit[term] = 1;
+            this.boards[term] = new BoardFactory().createBoard(boardSize, BoardType.BITBOARD);
+            this.boards[term].setPieceSquareValues(new Evaluation(unit).pieceSquareValues(boardSize));
+        }
+    }
+
+    /**
+     * Returns the number of positions read
+     * @return the number of positions
+     */
+    public int getPositions() {
+        return this.positions;
+    }
+
+    /**
+     * Returns the number of games read
+     * @return the number of games
+     */
+    public int getGames() {
+        return this.games;
+    }
+
+    /**
+     * Adds the positions of every finished game in a game log
+     * @param file game log
+     * @throws IOException if the log can't be read
+     */
+    public void addGameLog(Path file) throws IOException {
+        try (GameLogReader reader = new GameLogReader(file)) {
+            while (reader.next()) {
+                int result = reader.getResult();
+                if (reader.getBoardSize() != this.boardSize || result == GameLogWriter.UNFINISHED) {
+                    continue;
+                }
+                int count = reader.getMoveCount();
+                int[] moves = this.gameMoves(count);
+                for (int i = 0; i < count; i++) {
+                    moves[i] = reader.getMove(i);
+                }
+                this.addGame(moves, count, result == GameLogWriter.DRAW ? 1 : result == PlayerSymbol.X.ordinal() ? 2 : 0);
+            }
+        }
+    }
+
+    /**
+     * Adds the positions of every decided or drawn game in a PDN file
+     * @param file PDN file
+     * @throws IOException if the file can't be read
+     */
+    public void addPdn(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+             PdnReader reader = new PdnReader(in, this.boardSize)) {
+            for (PdnGame game = reader.next(); game != null; game = reader.next()) {
+                String result = game.getResult();
+                if (result.equals(PdnGame.UNKNOWN) || game.getTag("FEN") != null) {
+                    continue; // games set up from a position are replayed from the start position here
+                }
+                int count = game.getMoveCount();
+                int[] moves = this.gameMoves(count);
+                for (int i = 0; i < count; i++) {
+                    moves[i] = game.getMove(i);
+                }
+                // Black is O
+                this.addGame(moves, count, result.equals(PdnGame.DRAW) ? 1 : result.equals(PdnGame.WHITE_WINS) ? 2 : 0);
+            }
+        }
+    }
+
+    private int[] gameMoves(int count) {
+        if (this.gameMoves.length < count) {
+            this.gameMoves = new int[Math.max(count, this.gameMoves.length * 2)];
+        }
+        return this.gameMoves;
+    }
+
+    /**
+     * Replays a game on every feature board, keeping its quiet positions
+     */
+    private void addGame(int[] moves, int count, int result) {
+        CheckerBoard[] boards = this.boards;
+        for (CheckerBoard board : boards) {
+            board.initializeBoard(this.players[0], this.players[1]);
+        }
+        for (int ply = 0; ply <= count; ply++) {
+            CheckerBoard board = boards[0];
+            int moveCount = board.generateMoves(board.getSideToMove(), this.moves);
+            if (moveCount == 0) {
+                break;
+            }
+            if (ply >= this.skipPlies && !PackedMove.isCapture(this.moves[0])) {
+                int sign = board.getSideToMove() == PlayerSymbol.X.ordinal() ? 1 : -1;
+                short[] features = this.reserve();
+                int offset = this.positions * FEATURES;
+                for (int term = 0; term < boards.length; term++) {
+                    features[offset + term] = (short) boards[term].getPieceSquareScore();
+                }
+                features[offset + Evaluation.MOBILITY] = (short) (sign * moveCount);
+                this.results[this.positions++] = (byte) result;
+            }
+            if (ply < count) {
+                for (CheckerBoard featureBoard : boards) {
+                    featureBoard.applyMove(moves[ply]);
+                }
+            }
+        }
+        this.games++;
+    }
+
+    /**
+     * Makes room for one more position
+     */
+    private short[] reserve() {
+        if (this.positions == this.results.length) {
+            int capacity = this.results.length + (this.results.length >> 1);
+            this.results = Arrays.copyOf(this.results, capacity);
+            this.features = Arrays.copyOf(this.features, capacity * FEATURES);
+        }
+        return this.features;
+    }
+
+    /**
+     * Finds the scaling constant of the sigmoid that fits the results best for a set of weights
+     * @param weights evaluation weights
+     * @param pool pool the error is computed in
+     * @return the constant
+     */
+    public double fitScale(int[] weights, ForkJoinPool pool) {
+        double[] doubles = toDoubles(weights);
+        double low = 0.0001;
+        double high = 0.1;
+        for (int i = 0; i < 60; i++) { // golden section search, the error is unimodal in the constant
+            double a = high - (high - low) / 1.618033988749895;
+            double b = low + (high - low) / 1.618033988749895;
+            if (this.pass(doubles, a, pool)[0] < this.pass(doubles, b, pool)[0]) {
+                high = b;
+            } else {
+                low = a;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    /**
+     * Returns the mean squared error of a set of weights
+     * @param weights evaluation weights
+     * @param scale sigmoid constant
+     * @param pool pool the error is computed in
+     * @return the error
+     */
+    public double error(int[] weights, double scale, ForkJoinPool pool) {
+        return this.pass(toDoubles(weights), scale, pool)[0] / Math.max(1, this.positions);
+    }
+
+    /**
+     * Tunes the weights with Adam, keeping the man weight fixed
+     * @param start weights to start from
+     * @param scale sigmoid constant
+     * @param iterations number of passes over the positions
+     * @param pool pool the passes are computed in
+     * @param progress told the error before every step, or null
+     * @return the tuned weights, rounded
+     */
+    public int[] tune(int[] start, double scale, int iterations, ForkJoinPool pool, Progress progress) {
+        double[] weights = toDoubles(start);
+        double[] moment = new double[FEATURES];
+        double[] velocity = new double[FEATURES];
+        for (int iteration = 1; iteration <= iterations; iteration++) {
+            double[] sums = this.pass(weights, scale, pool);
+            if (progress != null) {
+                progress.iteration(iteration, sums[0] / this.positions);
+            }
+            for (int term = 0; term < FEATURES; term++) {
+                if (term == Evaluation.MAN) {
+                    continue;
+                }
+                double gradient = sums[term + 1] / this.positions;
+                moment[term] = BETA1 * moment[term] + (1 - BETA1) * gradient;
+                velocity[term] = BETA2 * velocity[term] + (1 - BETA2) * gradient * gradient;
+                double corrected = moment[term] / (1 - Math.pow(BETA1, iteration));
+                double spread = velocity[term] / (1 - Math.pow(BETA2, iteration));
+                weights[term] -= LEARNING_RATE * corrected / (Math.sqrt(spread) + 1e-12);
+            }
+        }
+        int[] rounded = new int[FEATURES];
+        for (int term = 0; term < FEATURES; term++) {
+            rounded[term] = (int) Math.round(weights[term]);
+        }
+        return rounded;
+    }
+
+    /**
+     * Sums the squared error and its gradient over every position
+     * @return the error sum followed by the gradient sum of each weight
+     */
+    private double[] pass(double[] weights, double scale, ForkJoinPool pool) {
+        return pool.invoke(new Pass(this.features, this.results, weights, scale, 0, this.positions));
+    }
+
+    private static double[] toDoubles(int[] weights) {
+        double[] doubles = new double[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            doubles[i] = weights[i];
+        }
+        return doubles;
+    }
+
+    /**
+     * This interface is told how tuning is going, once per iteration
+     */
+    public interface Progress {
+        /**
+         * Called at the start of an iteration
+         * @param iteration iteration number, counting from 1
+         * @param error mean squared error of the weights the iteration starts from
+         */
+        void iteration(int iteration, double error);
+    }
+
+    /**
+     * Sums the error and gradient over a range of positions, splitting it between tasks while it is large
+     */
+    private static final class Pass extends RecursiveTask<double[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final short[] features;
+        private final byte[] results;
+        private final double[] weights;
+        private final double scale;
+        private final int from;
+        private final int to;
+
+        Pass(short[] features, byte[] results, double[] weights, double scale, int from, int to) {
+            this.features = features;
+            this.results = results;
+            this.weights = weights;
+            this.scale = scale;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (this.to - this.from > CHUNK) {
+                int middle = (this.from + this.to) >>> 1;
+                Pass left = new Pass(this.features, this.results, this.weights, this.scale, this.from, middle);
+                left.fork();
+                double[] sums = new Pass(this.features, this.results, this.weights, this.scale, middle, this.to).compute();
+                double[] other = left.join();
+                for (int i = 0; i < sums.length; i++) {
+                    sums[i] += other[i];
+                }
+                return sums;
+            }
+            double[] sums = new double[FEATURES + 1];
+            short[] features = this.features;
+            double[] weights = this.weights;
+            for (int position = this.from; position < this.to; position++) {
+                int offset = position * FEATURES;
+                double score = 0;
+                for (int term = 0; term < FEATURES; term++) {
+                    score += weights[term] * features[offset + term];
+                }
+                double expected = 1 / (1 + Math.exp(-this.scale * score));
+                double difference = expected - this.results[position] * 0.5;
+                sums[0] += difference * difference;
+                double slope = 2 * difference * expected * (1 - expected) * this.scale;
+                for (int term = 0; term < FEATURES; term++) {
+                    sums[term + 1] += slope * features[offset + term];
+                }
+            }
+            return sums;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        Path output = Path.of("evaluation.properties");
+        Evaluation initial = Evaluation.getDefault();
+        int size = 8;
+        int skip = 8;
+        int iterations = 200;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out" -> output = Path.of(args[++i]);
+                case "--eval" -> initial = Evaluation.load(Path.of(args[++i]));
+                case "--size" -> size = Integer.parseInt(args[++i]);
+                case "--skip" -> skip = Integer.parseInt(args[++i]);
+                case "--iterations" -> iterations = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                default -> inputs.add(Path.of(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.out.println("Usage: EvaluationTuner FILE... [--out FILE] [--eval FILE] [--size N] [--skip N] [--iterations N] [--threads N]");
+            return;
+        }
+
+        long start = System.nanoTime();
+        EvaluationTuner tuner = new EvaluationTuner(size, skip);
+        for (Path input : inputs) {
+            if (input.getFileName().toString().endsWith(".pdn")) {
+                tuner.addPdn(input);
+            } else {
+                tuner.addGameLog(input);
+            }
+        }
+        System.out.printf("Positions: %d from %d games in %.1f s%n", tuner.getPositions(), tuner.getGames(),
+                (System.nanoTime() - start) / 1e9);
+        if (tuner.getPositions() == 0) {
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        try {
+            int[] weights = initial.getWeights();
+            start = System.nanoTime();
+            double scale = tuner.fitScale(weights, pool);
+            System.out.printf("Scale: %.6f, error %.6f%n", scale, tuner.error(weights, scale, pool));
+            int last = iterations;
+            int[] tuned = tuner.tune(weights, scale, iterations, pool, (iteration, error) -> {
+                if (iteration % 25 == 0 || iteration == last) {
+                    System.out.printf("Iteration %d: error %.6f%n", iteration, error);
+                }
+            });
+            System.out.printf("Tuned error %.6f in %.1f s on %d threads%n", tuner.error(tuned, scale, pool),
+                    (System.nanoTime() - start) / 1e9, pool.getParallelism());
+            Evaluation evaluation = new Evaluation(tuned);
+            try (OutputStream out = Files.newOutputStream(output)) {
+                evaluation.toProperties().store(out, "Tuned on " + tuner.getPositions() + " positions");
+            }
+            System.out.println(evaluation.toProperties());
+            System.out.println("Weights: " + output.toAbsolutePath());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
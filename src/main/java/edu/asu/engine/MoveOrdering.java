@@ -0,0 +1,102 @@
+package edu.asu.engine;
+
+import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.board.PackedMove;
+import java.util.Arrays;
+
+/**
+ * This class orders the moves of a position so alpha-beta searches the likely best first: the hash move, then
+ * captures taking the most pieces, then the two killer moves of the ply, then the other moves by their history score.
+ * Killers are the last quiet moves that caused a cutoff at a ply, and the history score of a quiet move, kept by side,
+ * origin and direction, grows with the square of the remaining depth of every cutoff it causes.
+ * Everything is held in primitive arrays owned by one search, so every search thread has its own and nothing is shared.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+final class MoveOrdering {
+    private static final int HASH_MOVE = Integer.MAX_VALUE;
+    private static final int CAPTURE = 1 << 30; // plus the number of pieces taken
+    private static final int KILLER = 1 << 29; // plus 1 for the most recent killer
+    private static final int HISTORY_LIMIT = 1 << 28; // history scores are halved before they reach the killers
+    private static final int KEYS_PER_SIDE = 128 * 4; // origin square and first direction
+
+    private final int[] killers = new int[2 * Search.MAX_PLY]; // two per ply, most recent first
+    private final int[] history = new int[2 * KEYS_PER_SIDE];
+    private final int[] scores = new int[CheckerBoard.MAX_MOVES];
+
+    /**
+     * Forgets the killers of the last search and halves the history scores so recent cutoffs weigh more
+     */
+    void newSearch() {
+        Arrays.fill(this.killers, 0);
+        for (int i = 0; i < this.history.length; i++) {
+            this.history[i] >>= 1;
+        }
+    }
+
+    /**
+     * Sorts moves into the order they should be searched in
+     * @param moves moves generated for the position
+     * @param count number of moves
+     * @param hashMove best move stored for the position, or 0
+     * @param ply distance from the root
+     * @param side PlayerSymbol ordinal of the side to move
+     */
+    void order(int[] moves, int count, int hashMove, int ply, int side) {
+        int[] scores = this.scores;
+        int first = this.killers[2 * ply];
+        int second = this.killers[2 * ply + 1];
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int score;
+            if (move == hashMove) {
+                score = HASH_MOVE;
+            } else if (PackedMove.isCapture(move)) {
+                score = CAPTURE + PackedMove.steps(move);
+            } else if (move == first) {
+                score = KILLER + 1;
+            } else if (move == second) {
+                score = KILLER;
+            } else {
+                score = this.history[historyIndex(move, side)];
+            }
+            // insertion sort, highest score first; move lists are short
+            int j = i;
+            while (j > 0 && scores[j - 1] < score) {
+                scores[j] = scores[j - 1];
+                moves[j] = moves[j - 1];
+                j--;
+            }
+            scores[j] = score;
+            moves[j] = move;
+        }
+    }
+
+    /**
+     * Remembers a quiet move that caused a cutoff
+     * @param move the move
+     * @param ply distance from the root
+     * @param side PlayerSymbol ordinal of the side that played it
+     * @param depth remaining depth of the search it cut off
+     */
+    void cutoff(int move, int ply, int side, int depth) {
+        if (PackedMove.isCapture(move)) {
+            return; // captures are forced and already come first
+        }
+        if (this.killers[2 * ply] != move) {
+            this.killers[2 * ply + 1] = this.killers[2 * ply];
+            this.killers[2 * ply] = move;
+        }
+        int index = historyIndex(move, side);
+        this.history[index] += Math.max(1, depth * depth);
+        if (this.history[index] >= HISTORY_LIMIT) {
+            for (int i = 0; i < this.history.length; i++) {
+                this.history[i] >>= 1;
+            }
+        }
+    }
+
+    private static int historyIndex(int move, int side) {
+        return side * KEYS_PER_SIDE + (PackedMove.from(move) << 2 | PackedMove.direction(move, 0));
+    }
+}
@@ -0,0 +1,110 @@
+package edu.asu.engine;
+
+import edu.asu.core.board.CheckerBoard;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class looks up moves in an opening book written by OpeningBookBuilder. The file is a header followed by
+ * entries of position hash, packed move and weight, sorted by hash then move, so the moves of a position are found
+ * by binary search. The file is memory mapped read-only, so JVMs loading the same book share it in the page cache.
+ * Lookups allocate nothing and are safe from any number of threads.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class OpeningBook {
+    static final int MAGIC = 0x424F4F4B; // "BOOK"
+    static final int HEADER_SIZE = 12; // magic, board size and number of entries
+    static final int ENTRY_SIZE = 16; // hash, move and weight
+
+    private final MappedByteBuffer entries;
+    private final int boardSize;
+    private final int count;
+
+    /**
+     * Maps a book file
+     * @param file file written by OpeningBookBuilder
+     * @throws IOException if the file can't be read or is not a book
+     */
+    public OpeningBook(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book or too large to map: " + file);
+            }
+            this.entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        this.boardSize = this.entries.getInt(4);
+        this.count = this.entries.getInt(8);
+        if (this.entries.getInt(0) != MAGIC || this.entries.capacity() != HEADER_SIZE + (long) this.count * ENTRY_SIZE) {
+            throw new IOException("Not an opening book: " + file);
+        }
+    }
+
+    /**
+     * Returns the number of entries in the book
+     * @return the number of position and move pairs
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Picks a book move for the side to move, each move of the position with a chance proportional to its weight
+     * @param board the position
+     * @param random a number in [0, 1) choosing among the moves
+     * @return the packed move or 0 if the position is not in the book. The caller should check it is legal,
+     * since two positions may share a hash
+     */
+    public int getMove(CheckerBoard board, double random) {
+        if (board.getBoardSize() != this.boardSize) {
+            return 0;
+        }
+        long key = board.getHashKey();
+        int first = this.firstEntry(key);
+        long total = 0;
+        int end = first;
+        for (; end < this.count && this.hash(end) == key; end++) {
+            total += this.weight(end);
+        }
+        long pick = (long) (random * total);
+        for (int i = first; i < end; i++) {
+            pick -= this.weight(i);
+            if (pick < 0) {
+                return this.move(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the first entry whose hash is not below a key
+     */
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = this.count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.hash(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long hash(int entry) {
+        return this.entries.getLong(HEADER_SIZE + entry * ENTRY_SIZE);
+    }
+
+    private int move(int entry) {
+        return this.entries.getInt(HEADER_SIZE + entry * ENTRY_SIZE + 8);
+    }
+
+    private int weight(int entry) {
+        return this.entries.getInt(HEADER_SIZE + entry * ENTRY_SIZE + 12);
+    }
+}
@@ -0,0 +1,172 @@
+package edu.asu.engine;
+
+import edu.asu.core.board.BitboardCheckerBoard;
+import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.board.MoveNotation;
+import edu.asu.core.piece.Man;
+import edu.asu.core.player.Human;
+import edu.asu.util.PlayerSymbol;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class builds an opening book from game records in the format SelfPlay writes, one game per line:
+ * game number, result (O, X or draw), number of plies and the moves. The records are read in one streaming pass,
+ * replaying the first plies of each game and counting, for every position and move, the games it was played in
+ * and the points it scored for the side that played it, 2 for a win and 1 for a draw. The weight of a book move is
+ * its points, so moves that only lost are left out.
+ * Usage: OpeningBookBuilder FILE... [--out FILE] [--plies N] [--min-games N], with - reading standard input
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class OpeningBookBuilder {
+    private static final String DRAW = "draw";
+
+    private final int plies;
+    private final int minGames;
+    private final Map<BookKey, int[]> entries = new HashMap<>(); // games and points of each position and move
+    private final CheckerBoard board = new BitboardCheckerBoard();
+    private final int[] moves = new int[CheckerBoard.MAX_MOVES];
+    private final Human firstPlayer = new Human("Player 1", Man.of(PlayerSymbol.O));
+    private final Human secondPlayer = new Human("Player 2", Man.of(PlayerSymbol.X));
+    private int games;
+
+    /**
+     * Constructs a builder
+     * @param plies number of plies of each game to put in the book
+     * @param minGames number of games a move must have been played in to be kept
+     */
+    public OpeningBookBuilder(int plies, int minGames) {
+        this.plies = plies;
+        this.minGames = minGames;
+    }
+
+    /**
+     * Adds the games read from a stream of game records
+     * @param in reader of the records
+     * @throws IOException if the records can't be read
+     */
+    public void addGames(BufferedReader in) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] fields = line.trim().split(" +");
+            if (fields.length >= 3) {
+                this.addGame(fields[1], fields, 3);
+            }
+        }
+    }
+
+    /**
+     * Adds one game, stopping at the first move that is not legal
+     * @param result O, X or draw
+     * @param moves moves in the board's notation
+     * @param first index of the first move
+     */
+    private void addGame(String result, String[] moves, int first) {
+        CheckerBoard board = this.board;
+        board.initializeBoard(this.firstPlayer, this.secondPlayer);
+        for (int i = first; i < moves.length && i - first < this.plies; i++) {
+            int move = this.find(moves[i]);
+            if (move == 0) {
+                break;
+            }
+            String mover = PlayerSymbol.values()[board.getSideToMove()].getValue();
+            int[] counts = this.entries.computeIfAbsent(new BookKey(board.getHashKey(), move), entry -> new int[2]);
+            counts[0]++;
+            counts[1] += result.equals(mover) ? 2 : result.equals(DRAW) ? 1 : 0;
+            board.applyMove(move);
+        }
+        this.games++;
+    }
+
+    /**
+     * Finds a legal move from its notation
+     * @return the packed move or 0 if it is not legal
+     */
+    private int find(String notation) {
+        int move = MoveNotation.parse(notation, this.board.getBoardSize());
+        int count = move == 0 ? 0 : this.board.generateMoves(this.board.getSideToMove(), this.moves);
+        for (int i = 0; i < count; i++) {
+            if (this.moves[i] == move) {
+                return this.moves[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Writes the book, sorted by hash then move
+     * @param file book file
+     * @return the number of entries written
+     * @throws IOException if the file can't be written
+     */
+    public int write(Path file) throws IOException {
+        List<Map.Entry<BookKey, int[]>> kept = new ArrayList<>();
+        for (Map.Entry<BookKey, int[]> entry : this.entries.entrySet()) {
+            if (entry.getValue()[0] >= this.minGames && entry.getValue()[1] > 0) {
+                kept.add(entry);
+            }
+        }
+        kept.sort(Comparator.comparing((Map.Entry<BookKey, int[]> entry) -> entry.getKey().hash())
+                .thenComparingInt(entry -> entry.getKey().move()));
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(this.board.getBoardSize());
+            out.writeInt(kept.size());
+            for (Map.Entry<BookKey, int[]> entry : kept) {
+                out.writeLong(entry.getKey().hash());
+                out.writeInt(entry.getKey().move());
+                out.writeInt(entry.getValue()[1]);
+            }
+        }
+        return kept.size();
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> inputs = new ArrayList<>();
+        Path output = Path.of("book.bin");
+        int plies = 16;
+        int minGames = 2;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out" -> output = Path.of(args[++i]);
+                case "--plies" -> plies = Integer.parseInt(args[++i]);
+                case "--min-games" -> minGames = Integer.parseInt(args[++i]);
+                default -> inputs.add(args[i]);
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.out.println("Usage: OpeningBookBuilder FILE... [--out FILE] [--plies N] [--min-games N]");
+            return;
+        }
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies, minGames);
+        for (String input : inputs) {
+            try (BufferedReader in = input.equals("-") ?
+                    new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)) :
+                    Files.newBufferedReader(Path.of(input), StandardCharsets.UTF_8)) {
+                builder.addGames(in);
+            }
+        }
+        int count = builder.write(output);
+        System.out.printf("Games: %d, book entries: %d%n", builder.games, count);
+        System.out.println("Book: " + output.toAbsolutePath());
+    }
+
+    /**
+     * A move played in a position
+     */
+    private record BookKey(long hash, int move) {
+    }
+}
@@ -0,0 +1,177 @@
+package edu.asu.engine;
+
+import edu.asu.core.board.CheckerBoard;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class searches with several threads at once using Lazy SMP. Every thread searches the same root position
+ * on its own board copy and they only cooperate through the shared transposition table, so results found by one
+ * thread cut the work of the others. Helper threads start one ply deeper on alternate threads to spread out.
+ * The calling thread is the main thread: the search ends when it does and it supplies the limits.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class ParallelSearch extends Search implements AutoCloseable {
+    private final Search[] helpers;
+    private final CheckerBoard[] roots;
+    private final ExecutorService pool;
+    private long totalNodes;
+    private long totalProbes;
+    private long totalHits;
+    private int deepestDepth;
+    private int deepestScore;
+
+    /**
+     * Constructs a parallel search
+     * @param threads number of threads searching, including the calling thread
+     * @param table transposition table shared by all threads
+     */
+    public ParallelSearch(int threads, TranspositionTable table) {
+        super(table);
+        if (threads < 1) {
+            throw new IllegalArgumentException("A search needs at least one thread: " + threads);
+        }
+        this.helpers = new Search[threads - 1];
+        this.roots = new CheckerBoard[threads - 1];
+        for (int i = 0; i < this.helpers.length; i++) {
+            this.helpers[i] = new Search(table);
+        }
+        this.pool = this.helpers.length == 0 ? null : Executors.newFixedThreadPool(this.helpers.length, task -> {
+            Thread thread = new Thread(task, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the number of threads searching
+     * @return the thread count
+     */
+    public int getThreads() {
+        return this.helpers.length + 1;
+    }
+
+    /**
+     * Finds the best move for the side to move. The move comes from whichever thread finished the deepest iteration
+     * @param board the position to search, which is left untouched
+     * @return the best packed move or 0 if the side to move has no legal move
+     */
+    @Override
+    public int findBestMove(CheckerBoard board) {
+        // a new generation before any thread stores, so the replacement policy sees every store of this search as fresh
+        this.getTranspositionTable().newSearch();
+        List<Future<Integer>> results = new ArrayList<>(this.helpers.length);
+        for (int i = 0; i < this.helpers.length; i++) {
+            Search helper = this.helpers[i];
+            if (this.roots[i] == null || this.roots[i].getClass() != board.getClass()) {
+                this.roots[i] = board.copy();
+            }
+            CheckerBoard root = this.roots[i];
+            root.copyFrom(board);
+            helper.setMaxDepth(this.getMaxDepth());
+            helper.setTablebase(this.getTablebase());
+            helper.setEvaluation(this.getEvaluation());
+            helper.setMoveOrdering(this.isMoveOrdering());
+            helper.setStartDepth(1 + (i & 1));
+            helper.setNodeLimit(Long.MAX_VALUE);
+            helper.setTimeLimit(Long.MAX_VALUE);
+            helper.clearStop();
+            results.add(this.pool.submit(() -> helper.search(root)));
+        }
+
+        this.clearStop();
+        int bestMove = this.search(board);
+        this.totalNodes = super.getNodes();
+        this.totalProbes = super.getTableProbes();
+        this.totalHits = super.getTableHits();
+        this.deepestDepth = super.getCompletedDepth();
+        this.deepestScore = super.getBestScore();
+        for (Search helper : this.helpers) {
+            helper.stop();
+        }
+        for (int i = 0; i < results.size(); i++) {
+            int helperMove = waitFor(results.get(i));
+            Search helper = this.helpers[i];
+            this.totalNodes += helper.getNodes();
+            this.totalProbes += helper.getTableProbes();
+            this.totalHits += helper.getTableHits();
+            if (helperMove != 0 && helper.getCompletedDepth() > this.deepestDepth) {
+                bestMove = helperMove;
+                this.deepestDepth = helper.getCompletedDepth();
+                this.deepestScore = helper.getBestScore();
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Returns the number of positions visited by all threads in the last search
+     * @return the node count
+     */
+    @Override
+    public long getNodes() {
+        return this.totalNodes;
+    }
+
+    /**
+     * Returns the number of transposition table probes made by all threads in the last search
+     * @return the probe count
+     */
+    @Override
+    public long getTableProbes() {
+        return this.totalProbes;
+    }
+
+    /**
+     * Returns the number of probes by all threads in the last search that found an entry for the position
+     * @return the hit count
+     */
+    @Override
+    public long getTableHits() {
+        return this.totalHits;
+    }
+
+    /**
+     * Returns the deepest iteration any thread finished in the last search
+     * @return the depth in plies
+     */
+    @Override
+    public int getCompletedDepth() {
+        return this.deepestDepth;
+    }
+
+    /**
+     * Returns the score of the move picked by the last search
+     * @return the score
+     */
+    @Override
+    public int getBestScore() {
+        return this.deepestScore;
+    }
+
+    /**
+     * Stops the helper threads for good
+     */
+    @Override
+    public void close() {
+        if (this.pool != null) {
+            this.pool.shutdownNow();
+        }
+    }
+
+    private static int waitFor(Future<Integer> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A search thread failed", e.getCause());
+        }
+    }
+}
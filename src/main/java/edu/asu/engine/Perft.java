@@ -0,0 +1,202 @@
+package edu.asu.engine;
+
+import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.board.Fen;
+import edu.asu.core.board.PackedMove;
+import edu.asu.core.piece.Man;
+import edu.asu.core.player.Human;
+import edu.asu.util.BoardFactory;
+import edu.asu.util.BoardType;
+import edu.asu.util.PlayerSymbol;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class counts the positions reached after a fixed number of moves (perft), the standard check of a move generator
+ * against published counts. The count is split per root move, root moves can be spread over several threads
+ * and a hash table can remember the counts of subtrees reached through different move orders.
+ * Usage: Perft depth [--fen FEN] [--board standard|bitboard] [--size N] [--threads N] [--hash MB]
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class Perft {
+    private final int threads;
+    private final long[] keys;
+    private final long[] counts;
+
+    /**
+     * Constructs a perft counter
+     * @param threads number of threads counting root moves in parallel
+     * @param hashMb size of the subtree count table in megabytes, 0 for none
+     */
+    public Perft(int threads, int hashMb) {
+        this.threads = Math.max(1, threads);
+        int entries = hashMb <= 0 ? 0 : (int) Math.min(1 << 30, Long.highestOneBit((long) hashMb * 1024 * 1024 / 16));
+        this.keys = new long[entries];
+        this.counts = new long[entries];
+    }
+
+    /**
+     * Counts the positions at a depth below every root move
+     * @param board starting position, which is left untouched
+     * @param depth depth in plies, at least 1
+     * @param rootMoves buffer of at least MAX_MOVES entries the root moves are written to
+     * @return the count below each root move, in the same order as rootMoves
+     */
+    public long[] divide(CheckerBoard board, int depth, int[] rootMoves) {
+        int count = board.generateMoves(board.getSideToMove(), rootMoves);
+        long[] result = new long[count];
+        ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+        try {
+            List<Future<Long>> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                CheckerBoard child = board.copy();
+                child.applyMove(rootMoves[i]);
+                tasks.add(pool.submit(() -> new Walker(child, depth - 1).count(0, depth - 1)));
+            }
+            for (int i = 0; i < count; i++) {
+                result[i] = tasks.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Perft was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Perft failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return result;
+    }
+
+    /**
+     * Counts the positions at a depth
+     * @param board starting position, which is left untouched
+     * @param depth depth in plies
+     * @return the number of positions
+     */
+    public long count(CheckerBoard board, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        long total = 0;
+        for (long nodes : this.divide(board, depth, new int[CheckerBoard.MAX_MOVES])) {
+            total += nodes;
+        }
+        return total;
+    }
+
+    /**
+     * Walks the move tree of one root move on its own board and buffers, making and taking back moves
+     */
+    private class Walker {
+        private final CheckerBoard board;
+        private final int[][] moves;
+
+        Walker(CheckerBoard root, int depth) {
+            this.board = root;
+            this.moves = new int[depth + 1][CheckerBoard.MAX_MOVES];
+        }
+
+        long count(int ply, int depth) {
+            if (depth == 0) {
+                return 1;
+            }
+            CheckerBoard board = this.board;
+            int[] list = this.moves[ply];
+            int count = board.generateMoves(board.getSideToMove(), list);
+            if (depth == 1) {
+                return count; // bulk counting: the leaves are the moves themselves
+            }
+            long key = board.getHashKey();
+            long stored = probe(key, depth);
+            if (stored >= 0) {
+                return stored;
+            }
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                board.makeMove(list[i]);
+                total += this.count(ply + 1, depth - 1);
+                board.unmakeMove();
+            }
+            store(key, depth, total);
+            return total;
+        }
+    }
+
+    /**
+     * Looks up a subtree count. Entries are verified with the key XOR data trick so threads can share the table
+     * @return the count or -1 if it is not stored
+     */
+    private long probe(long key, int depth) {
+        if (this.keys.length == 0) {
+            return -1;
+        }
+        int index = (int) key & (this.keys.length - 1);
+        long data = this.counts[index];
+        if ((this.keys[index] ^ data) != key || (data & 0xFF) != depth) {
+            return -1;
+        }
+        return data >>> 8;
+    }
+
+    private void store(long key, int depth, long count) {
+        if (this.keys.length == 0) {
+            return;
+        }
+        int index = (int) key & (this.keys.length - 1);
+        long data = count << 8 | depth;
+        this.counts[index] = data;
+        this.keys[index] = key ^ data;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: Perft depth [--fen FEN] [--board standard|bitboard] [--size N] [--threads N] [--hash MB]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        String fen = null;
+        BoardType type = BoardType.BITBOARD;
+        int size = 8;
+        int threads = 1;
+        int hashMb = 0;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--fen" -> fen = args[i + 1];
+                case "--board" -> type = BoardType.valueOf(args[i + 1].toUpperCase());
+                case "--size" -> size = Integer.parseInt(args[i + 1]);
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--hash" -> hashMb = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        CheckerBoard board = new BoardFactory().createBoard(size, type);
+        board.initializeBoard(new Human("Player 1", new Man(PlayerSymbol.O.getValue())),
+                new Human("Player 2", new Man(PlayerSymbol.X.getValue())));
+        if (fen != null) {
+            Fen.load(board, fen);
+        }
+
+        Perft perft = new Perft(threads, hashMb);
+        int[] rootMoves = new int[CheckerBoard.MAX_MOVES];
+        long start = System.nanoTime();
+        long[] counts = depth == 0 ? new long[0] : perft.divide(board, depth, rootMoves);
+        long elapsed = System.nanoTime() - start;
+
+        long total = depth == 0 ? 1 : 0;
+        for (int i = 0; i < counts.length; i++) {
+            System.out.println(PackedMove.toString(rootMoves[i], board.getBoardSize()) + ": " + counts[i]);
+            total += counts[i];
+        }
+        System.out.println("Position: " + Fen.of(board));
+        System.out.println("Depth: " + depth);
+        System.out.println("Nodes: " + total);
+        System.out.printf("Time: %.1f ms%n", elapsed / 1e6);
+        System.out.printf("Nodes/sec: %.0f%n", total / (elapsed / 1e9));
+    }
+}
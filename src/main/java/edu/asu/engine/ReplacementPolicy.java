@@ -0,0 +1,19 @@
+package edu.asu.engine;
+
+/**
+ * Enum representing how a transposition table decides whether a new result may overwrite the entry in its slot
+ */
+public enum ReplacementPolicy {
+    /**
+     * The newest result always wins
+     */
+    ALWAYS,
+    /**
+     * A result only replaces an entry for another position if it was searched at least as deep
+     */
+    DEPTH_PREFERRED,
+    /**
+     * Like DEPTH_PREFERRED, but entries left over from an earlier search are always replaced
+     */
+    AGED_DEPTH_PREFERRED
+}
@@ -0,0 +1,438 @@
+package edu.asu.engine;
+
+import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.board.PackedMove;
+
+/**
+ * This class searches a checkerboard position for the best move using iterative deepening negamax with alpha-beta pruning.
+ * The search is bounded by a maximum depth, a node budget and a time budget, whichever runs out first.
+ * Captures are followed past the nominal depth so the leaves are quiet positions.
+ * With a tablebase set, positions it covers are scored from it instead of being searched, and when it covers the root
+ * the move is read from it: the winner converts as fast as it can, so it always makes progress, the loser holds out
+ * as long as it can and a draw is kept.
+ * Moves are searched hash move first, then captures by size, then killer moves, then by history, see MoveOrdering.
+ * An instance keeps its own buffers and must only be used by one thread at a time.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class Search {
+    public static final int MAX_PLY = 128;
+    public static final int WIN = 30000;
+    public static final int INFINITY = WIN + 1;
+    public static final int TABLEBASE_WIN = WIN - 2 * MAX_PLY; // below the mate scores, a tablebase win has no distance
+
+    public static final int DEFAULT_TABLE_SIZE_MB = 16;
+
+    private final int[][] moveStack = new int[MAX_PLY][CheckerBoard.MAX_MOVES];
+    private final MoveOrdering ordering = new MoveOrdering();
+    private final TranspositionTable table;
+    private Tablebase tablebase;
+    private Evaluation evaluation = Evaluation.getDefault();
+    private CheckerBoard board; // working copy of the root, walked with makeMove and unmakeMove
+
+    private boolean moveOrdering = true;
+    private int maxDepth = 64;
+    private long nodeLimit = Long.MAX_VALUE;
+    private long timeLimitMillis = Long.MAX_VALUE;
+
+    private long nodes;
+    private long tableProbes;
+    private long tableHits;
+    private long deadline;
+    private volatile boolean stopped;
+    private int startDepth = 1;
+    private int completedDepth;
+    private int bestScore;
+
+    /**
+     * Constructs a search with its own transposition table of the default size
+     */
+    public Search() {
+        this(new TranspositionTable(DEFAULT_TABLE_SIZE_MB));
+    }
+
+    /**
+     * Constructs a search storing its results in a transposition table, which may be shared with other searches
+     * @param table transposition table
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Returns the transposition table the search stores its results in
+     * @return the transposition table
+     */
+    public TranspositionTable getTranspositionTable() {
+        return this.table;
+    }
+
+    /**
+     * Sets the endgame tablebase probed during the search
+     * @param tablebase the tablebase, or null to search endgames like any other position
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Returns the endgame tablebase probed during the search
+     * @return the tablebase or null
+     */
+    public Tablebase getTablebase() {
+        return this.tablebase;
+    }
+
+    /**
+     * Sets the evaluation scoring the leaves of the search
+     * @param evaluation the evaluation
+     */
+    public void setEvaluation(Evaluation evaluation) {
+        this.evaluation = evaluation;
+    }
+
+    /**
+     * Returns the evaluation scoring the leaves of the search
+     * @return the evaluation
+     */
+    public Evaluation getEvaluation() {
+        return this.evaluation;
+    }
+
+    /**
+     * Turns ordering by captures, killer moves and history on or off. With it off only the hash move is searched
+     * ahead of the others, in the order the board generated them
+     * @param moveOrdering true to order the moves
+     */
+    public void setMoveOrdering(boolean moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
+    /**
+     * Checks whether moves are ordered by captures, killer moves and history
+     * @return true if they are
+     */
+    public boolean isMoveOrdering() {
+        return this.moveOrdering;
+    }
+
+    /**
+     * Sets the deepest iteration to search
+     * @param maxDepth depth in plies
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = Math.min(maxDepth, MAX_PLY / 2);
+    }
+
+    /**
+     * Returns the deepest iteration to search
+     * @return depth in plies
+     */
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    /**
+     * Sets the first iteration to search. Helper threads start deeper than the main thread so they spread out
+     * @param startDepth depth in plies
+     */
+    void setStartDepth(int startDepth) {
+        this.startDepth = startDepth;
+    }
+
+    /**
+     * Sets the number of positions after which the search stops
+     * @param nodeLimit node budget
+     */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Sets the time after which the search stops
+     * @param timeLimitMillis time budget in milliseconds
+     */
+    public void setTimeLimit(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * Returns the number of positions visited by the last search
+     * @return the node count
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Returns the number of transposition table probes made by the last search
+     * @return the probe count
+     */
+    public long getTableProbes() {
+        return this.tableProbes;
+    }
+
+    /**
+     * Returns the number of transposition table probes in the last search that found an entry for the position
+     * @return the hit count
+     */
+    public long getTableHits() {
+        return this.tableHits;
+    }
+
+    /**
+     * Returns the deepest iteration the last search finished
+     * @return the depth in plies
+     */
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    /**
+     * Returns the score of the best move found by the last search from the point of view of the side to move
+     * @return the score
+     */
+    public int getBestScore() {
+        return this.bestScore;
+    }
+
+    /**
+     * Asks a running search to return as soon as possible. It may be called from another thread
+     */
+    public void stop() {
+        this.stopped = true;
+    }
+
+    /**
+     * Clears an earlier stop request before the search is handed to another thread
+     */
+    void clearStop() {
+        this.stopped = false;
+    }
+
+    /**
+     * Finds the best move for the side to move
+     * @param board the position to search, which is left untouched
+     * @return the best packed move or 0 if the side to move has no legal move
+     */
+    public int findBestMove(CheckerBoard board) {
+        this.stopped = false;
+        this.table.newSearch();
+        return this.search(board);
+    }
+
+    /**
+     * Finds the best move without clearing an earlier stop request, so a helper thread stopped before it got
+     * going does not run on
+     * @param board the position to search, which is left untouched
+     * @return the best packed move or 0 if the side to move has no legal move
+     */
+    int search(CheckerBoard board) {
+        if (this.board == null || this.board.getClass() != board.getClass()) {
+            this.board = board.copy();
+        }
+        int[] values = this.evaluation.pieceSquareValues(board.getBoardSize());
+        if (this.board.getPieceSquareValues() != values) {
+            this.board.setPieceSquareValues(values);
+        }
+        this.board.copyFrom(board); // takes the piece-square score over, or adds it up if the values differ
+        this.nodes = 0;
+        this.tableProbes = 0;
+        this.tableHits = 0;
+        this.completedDepth = 0;
+        this.ordering.newSearch();
+        long now = System.currentTimeMillis();
+        this.deadline = this.timeLimitMillis > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + this.timeLimitMillis;
+
+        int[] rootMoves = this.moveStack[0];
+        int count = this.board.generateMoves(this.board.getSideToMove(), rootMoves);
+        if (count == 0) {
+            return 0;
+        }
+        if (this.tablebase != null && this.tablebase.probe(this.board) != Tablebase.UNKNOWN) {
+            return this.tablebaseMove(rootMoves, count);
+        }
+        moveToFront(rootMoves, count, TranspositionTable.move(this.table.probe(this.board.getHashKey())));
+        int bestMove = rootMoves[0];
+        this.bestScore = 0;
+        for (int depth = Math.min(this.startDepth, this.maxDepth); depth <= this.maxDepth && !this.stopped; depth++) {
+            int alpha = -INFINITY;
+            int iterationBest = 0;
+            for (int i = 0; i < count; i++) {
+                int move = rootMoves[i];
+                this.board.makeMove(move);
+                int score = -this.negamax(1, depth - 1, -INFINITY, -alpha);
+                this.board.unmakeMove();
+                if (this.stopped) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    iterationBest = i;
+                }
+            }
+            if (this.stopped && iterationBest == 0) {
+                break;
+            }
+            // keep the best move first so the next iteration searches it first
+            bestMove = rootMoves[iterationBest];
+            System.arraycopy(rootMoves, 0, rootMoves, 1, iterationBest);
+            rootMoves[0] = bestMove;
+            this.bestScore = alpha;
+            if (!this.stopped) {
+                this.completedDepth = depth;
+                this.table.store(this.board.getHashKey(), bestMove, alpha, depth, TranspositionTable.BOUND_EXACT);
+            }
+            if (count == 1 || alpha >= WIN - MAX_PLY || alpha <= -WIN + MAX_PLY) {
+                break;
+            }
+        }
+        return bestMove;
+    }
+
+    private int negamax(int ply, int depth, int alpha, int beta) {
+        if ((++this.nodes & 1023) == 0) {
+            this.checkLimits();
+        }
+        if (this.stopped) {
+            return 0;
+        }
+        CheckerBoard board = this.board;
+        if (this.tablebase != null) {
+            int result = this.tablebase.probe(board);
+            if (result != Tablebase.UNKNOWN) {
+                return result == Tablebase.DRAW ? 0 : result == Tablebase.WIN ? TABLEBASE_WIN - ply : -TABLEBASE_WIN + ply;
+            }
+        }
+        long key = board.getHashKey();
+        long entry = this.table.probe(key);
+        this.tableProbes++;
+        if (entry != 0) {
+            this.tableHits++;
+        }
+        if (entry != 0 && TranspositionTable.depth(entry) >= depth) {
+            int score = fromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.BOUND_EXACT ||
+                    bound == TranspositionTable.BOUND_LOWER && score >= beta ||
+                    bound == TranspositionTable.BOUND_UPPER && score <= alpha) {
+                return score;
+            }
+        }
+        int[] moves = this.moveStack[ply];
+        int count = board.generateMoves(board.getSideToMove(), moves);
+        if (count == 0) {
+            return -WIN + ply; // no piece left or blocked
+        }
+        boolean capture = PackedMove.isCapture(moves[0]);
+        if (ply >= MAX_PLY - 1 || depth <= 0 && !capture) {
+            return this.evaluation.evaluate(board, count);
+        }
+        if (this.moveOrdering) {
+            this.ordering.order(moves, count, TranspositionTable.move(entry), ply, board.getSideToMove());
+        } else {
+            moveToFront(moves, count, TranspositionTable.move(entry));
+        }
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            int score = -this.negamax(ply + 1, depth - 1, -beta, -alpha);
+            board.unmakeMove();
+            if (this.stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = moves[i];
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        if (this.moveOrdering) {
+                            this.ordering.cutoff(bestMove, ply, board.getSideToMove(), depth);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = best >= beta ? TranspositionTable.BOUND_LOWER :
+                best > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        this.table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Picks the root move from the tablebase: a win at the smallest distance to conversion, else a draw, else the loss
+     * at the largest distance. A capture or a crowning converts, so the position it leads to counts as distance 0
+     * @return the move
+     */
+    private int tablebaseMove(int[] moves, int count) {
+        CheckerBoard board = this.board;
+        int side = board.getSideToMove();
+        int kings = board.numberOfKings(side);
+        int bestMove = moves[0];
+        int best = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            board.makeMove(move);
+            int result = this.tablebase.probe(board);
+            int distance = PackedMove.isCapture(move) || board.numberOfKings(side) > kings ? 0 : this.tablebase.distance(board);
+            if (result == Tablebase.UNKNOWN && board.generateMoves(board.getSideToMove(), this.moveStack[1]) == 0) {
+                result = Tablebase.LOSS; // the opponent has no piece or no move left
+            }
+            board.unmakeMove();
+            int score = result == Tablebase.LOSS ? TABLEBASE_WIN - distance :
+                    result == Tablebase.WIN ? -TABLEBASE_WIN + distance : 0;
+            if (score > best) {
+                best = score;
+                bestMove = move;
+            }
+        }
+        this.bestScore = best;
+        return bestMove;
+    }
+
+    /**
+     * Moves the hash move, if it is in the list, to the front so it is searched first
+     */
+    private static void moveToFront(int[] moves, int count, int move) {
+        if (move == 0) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = move;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Converts a win score to be relative to the stored position rather than the root
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= WIN - MAX_PLY) {
+            return score + ply;
+        }
+        return score <= -WIN + MAX_PLY ? score - ply : score;
+    }
+
+    /**
+     * Converts a stored win score back to be relative to the root
+     */
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN - MAX_PLY) {
+            return score - ply;
+        }
+        return score <= -WIN + MAX_PLY ? score + ply : score;
+    }
+
+    private void checkLimits() {
+        if (this.nodes >= this.nodeLimit || System.currentTimeMillis() >= this.deadline) {
+            this.stopped = true;
+        }
+    }
+}
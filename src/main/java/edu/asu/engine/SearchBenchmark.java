@@ -0,0 +1,120 @@
+package edu.asu.engine;
+
+import edu.asu.core.board.BitboardCheckerBoard;
+import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.piece.Man;
+import edu.asu.core.player.Human;
+import edu.asu.util.PlayerSymbol;
+import java.util.SplittableRandom;
+
+/**
+ * This class measures how the parallel search scales with the number of threads.
+ * For each thread count it searches a fixed set of positions to a fixed depth, starting from an empty table,
+ * and reports nodes per second and time to depth next to the single thread figures.
+ * With --ordering it instead searches the positions on one thread with move ordering off and on and reports
+ * the nodes and time each needs to reach the depth.
+ * Usage: SearchBenchmark [depth] [max threads]
+ *        SearchBenchmark --ordering [depth]
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class SearchBenchmark {
+    private static final int POSITIONS = 8;
+    private static final long SEED = 20231018L;
+
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--ordering")) {
+            compareOrdering(args.length > 1 ? Integer.parseInt(args[1]) : 16);
+            return;
+        }
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        CheckerBoard[] positions = openingPositions(POSITIONS, SEED);
+
+        run(positions, depth, 1, true); // warm up the JIT before measuring
+        System.out.printf("%-8s %12s %10s %12s %10s %10s%n", "threads", "nodes", "Mnps", "time ms", "nps x", "time x");
+        double baseNps = 0;
+        double baseMillis = 0;
+        for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+            long[] result = run(positions, depth, threads, true);
+            double millis = result[1] / 1e6;
+            double nps = result[0] / (millis / 1000);
+            if (threads == 1) {
+                baseNps = nps;
+                baseMillis = millis;
+            }
+            System.out.printf("%-8d %12d %10.2f %12.1f %10.2f %10.2f%n",
+                    threads, result[0], nps / 1e6, millis, nps / baseNps, baseMillis / millis);
+        }
+    }
+
+    /**
+     * Prints the nodes and time needed to reach a depth on one thread with move ordering off and on
+     */
+    private static void compareOrdering(int depth) {
+        CheckerBoard[] positions = openingPositions(POSITIONS, SEED);
+        run(positions, depth, 1, true); // warm up the JIT before measuring
+        long[] off = run(positions, depth, 1, false);
+        long[] on = run(positions, depth, 1, true);
+        System.out.printf("%-10s %12s %12s%n", "ordering", "nodes", "time ms");
+        System.out.printf("%-10s %12d %12.1f%n", "off", off[0], off[1] / 1e6);
+        System.out.printf("%-10s %12d %12.1f%n", "on", on[0], on[1] / 1e6);
+        System.out.printf("%-10s %11.1f%% %11.1f%%%n", "saved",
+                100.0 * (off[0] - on[0]) / off[0], 100.0 * (off[1] - on[1]) / off[1]);
+    }
+
+    /**
+     * Doubles the thread count, finishing on the maximum even if it is not a power of two
+     */
+    private static int nextThreadCount(int threads, int maxThreads) {
+        return threads < maxThreads && threads * 2 > maxThreads ? maxThreads : threads * 2;
+    }
+
+    /**
+     * Searches every position to a fixed depth
+     * @return the total node count and elapsed nanoseconds
+     */
+    private static long[] run(CheckerBoard[] positions, int depth, int threads, boolean ordering) {
+        TranspositionTable table = new TranspositionTable(64);
+        long nodes = 0;
+        long elapsed = 0;
+        try (ParallelSearch search = new ParallelSearch(threads, table)) {
+            search.setMaxDepth(depth);
+            search.setMoveOrdering(ordering);
+            for (CheckerBoard position : positions) {
+                table.clear();
+                long start = System.nanoTime();
+                search.findBestMove(position);
+                elapsed += System.nanoTime() - start;
+                nodes += search.getNodes();
+            }
+        }
+        return new long[]{nodes, elapsed};
+    }
+
+    /**
+     * Builds a reproducible set of early middle game positions by playing random moves from the initial position
+     * @param count number of positions
+     * @param seed random seed
+     * @return the positions
+     */
+    static CheckerBoard[] openingPositions(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        CheckerBoard[] positions = new CheckerBoard[count];
+        int[] moves = new int[CheckerBoard.MAX_MOVES];
+        for (int i = 0; i < count; i++) {
+            CheckerBoard board = new BitboardCheckerBoard();
+            board.initializeBoard(new Human("Player 1", new Man(PlayerSymbol.O.getValue())),
+                    new Human("Player 2", new Man(PlayerSymbol.X.getValue())));
+            for (int ply = 0; ply < 2 * i + 4; ply++) {
+                int legal = board.generateMoves(board.getSideToMove(), moves);
+                if (legal == 0) {
+                    break;
+                }
+                board.applyMove(moves[random.nextInt(legal)]);
+            }
+            positions[i] = board;
+        }
+        return positions;
+    }
+}
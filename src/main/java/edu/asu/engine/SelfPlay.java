@@ -0,0 +1,342 @@
+package edu.asu.engine;
+
+import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.board.MoveNotation;
+import edu.asu.core.piece.Man;
+import edu.asu.core.player.Computer;
+import edu.asu.core.player.Player;
+import edu.asu.record.GameLogWriter;
+import edu.asu.util.BoardFactory;
+import edu.asu.util.BoardType;
+import edu.asu.util.PlayerSymbol;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class plays batches of engine against engine games on every core, for tuning and regression checks.
+ * Each game starts with a few random moves so the games differ, then two Computer players search to a fixed depth
+ * and the game ends as GameController ends it, when won() reports a win after a move or as a draw after
+ * CheckerBoard.DRAW_PLIES plies without a capture or a man moving, or as a draw at the ply limit.
+ * With a tablebase, both players probe it while searching and a game is adjudicated as soon as it reaches a position
+ * the tablebase covers, with the result perfect play would give. With an opening book, both players play from it
+ * after the random moves for as long as the game stays in the book, picking among its moves with the game's seed.
+ * With a game log, every game is also appended to it.
+ * Every finished game is streamed to the output file as one line:
+ * game number, result (O, X or draw), number of plies and the moves in the board's notation.
+ * Usage: SelfPlay games [--out FILE] [--depth N] [--threads N] [--random N] [--max-plies N] [--seed N] [--tablebase DIR] [--book FILE] [--log FILE] [--eval FILE]
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class SelfPlay {
+    private static final int TABLE_SIZE_MB = 4;
+    private static final long LOG_SYNC_MILLIS = 1000;
+
+    private final int depth;
+    private final int randomPlies;
+    private final int maxPlies;
+    private final long seed;
+    private Tablebase tablebase;
+    private Evaluation evaluation = Evaluation.getDefault();
+    private OpeningBook book;
+    private GameLogWriter log;
+
+    /**
+     * Constructs a self play runner
+     * @param depth search depth of both players in plies
+     * @param randomPlies number of random moves opening each game
+     * @param maxPlies number of plies after which a game is drawn
+     * @param seed seed of the random openings, game i uses seed + i
+     */
+    public SelfPlay(int depth, int randomPlies, int maxPlies, long seed) {
+        this.depth = depth;
+        this.randomPlies = randomPlies;
+        this.maxPlies = maxPlies;
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the evaluation both players score positions with
+     * @param evaluation the evaluation
+     */
+    public void setEvaluation(Evaluation evaluation) {
+        this.evaluation = evaluation;
+    }
+
+    /**
+     * Sets the tablebase used by both players and to adjudicate endgames
+     * @param tablebase the tablebase, or null to play every game out
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Sets the opening book used by both players
+     * @param book the book, or null to search every move
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Sets the log every game is appended to
+     * @param log the game log, or null
+     */
+    public void setGameLog(GameLogWriter log) {
+        this.log = log;
+    }
+
+    /**
+     * Plays games on several threads, writing each result as soon as its game ends
+     * @param games number of games
+     * @param threads number of threads
+     * @param out destination of the result lines
+     * @return the statistics of the run
+     */
+    public Statistics run(int games, int threads, Writer out) {
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Statistics>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(pool.submit(() -> this.work(next, games, out)));
+            }
+            Statistics total = new Statistics(new long[0]);
+            for (Future<Statistics> worker : workers) {
+                total = total.merge(worker.get());
+            }
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Self play was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Self play failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays games until the batch is used up, with its own board and players
+     */
+    private Statistics work(AtomicInteger next, int games, Writer out) throws IOException {
+        CheckerBoard board = new BoardFactory().createBoard(8, BoardType.BITBOARD);
+        Computer[] players = new Computer[2]; // indexed by PlayerSymbol ordinal
+        for (PlayerSymbol symbol : PlayerSymbol.values()) {
+            Search search = new Search(new TranspositionTable(TABLE_SIZE_MB));
+            search.setMaxDepth(this.depth);
+            search.setTablebase(this.tablebase);
+            search.setEvaluation(this.evaluation);
+            players[symbol.ordinal()] = new Computer("Engine " + symbol.getValue(), Man.of(symbol), search);
+            players[symbol.ordinal()].setOpeningBook(this.book);
+        }
+        Statistics statistics = new Statistics(new long[1024]);
+        int[] moves = new int[CheckerBoard.MAX_MOVES];
+        int[] played = new int[this.maxPlies];
+        StringBuilder line = new StringBuilder();
+        for (int game = next.getAndIncrement(); game < games; game = next.getAndIncrement()) {
+            SplittableRandom random = new SplittableRandom(this.seed + game);
+            for (Computer player : players) {
+                player.setRandom(random); // book moves follow the seed too
+            }
+            long startTime = System.currentTimeMillis();
+            board.initializeBoard(players[PlayerSymbol.O.ordinal()], players[PlayerSymbol.X.ordinal()]);
+            line.setLength(0);
+            String result = "draw";
+            int ply = 0;
+            int quietPlies = 0;
+            for (; ply < this.maxPlies; ply++) {
+                Player mover = players[board.getSideToMove()];
+                int kingsBefore = board.numberOfKings(board.getSideToMove());
+                int move;
+                if (ply < this.randomPlies) {
+                    int count = board.generateMoves(board.getSideToMove(), moves);
+                    move = count == 0 ? 0 : moves[random.nextInt(count)];
+                    if (move != 0) {
+                        board.applyMove(move);
+                    }
+                } else {
+                    long start = System.nanoTime();
+                    boolean made = mover.makeMove(null, board).isValid();
+                    statistics.addLatency(System.nanoTime() - start);
+                    move = made ? ((Computer) mover).getLastMove() : 0;
+                }
+                if (move == 0) {
+                    result = mover.getPiece().getColour() == PlayerSymbol.X ? PlayerSymbol.O.getValue() : PlayerSymbol.X.getValue();
+                    break;
+                }
+                played[ply] = move;
+                MoveNotation.format(move, board.getBoardSize(), line.append(' '));
+                if (board.won()) {
+                    result = mover.getPiece().getSymbol();
+                    ply++;
+                    break;
+                }
+                if (board.isIrreversible(move, kingsBefore)) {
+                    quietPlies = 0;
+                } else if (++quietPlies >= CheckerBoard.DRAW_PLIES) {
+                    ply++;
+                    break; // a draw
+                }
+                int adjudication = this.tablebase == null ? Tablebase.UNKNOWN : this.tablebase.probe(board);
+                if (adjudication != Tablebase.UNKNOWN) {
+                    String toMove = PlayerSymbol.values()[board.getSideToMove()].getValue();
+                    result = adjudication == Tablebase.DRAW ? "draw" :
+                            adjudication == Tablebase.WIN ? toMove : mover.getPiece().getSymbol();
+                    ply++;
+                    break;
+                }
+            }
+            for (Computer player : players) {
+                player.getSearch().getTranspositionTable().clear();
+            }
+            statistics.addGame(result, ply);
+            if (this.log != null) {
+                int code = result.equals(PlayerSymbol.O.getValue()) ? PlayerSymbol.O.ordinal() :
+                        result.equals(PlayerSymbol.X.getValue()) ? PlayerSymbol.X.ordinal() : GameLogWriter.DRAW;
+                this.log.append(board.getBoardSize(), code, startTime, played, ply);
+            }
+            String record = (game + 1) + " " + result + " " + ply + line + "\n";
+            synchronized (out) {
+                out.write(record);
+            }
+        }
+        return statistics;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: SelfPlay games [--out FILE] [--depth N] [--threads N] [--random N] [--max-plies N] [--seed N] [--tablebase DIR] [--book FILE] [--log FILE] [--eval FILE]");
+            return;
+        }
+        int games = Integer.parseInt(args[0]);
+        Path output = Path.of("selfplay.txt");
+        int depth = 6;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int randomPlies = 4;
+        int maxPlies = 200;
+        long seed = 1;
+        Tablebase tablebase = null;
+        OpeningBook book = null;
+        Path logFile = null;
+        Evaluation evaluation = Evaluation.getDefault();
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--out" -> output = Path.of(args[i + 1]);
+                case "--depth" -> depth = Integer.parseInt(args[i + 1]);
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--random" -> randomPlies = Integer.parseInt(args[i + 1]);
+                case "--max-plies" -> maxPlies = Integer.parseInt(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--tablebase" -> tablebase = new Tablebase(Path.of(args[i + 1]));
+                case "--book" -> book = new OpeningBook(Path.of(args[i + 1]));
+                case "--log" -> logFile = Path.of(args[i + 1]);
+                case "--eval" -> evaluation = Evaluation.load(Path.of(args[i + 1]));
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        long start = System.nanoTime();
+        Statistics statistics;
+        try (BufferedWriter out = Files.newBufferedWriter(output, StandardCharsets.UTF_8);
+             GameLogWriter log = logFile == null ? null : new GameLogWriter(logFile, LOG_SYNC_MILLIS)) {
+            SelfPlay selfPlay = new SelfPlay(depth, randomPlies, maxPlies, seed);
+            selfPlay.setTablebase(tablebase);
+            selfPlay.setEvaluation(evaluation);
+            selfPlay.setOpeningBook(book);
+            selfPlay.setGameLog(log);
+            statistics = selfPlay.run(games, threads, out);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long[] latencies = statistics.sortedLatencies();
+        System.out.printf("Games: %d on %d threads in %.1f s, %.2f games/sec%n", games, threads, seconds, games / seconds);
+        System.out.printf("O wins: %d, X wins: %d, draws: %d, average length: %.1f plies%n",
+                statistics.oWins, statistics.xWins, statistics.draws, statistics.plies / (double) Math.max(1, games));
+        if (latencies.length > 0) {
+            System.out.printf("Move latency ms: p50 %.2f, p90 %.2f, p99 %.2f, max %.2f%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                    latencies[latencies.length - 1] / 1e6);
+        }
+        System.out.println("Results: " + output.toAbsolutePath());
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[(int) Math.min(sorted.length - 1, fraction * sorted.length)] / 1e6;
+    }
+
+    /**
+     * Results and engine move latencies gathered by one thread, merged at the end of a run
+     */
+    public static final class Statistics {
+        private long[] latencies;
+        private int latencyCount;
+        private int oWins;
+        private int xWins;
+        private int draws;
+        private long plies;
+
+        private Statistics(long[] latencies) {
+            this.latencies = latencies;
+        }
+
+        private void addLatency(long nanos) {
+            if (this.latencyCount == this.latencies.length) {
+                this.latencies = Arrays.copyOf(this.latencies, this.latencies.length * 2);
+            }
+            this.latencies[this.latencyCount++] = nanos;
+        }
+
+        private void addGame(String result, int plies) {
+            if (result.equals(PlayerSymbol.O.getValue())) {
+                this.oWins++;
+            } else if (result.equals(PlayerSymbol.X.getValue())) {
+                this.xWins++;
+            } else {
+                this.draws++;
+            }
+            this.plies += plies;
+        }
+
+        private Statistics merge(Statistics other) {
+            Statistics merged = new Statistics(Arrays.copyOf(this.latencies, this.latencyCount + other.latencyCount));
+            System.arraycopy(other.latencies, 0, merged.latencies, this.latencyCount, other.latencyCount);
+            merged.latencyCount = merged.latencies.length;
+            merged.oWins = this.oWins + other.oWins;
+            merged.xWins = this.xWins + other.xWins;
+            merged.draws = this.draws + other.draws;
+            merged.plies = this.plies + other.plies;
+            return merged;
+        }
+
+        /**
+         * Returns the engine move latencies in nanoseconds, sorted
+         * @return the latencies
+         */
+        public long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(this.latencies, this.latencyCount);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        /**
+         * Returns the number of games won by O, X and drawn
+         * @return the counts in that order
+         */
+        public int[] results() {
+            return new int[]{this.oWins, this.xWins, this.draws};
+        }
+    }
+}
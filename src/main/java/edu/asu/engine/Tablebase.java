@@ -0,0 +1,204 @@
+package edu.asu.engine;
+
+import edu.asu.core.board.BitboardCheckerBoard;
+import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.piece.Piece;
+import edu.asu.util.PlayerSymbol;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class answers whether the side to move wins, loses or draws an 8x8 endgame, and for a win or a loss how many
+ * plies are left to the next capture or crowning, reading the databases written by TablebaseGenerator. A win alone
+ * does not say which winning move makes progress; the winning move to a loss at the smallest distance always does.
+ * Every slice file is memory mapped read-only, so the operating system pages it in on demand and JVMs probing
+ * the same directory share one copy in the page cache.
+ * A slice file holds a header followed by one byte per position, where position index * 2 + side is the
+ * TablebaseIndex of the pieces and the PlayerSymbol ordinal of the side to move. The byte is 0 for a draw,
+ * the distance for a win and 0x80 plus the distance for a loss, distances above MAX_DISTANCE being stored as it.
+ * Probing allocates nothing and is safe from any number of threads.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class Tablebase {
+    public static final int UNKNOWN = 0;
+    public static final int WIN = 1;
+    public static final int LOSS = 2;
+    public static final int DRAW = 3;
+
+    public static final int MAX_DISTANCE = 127; // longer distances to conversion are stored as this
+
+    static final int MAGIC = 0x43444232; // "CDB2"
+    static final int HEADER_SIZE = 12; // magic and number of positions
+    private static final int LOST = 0x80; // flag of a lost position in a slice file
+    static final String EXTENSION = ".cdb";
+
+    private static final int BOARD_SIZE = 8;
+    private static final Pattern FILE_NAME = Pattern.compile("O(\\d)(\\d)-X(\\d)(\\d)\\.cdb");
+
+    private final ByteBuffer[] slices = new ByteBuffer[TablebaseIndex.keys()]; // indexed by material key
+    private final TablebaseIndex[] indexes = new TablebaseIndex[TablebaseIndex.keys()];
+    private final int maxPieces;
+
+    /**
+     * Maps every slice file found in a directory
+     * @param directory directory written by TablebaseGenerator
+     * @throws IOException if a slice file can't be read or is not a tablebase
+     */
+    public Tablebase(Path directory) throws IOException {
+        int maxPieces = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                int oMen = Integer.parseInt(matcher.group(1));
+                int oKings = Integer.parseInt(matcher.group(2));
+                int xMen = Integer.parseInt(matcher.group(3));
+                int xKings = Integer.parseInt(matcher.group(4));
+                int key = TablebaseIndex.key(oMen, oKings, xMen, xKings);
+                this.indexes[key] = new TablebaseIndex(oMen, oKings, xMen, xKings);
+                this.slices[key] = map(file, this.indexes[key].size());
+                maxPieces = Math.max(maxPieces, oMen + oKings + xMen + xKings);
+            }
+        }
+        this.maxPieces = maxPieces;
+    }
+
+    /**
+     * Returns the number of pieces of the largest endgame loaded
+     * @return the number of pieces, 0 if the directory held no slices
+     */
+    public int getMaxPieces() {
+        return this.maxPieces;
+    }
+
+    /**
+     * Looks a position up
+     * @param board the position, on an 8x8 board
+     * @return WIN, LOSS or DRAW for the side to move, UNKNOWN if the position is not in the loaded slices
+     */
+    public int probe(CheckerBoard board) {
+        return decode(this.entry(board));
+    }
+
+    /**
+     * Returns the number of plies to the next capture or crowning, or to the end of the game, when the winner
+     * heads there as fast as it can and the loser holds out as long as it can
+     * @param board the position, on an 8x8 board
+     * @return the distance of a won or lost position, at most MAX_DISTANCE, or -1 for a draw or a position
+     * not in the loaded slices
+     */
+    public int distance(CheckerBoard board) {
+        int entry = this.entry(board);
+        return entry <= 0 ? -1 : entry & ~LOST;
+    }
+
+    /**
+     * Looks a position up by the bitmasks of its pieces
+     * @return WIN, LOSS or DRAW for the side to move, UNKNOWN if the position is not in the loaded slices
+     */
+    int probe(int xMen, int oMen, int xKings, int oKings, int sideToMove) {
+        return decode(this.entry(xMen, oMen, xKings, oKings, sideToMove));
+    }
+
+    /**
+     * Returns the byte of a position in its slice file
+     * @return the byte, or -1 if the position is not in the loaded slices
+     */
+    private int entry(CheckerBoard board) {
+        int x = PlayerSymbol.X.ordinal();
+        int o = PlayerSymbol.O.ordinal();
+        if (board.getBoardSize() != BOARD_SIZE ||
+                board.numberOfMen(x) + board.numberOfKings(x) + board.numberOfMen(o) + board.numberOfKings(o) > this.maxPieces) {
+            return -1;
+        }
+        if (board instanceof BitboardCheckerBoard bitboard) {
+            return this.entry(bitboard.getMen(x), bitboard.getMen(o), bitboard.getKings(x), bitboard.getKings(o),
+                    board.getSideToMove());
+        }
+        int xMen = 0;
+        int oMen = 0;
+        int xKings = 0;
+        int oKings = 0;
+        Piece[][] grid = board.getBoardState();
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            for (int column = 1 - (row & 1); column < BOARD_SIZE; column += 2) {
+                Piece piece = grid[row][column];
+                if (piece == null) {
+                    continue;
+                }
+                int bit = 1 << (row * BOARD_SIZE / 2 + (column >> 1));
+                if (piece.getColour() == PlayerSymbol.X) {
+                    if (piece.isKing()) {
+                        xKings |= bit;
+                    } else {
+                        xMen |= bit;
+                    }
+                } else if (piece.isKing()) {
+                    oKings |= bit;
+                } else {
+                    oMen |= bit;
+                }
+            }
+        }
+        return this.entry(xMen, oMen, xKings, oKings, board.getSideToMove());
+    }
+
+    private int entry(int xMen, int oMen, int xKings, int oKings, int sideToMove) {
+        int key = TablebaseIndex.key(Integer.bitCount(oMen), Integer.bitCount(oKings),
+                Integer.bitCount(xMen), Integer.bitCount(xKings));
+        ByteBuffer slice = this.slices[key];
+        if (slice == null) {
+            return -1;
+        }
+        long entry = this.indexes[key].index(xMen, oMen, xKings, oKings) * 2 + sideToMove;
+        return slice.get(HEADER_SIZE + (int) entry) & 0xFF;
+    }
+
+    private static int decode(int entry) {
+        return entry < 0 ? UNKNOWN : entry == 0 ? DRAW : (entry & LOST) != 0 ? LOSS : WIN;
+    }
+
+    /**
+     * Returns the byte stored in a slice file for a position
+     * @param value WIN, LOSS or DRAW
+     * @param distance plies to conversion of a win or a loss
+     * @return the byte
+     */
+    static int encode(int value, int distance) {
+        distance = Math.min(distance, MAX_DISTANCE);
+        return value == WIN ? Math.max(distance, 1) : value == LOSS ? LOST | distance : 0;
+    }
+
+    /**
+     * Returns the name of the file holding a slice
+     * @return the file name
+     */
+    static String fileName(int oMen, int oKings, int xMen, int xKings) {
+        return "O" + oMen + oKings + "-X" + xMen + xKings + EXTENSION;
+    }
+
+    private static MappedByteBuffer map(Path file, long positions) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = HEADER_SIZE + positions * 2;
+            if (channel.size() != length || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a tablebase slice or too large to map: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt(0) != MAGIC || buffer.getLong(4) != positions * 2) {
+                throw new IOException("Not a tablebase slice: " + file);
+            }
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package edu.asu.engine;
+
+import edu.asu.core.board.BitboardCheckerBoard;
+import edu.asu.core.board.CheckerBoard;
+import edu.asu.util.PlayerSymbol;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class builds the win, loss and draw databases read by Tablebase for every 8x8 endgame of up to N pieces
+ * with at least one piece per side, by retrograde analysis.
+ * The slices are solved smallest first: fewer pieces, then fewer men, so every capture or crowning leads into a slice
+ * that is already solved. Within a slice every position is swept again and again. A side with no move loses,
+ * a position with a move to a lost position is won, and a position whose moves all reach won positions is lost.
+ * When a sweep decides nothing more, neither side can force a win from the positions left and they are draws.
+ * Every won or lost position also gets its distance to conversion: the plies to the next capture or crowning,
+ * or to the end of the game, when the winner heads there as fast as it can and the loser holds out as long as it can.
+ * A sweep only builds on the positions decided by earlier sweeps, so the distances are exact. Playing a move that
+ * lowers the distance is what makes progress in a won ending, since every winning move keeps the win.
+ * The solved slices are kept in memory at one byte per position, so N is limited to about 5 pieces by the heap.
+ * Usage: TablebaseGenerator pieces [--out DIR]
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class TablebaseGenerator {
+    private static final int DECIDED = 4; // flag of a value decided by the sweep under way, not built on until the next
+
+    private final byte[][] solved = new byte[TablebaseIndex.keys()][]; // by material key, one byte per position
+    private final TablebaseIndex[] indexes = new TablebaseIndex[TablebaseIndex.keys()];
+    private final BitboardCheckerBoard board = new BitboardCheckerBoard();
+    private final int[] moves = new int[CheckerBoard.MAX_MOVES];
+    private final int[] masks = new int[4];
+    private byte[] distances; // distance to conversion of every position of the slice being solved, unsigned
+
+    /**
+     * Solves every slice of up to a number of pieces and writes each one to a directory
+     * @param pieces largest number of pieces on the board
+     * @param directory output directory
+     * @throws IOException if a slice can't be written
+     */
+    public void generate(int pieces, Path directory) throws IOException {
+        if (pieces < 2 || pieces > TablebaseIndex.MAX_PIECES) {
+            throw new IllegalArgumentException("Pieces must be between 2 and " + TablebaseIndex.MAX_PIECES);
+        }
+        Files.createDirectories(directory);
+        for (int[] slice : slices(pieces)) {
+            long start = System.nanoTime();
+            byte[] values = this.solve(slice[0], slice[1], slice[2], slice[3]);
+            byte[] distances = this.distances;
+            String name = Tablebase.fileName(slice[0], slice[1], slice[2], slice[3]);
+            write(directory.resolve(name), values, distances);
+            int[] counts = new int[4];
+            int longest = 0;
+            for (int entry = 0; entry < values.length; entry++) {
+                counts[values[entry]]++;
+                longest = Math.max(longest, distances[entry] & 0xFF);
+            }
+            System.out.printf("%s: %d positions, %d wins, %d losses, %d draws, longest conversion %d plies in %.1f s%n",
+                    name, values.length, counts[Tablebase.WIN], counts[Tablebase.LOSS], counts[Tablebase.DRAW], longest,
+                    (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    /**
+     * Lists the material balances to solve in an order where every slice comes after the slices its moves lead to
+     * @return O men, O kings, X men and X kings of each slice
+     */
+    private static List<int[]> slices(int pieces) {
+        List<int[]> slices = new ArrayList<>();
+        for (int oMen = 0; oMen < pieces; oMen++) {
+            for (int oKings = 0; oMen + oKings < pieces; oKings++) {
+                for (int xMen = 0; oMen + oKings + xMen <= pieces; xMen++) {
+                    for (int xKings = 0; oMen + oKings + xMen + xKings <= pieces; xKings++) {
+                        if (oMen + oKings > 0 && xMen + xKings > 0) {
+                            slices.add(new int[]{oMen, oKings, xMen, xKings});
+                        }
+                    }
+                }
+            }
+        }
+        slices.sort(Comparator.<int[]>comparingInt(s -> s[0] + s[1] + s[2] + s[3]).thenComparingInt(s -> s[0] + s[2]));
+        return slices;
+    }
+
+    /**
+     * Solves one slice, looking up positions in other slices among those already solved.
+     * The distances are left in the distances field until the next slice
+     * @return the value of every position, indexed by index * 2 + side to move
+     */
+    private byte[] solve(int oMen, int oKings, int xMen, int xKings) {
+        TablebaseIndex index = new TablebaseIndex(oMen, oKings, xMen, xKings);
+        if (index.size() * 2 > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Slice too large: " + Tablebase.fileName(oMen, oKings, xMen, xKings));
+        }
+        int key = TablebaseIndex.key(oMen, oKings, xMen, xKings);
+        byte[] values = new byte[(int) (index.size() * 2)];
+        byte[] distances = new byte[values.length];
+        this.indexes[key] = index;
+        this.solved[key] = values; // moves that keep the material are looked up while the slice is being solved
+        this.distances = distances;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int entry = 0; entry < values.length; entry++) {
+                if (values[entry] == Tablebase.UNKNOWN) {
+                    int value = this.value(index, entry, key);
+                    if ((value & 3) != Tablebase.UNKNOWN) {
+                        values[entry] = (byte) (value & 3 | DECIDED);
+                        distances[entry] = (byte) Math.min(value >>> 2, 0xFF);
+                        changed = true;
+                    }
+                }
+            }
+            for (int entry = 0; entry < values.length; entry++) {
+                values[entry] &= ~DECIDED;
+            }
+        }
+        for (int entry = 0; entry < values.length; entry++) {
+            if (values[entry] == Tablebase.UNKNOWN) {
+                values[entry] = Tablebase.DRAW;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Decides a position from the values of the positions its moves lead to
+     * @param key material key of the slice being solved
+     * @return WIN or LOSS for the side to move with the distance to conversion above the two low bits,
+     * or UNKNOWN while some move leads to an undecided position
+     */
+    private int value(TablebaseIndex index, int entry, int key) {
+        int[] masks = this.masks;
+        index.position(entry >> 1, masks);
+        BitboardCheckerBoard board = this.board;
+        board.setUpPosition(masks[0], masks[1], masks[2], masks[3], entry & 1);
+        int[] moves = this.moves;
+        int count = board.generateMoves(board.getSideToMove(), moves);
+        int win = Integer.MAX_VALUE; // shortest distance of a move to a lost position
+        int loss = -1; // longest distance of a move to a won position
+        boolean undecided = false;
+        for (int i = 0; i < count && win > 0; i++) {
+            board.makeMove(moves[i]);
+            int child = this.childValue(key);
+            board.unmakeMove();
+            if ((child & 3) == Tablebase.LOSS) {
+                win = Math.min(win, child >>> 2);
+            } else if ((child & 3) == Tablebase.WIN) {
+                loss = Math.max(loss, child >>> 2);
+            } else {
+                undecided = true;
+            }
+        }
+        if (win != Integer.MAX_VALUE) {
+            return win + 1 << 2 | Tablebase.WIN;
+        }
+        return undecided ? Tablebase.UNKNOWN : loss + 1 << 2 | Tablebase.LOSS;
+    }
+
+    /**
+     * Looks up the position on the board after a move, for the side now to move
+     * @param key material key of the slice being solved. A position in another slice was reached by a capture
+     * or a crowning and is at distance 0
+     * @return the value with the distance to conversion above the two low bits
+     */
+    private int childValue(int key) {
+        BitboardCheckerBoard board = this.board;
+        int side = board.getSideToMove();
+        if (board.getMen(side) == 0 && board.getKings(side) == 0) {
+            return Tablebase.LOSS; // every piece was captured
+        }
+        int xMen = board.getMen(PlayerSymbol.X.ordinal());
+        int oMen = board.getMen(PlayerSymbol.O.ordinal());
+        int xKings = board.getKings(PlayerSymbol.X.ordinal());
+        int oKings = board.getKings(PlayerSymbol.O.ordinal());
+        int childKey = TablebaseIndex.key(Integer.bitCount(oMen), Integer.bitCount(oKings),
+                Integer.bitCount(xMen), Integer.bitCount(xKings));
+        byte[] values = this.solved[childKey];
+        if (values == null) {
+            throw new IllegalStateException("A move leads to a slice that is not solved yet");
+        }
+        int entry = (int) (this.indexes[childKey].index(xMen, oMen, xKings, oKings) * 2 + side);
+        if (childKey != key) {
+            return values[entry];
+        }
+        if ((values[entry] & DECIDED) != 0) {
+            return Tablebase.UNKNOWN;
+        }
+        return (this.distances[entry] & 0xFF) << 2 | values[entry];
+    }
+
+    private static void write(Path file, byte[] values, byte[] distances) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(Tablebase.MAGIC);
+            out.writeLong(values.length);
+            for (int entry = 0; entry < values.length; entry++) {
+                out.writeByte(Tablebase.encode(values[entry], distances[entry] & 0xFF));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: TablebaseGenerator pieces [--out DIR]");
+            return;
+        }
+        int pieces = Integer.parseInt(args[0]);
+        Path directory = Path.of("tablebase");
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--out")) {
+                directory = Path.of(args[i + 1]);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        new TablebaseGenerator().generate(pieces, directory);
+    }
+}
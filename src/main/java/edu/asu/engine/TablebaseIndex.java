@@ -0,0 +1,181 @@
+package edu.asu.engine;
+
+/**
+ * This class numbers the positions of one endgame slice, a fixed number of men and kings per side on the 8x8 board,
+ * with a perfect index: every legal placement gets a distinct number below the slice size and no number is wasted.
+ * Squares are the 32 dark squares numbered from the top left as in the bitboard. Men never stand on the row they
+ * are crowned on, so O men use squares 0..27 and X men squares 4..31. The pieces are placed in groups, O men, X men,
+ * O kings then X kings, each group ranked as a combination of the squares the earlier groups left free.
+ * Because the squares open to X men depend on how many O men stand on row 0, the slice is split into blocks by that count.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+final class TablebaseIndex {
+    static final int MAX_PIECES = 8;
+
+    private static final int SQUARES = 32;
+    private static final int ROW_0 = 0x0000000F; // where X men are crowned and only O men stand
+    private static final int O_MEN_BELOW_ROW_0 = 0x0FFFFFF0; // squares 4..27
+    private static final int X_MEN_SQUARES = 0xFFFFFFF0; // squares 4..31
+    private static final long[][] BINOMIAL = new long[SQUARES + 1][SQUARES + 1];
+
+    static {
+        for (int n = 0; n <= SQUARES; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private final int oMen;
+    private final int oKings;
+    private final int xMen;
+    private final int xKings;
+    private final long[] offsets; // first index of each block, by the number of O men on row 0
+    private final long size;
+
+    /**
+     * Constructs the index of a slice
+     * @param oMen number of O men
+     * @param oKings number of O kings
+     * @param xMen number of X men
+     * @param xKings number of X kings
+     */
+    TablebaseIndex(int oMen, int oKings, int xMen, int xKings) {
+        this.oMen = oMen;
+        this.oKings = oKings;
+        this.xMen = xMen;
+        this.xKings = xKings;
+        this.offsets = new long[Math.min(4, oMen) + 2];
+        for (int onRow0 = 0; onRow0 < this.offsets.length - 1; onRow0++) {
+            this.offsets[onRow0 + 1] = this.offsets[onRow0] + this.blockSize(onRow0);
+        }
+        this.size = this.offsets[this.offsets.length - 1];
+    }
+
+    /**
+     * Returns the number of positions in the slice for one side to move
+     * @return the slice size
+     */
+    long size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the key of a slice, unique for every material balance up to MAX_PIECES pieces
+     * @return the key
+     */
+    static int key(int oMen, int oKings, int xMen, int xKings) {
+        int base = MAX_PIECES + 1;
+        return ((oMen * base + oKings) * base + xMen) * base + xKings;
+    }
+
+    /**
+     * Returns the number of keys
+     * @return one more than the largest key
+     */
+    static int keys() {
+        int base = MAX_PIECES + 1;
+        return base * base * base * base;
+    }
+
+    /**
+     * Numbers a position of this slice
+     * @return the index, below size()
+     */
+    long index(int xMenMask, int oMenMask, int xKingMask, int oKingMask) {
+        int onRow0 = Integer.bitCount(oMenMask & ROW_0);
+        int below = this.oMen - onRow0;
+        long oMenIndex = rank(oMenMask & ROW_0, ROW_0) * BINOMIAL[24][below] + rank(oMenMask & ~ROW_0, O_MEN_BELOW_ROW_0);
+        int free = ~(oMenMask | xMenMask);
+        long local = oMenIndex;
+        local = local * BINOMIAL[28 - below][this.xMen] + rank(xMenMask, X_MEN_SQUARES & ~oMenMask);
+        local = local * BINOMIAL[SQUARES - this.oMen - this.xMen][this.oKings] + rank(oKingMask, free);
+        local = local * BINOMIAL[SQUARES - this.oMen - this.xMen - this.oKings][this.xKings] + rank(xKingMask, free & ~oKingMask);
+        return this.offsets[onRow0] + local;
+    }
+
+    /**
+     * Finds the position with an index
+     * @param index index below size()
+     * @param masks receives X men, O men, X kings and O kings in that order
+     */
+    void position(long index, int[] masks) {
+        int onRow0 = 0;
+        while (index >= this.offsets[onRow0 + 1]) {
+            onRow0++;
+        }
+        int below = this.oMen - onRow0;
+        long local = index - this.offsets[onRow0];
+        long xKingCount = BINOMIAL[SQUARES - this.oMen - this.xMen - this.oKings][this.xKings];
+        long oKingCount = BINOMIAL[SQUARES - this.oMen - this.xMen][this.oKings];
+        long xMenCount = BINOMIAL[28 - below][this.xMen];
+        long xKingIndex = local % xKingCount;
+        local /= xKingCount;
+        long oKingIndex = local % oKingCount;
+        local /= oKingCount;
+        long xMenIndex = local % xMenCount;
+        local /= xMenCount;
+        long belowCount = BINOMIAL[24][below];
+        int oMenMask = unrank(local / belowCount, onRow0, ROW_0) | unrank(local % belowCount, below, O_MEN_BELOW_ROW_0);
+        int xMenMask = unrank(xMenIndex, this.xMen, X_MEN_SQUARES & ~oMenMask);
+        int free = ~(oMenMask | xMenMask);
+        int oKingMask = unrank(oKingIndex, this.oKings, free);
+        int xKingMask = unrank(xKingIndex, this.xKings, free & ~oKingMask);
+        masks[0] = xMenMask;
+        masks[1] = oMenMask;
+        masks[2] = xKingMask;
+        masks[3] = oKingMask;
+    }
+
+    private long blockSize(int onRow0) {
+        int below = this.oMen - onRow0;
+        if (below > 24) {
+            return 0;
+        }
+        return BINOMIAL[4][onRow0] * BINOMIAL[24][below] * BINOMIAL[28 - below][this.xMen] *
+                BINOMIAL[SQUARES - this.oMen - this.xMen][this.oKings] *
+                BINOMIAL[SQUARES - this.oMen - this.xMen - this.oKings][this.xKings];
+    }
+
+    /**
+     * Ranks a set of squares among the available squares in colexicographic order
+     */
+    private static long rank(int subset, int available) {
+        long rank = 0;
+        int i = 1;
+        for (int squares = subset; squares != 0; squares &= squares - 1) {
+            int square = Integer.numberOfTrailingZeros(squares);
+            rank += BINOMIAL[Integer.bitCount(available & ((1 << square) - 1))][i++];
+        }
+        return rank;
+    }
+
+    /**
+     * Finds the set of squares with a rank, the inverse of rank
+     */
+    private static int unrank(long rank, int count, int available) {
+        int subset = 0;
+        int position = Integer.bitCount(available) - 1;
+        for (int i = count; i > 0; i--) {
+            while (BINOMIAL[position][i] > rank) {
+                position--;
+            }
+            rank -= BINOMIAL[position][i];
+            subset |= 1 << selectBit(available, position);
+            position--;
+        }
+        return subset;
+    }
+
+    /**
+     * Returns the square of the n-th set bit of a mask, counting from 0
+     */
+    private static int selectBit(int mask, int n) {
+        for (int i = 0; i < n; i++) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+}
@@ -0,0 +1,160 @@
+package edu.asu.engine;
+
+import java.util.Arrays;
+
+/**
+ * This class stores search results by position hash in two parallel primitive arrays so they can be reused
+ * when the same position is reached through another move order.
+ * Each entry packs the best move, score, depth, bound and search generation into one long.
+ * The table is shared by search threads without locks: the key slot holds the hash XOR the data,
+ * so an entry torn by two threads writing at once no longer verifies and is treated as a miss.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class TranspositionTable {
+    public static final int BOUND_LOWER = 1; // the score is at least the stored value
+    public static final int BOUND_UPPER = 2; // the score is at most the stored value
+    public static final int BOUND_EXACT = 3;
+
+    private static final int ENTRY_BYTES = 16;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private final ReplacementPolicy policy;
+    private volatile int generation;
+
+    /**
+     * Constructs a table using at most the given amount of memory, rounded down to a power of two entries
+     * @param sizeMb size in megabytes
+     * @param policy replacement policy
+     */
+    public TranspositionTable(int sizeMb, ReplacementPolicy policy) {
+        long entries = Long.highestOneBit(Math.max(1L, (long) sizeMb * 1024 * 1024 / ENTRY_BYTES));
+        entries = Math.min(entries, 1 << 30);
+        this.keys = new long[(int) entries];
+        this.data = new long[(int) entries];
+        this.mask = (int) entries - 1;
+        this.policy = policy;
+    }
+
+    /**
+     * Constructs a table using at most the given amount of memory with the aged depth-preferred policy
+     * @param sizeMb size in megabytes
+     */
+    public TranspositionTable(int sizeMb) {
+        this(sizeMb, ReplacementPolicy.AGED_DEPTH_PREFERRED);
+    }
+
+    /**
+     * Looks up a position
+     * @param key position hash
+     * @return the packed entry or 0 if the position is not stored
+     */
+    public long probe(long key) {
+        int index = (int) key & this.mask;
+        long entry = this.data[index];
+        return (this.keys[index] ^ entry) == key ? entry : 0;
+    }
+
+    /**
+     * Stores a search result, subject to the replacement policy
+     * @param key position hash
+     * @param move best packed move or 0
+     * @param score score from the point of view of the side to move
+     * @param depth remaining depth the score was searched to
+     * @param bound BOUND_LOWER, BOUND_UPPER or BOUND_EXACT
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = (int) key & this.mask;
+        long old = this.data[index];
+        boolean samePosition = (this.keys[index] ^ old) == key;
+        if (old != 0 && !samePosition && !this.mayReplace(old, depth)) {
+            return;
+        }
+        if (move == 0 && samePosition) {
+            move = move(old); // keep the best move found by an earlier search
+        }
+        long entry = (move & 0xFFFFFFFFL) |
+                (long) (score & 0xFFFF) << 32 |
+                (long) Math.max(0, Math.min(depth, 0xFF)) << 48 |
+                (long) bound << 56 |
+                (long) (this.generation & 0x3F) << 58;
+        this.data[index] = entry;
+        this.keys[index] = key ^ entry;
+    }
+
+    private boolean mayReplace(long old, int depth) {
+        switch (this.policy) {
+            case ALWAYS:
+                return true;
+            case DEPTH_PREFERRED:
+                return depth >= depth(old);
+            default:
+                return generation(old) != (this.generation & 0x3F) || depth >= depth(old);
+        }
+    }
+
+    /**
+     * Marks the start of a new search so entries from earlier searches can be recognised as old
+     */
+    public void newSearch() {
+        this.generation++;
+    }
+
+    /**
+     * Empties the table
+     */
+    public void clear() {
+        Arrays.fill(this.keys, 0);
+        Arrays.fill(this.data, 0);
+    }
+
+    /**
+     * Returns the number of entries the table holds
+     * @return the capacity
+     */
+    public int capacity() {
+        return this.data.length;
+    }
+
+    /**
+     * Returns the best move of an entry
+     * @param entry packed entry
+     * @return the packed move or 0
+     */
+    public static int move(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * Returns the score of an entry
+     * @param entry packed entry
+     * @return the score
+     */
+    public static int score(long entry) {
+        return (short) (entry >>> 32);
+    }
+
+    /**
+     * Returns the depth of an entry
+     * @param entry packed entry
+     * @return the remaining depth the score was searched to
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> 48) & 0xFF;
+    }
+
+    /**
+     * Returns the bound of an entry
+     * @param entry packed entry
+     * @return BOUND_LOWER, BOUND_UPPER or BOUND_EXACT
+     */
+    public static int bound(long entry) {
+        return (int) (entry >>> 56) & 3;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> 58) & 0x3F;
+    }
+}
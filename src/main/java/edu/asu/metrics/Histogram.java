@@ -0,0 +1,126 @@
+package edu.asu.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class counts recorded values, for example latencies in nanoseconds, in buckets laid out like an HDR histogram:
+ * every power of two is split into 16 linear sub-buckets, so any value from 0 to Long.MAX_VALUE lands in one of 960
+ * buckets and is known to within about 6%. Recording is one bucket index computation and one LongAdder increment,
+ * never a lock, so threads recording at the same time don't wait on each other.
+ * Percentiles are read from a snapshot of the buckets and are approximate while values are still being recorded.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Constructs an empty histogram
+     */
+    public Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a value
+     * @param value the value, negative values are recorded as 0
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        this.counts[bucketOf(value)].increment();
+        this.total.add(value);
+        this.max.accumulate(value);
+    }
+
+    /**
+     * Returns the number of values recorded
+     * @return the count
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : this.counts) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the mean of the values recorded
+     * @return the mean or 0 if nothing was recorded
+     */
+    public double getMean() {
+        long count = this.getCount();
+        return count == 0 ? 0 : (double) this.total.sum() / count;
+    }
+
+    /**
+     * Returns the largest value recorded
+     * @return the exact maximum or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Returns the value below which a share of the recorded values fall
+     * @param percentile between 0 and 100
+     * @return the largest value of the bucket holding the percentile, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = this.counts[i].sum();
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), this.max.get());
+            }
+        }
+        return this.max.get();
+    }
+
+    /**
+     * Forgets every value recorded. Values recorded while the histogram is being reset may or may not be kept
+     */
+    public void reset() {
+        for (LongAdder bucket : this.counts) {
+            bucket.reset();
+        }
+        this.total.reset();
+        this.max.reset();
+    }
+
+    private static int bucketOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long highestValueOf(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,340 @@
+package edu.asu.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This class collects the runtime counters of the games and the engine in one place for the whole JVM.
+ * Counters are striped LongAdders and latencies go into Histograms, so the games and search threads recording them
+ * never take a lock; the engine adds up its node and table counts in plain fields while it searches and hands them
+ * over once per move. Reading is done by JMX through register, or by a periodic dump to a log file through startLog.
+ * Usage: Metrics.get().register(); Metrics.get().startLog(Path.of("metrics.log"), 60_000);
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public final class Metrics implements MetricsMXBean {
+    public static final String OBJECT_NAME = "edu.asu:type=Metrics";
+
+    private static final Metrics INSTANCE = new Metrics();
+    private static final long SAMPLE_MILLIS = 1000;
+
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder gamesFinished = new LongAdder();
+    private final LongAdder movesPlayed = new LongAdder();
+    private final LongAdder movesRejected = new LongAdder();
+    private final Map<String, LongAdder> rejectedByReason = new ConcurrentHashMap<>();
+    private final Histogram validationNanos = new Histogram();
+    private final LongAdder searchNodes = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final LongAdder searchDepths = new LongAdder();
+    private final LongAdder tableProbes = new LongAdder();
+    private final LongAdder tableHits = new LongAdder();
+    private final Histogram thinkNanos = new Histogram();
+    private volatile int lastSearchDepth;
+
+    private final long startNanos = System.nanoTime();
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> log;
+    private Writer logWriter;
+    private volatile boolean sampling;
+    private long sampleNanos; // sampler thread only
+    private long sampleMoves;
+    private long sampleRejected;
+    private volatile double movesPerSecond;
+    private volatile double rejectedPerSecond;
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the metrics of this JVM
+     * @return the metrics
+     */
+    public static Metrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records that a game started
+     */
+    public void gameStarted() {
+        this.gamesStarted.increment();
+    }
+
+    /**
+     * Records that a game ended, because it was won or abandoned
+     */
+    public void gameFinished() {
+        this.gamesFinished.increment();
+    }
+
+    /**
+     * Records a move that was played
+     * @param validationNanos time taken to validate and play the move, or a negative value if it was not timed
+     */
+    public void movePlayed(long validationNanos) {
+        this.movesPlayed.increment();
+        if (validationNanos >= 0) {
+            this.validationNanos.record(validationNanos);
+        }
+    }
+
+    /**
+     * Records a move that was rejected
+     * @param reason why it was rejected, a short code such as a MoveResult code or "wrong_turn"
+     * @param validationNanos time taken to reject the move, or a negative value if it was not timed
+     */
+    public void moveRejected(String reason, long validationNanos) {
+        this.movesRejected.increment();
+        LongAdder count = this.rejectedByReason.get(reason);
+        if (count == null) {
+            count = this.rejectedByReason.computeIfAbsent(reason, key -> new LongAdder());
+        }
+        count.increment();
+        if (validationNanos >= 0) {
+            this.validationNanos.record(validationNanos);
+        }
+    }
+
+    /**
+     * Records a search the engine made to pick a move
+     * @param nanos time spent thinking
+     * @param nodes positions visited
+     * @param depth deepest iteration finished
+     * @param probes transposition table probes
+     * @param hits probes that found an entry
+     */
+    public void searchFinished(long nanos, long nodes, int depth, long probes, long hits) {
+        this.thinkNanos.record(nanos);
+        this.searchNanos.add(nanos);
+        this.searchNodes.add(nodes);
+        this.searchDepths.add(depth);
+        this.tableProbes.add(probes);
+        this.tableHits.add(hits);
+        this.lastSearchDepth = depth;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server and starts sampling the rates every second.
+     * Calling it again does nothing
+     */
+    public synchronized void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            return;
+        } catch (JMException e) {
+            throw new IllegalStateException("Metrics could not be registered", e);
+        }
+        this.startSampling();
+    }
+
+    /**
+     * Appends a line with every metric to a file periodically, replacing any log started before
+     * @param file log file, created if it does not exist
+     * @param periodMillis time between lines
+     * @throws IOException if the file can't be opened
+     */
+    public synchronized void startLog(Path file, long periodMillis) throws IOException {
+        this.stopLog();
+        Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.startSampling();
+        this.log = this.scheduler.scheduleAtFixedRate(() -> {
+            try {
+                writer.write(Instant.now() + " " + this + System.lineSeparator());
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // cancels the log
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        this.logWriter = writer;
+    }
+
+    /**
+     * Stops the log started by startLog, if there is one
+     */
+    public synchronized void stopLog() {
+        if (this.log != null) {
+            this.log.cancel(false);
+            Writer writer = this.logWriter;
+            this.scheduler.execute(() -> { // after any line being written, on the same thread
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    // nothing left to write to
+                }
+            });
+            this.log = null;
+            this.logWriter = null;
+        }
+    }
+
+    @Override
+    public long getActiveGames() {
+        return this.gamesStarted.sum() - this.gamesFinished.sum();
+    }
+
+    @Override
+    public long getGamesStarted() {
+        return this.gamesStarted.sum();
+    }
+
+    @Override
+    public long getMovesPlayed() {
+        return this.movesPlayed.sum();
+    }
+
+    @Override
+    public double getMovesPerSecond() {
+        return this.sampling ? this.movesPerSecond : this.movesPlayed.sum() / this.secondsSinceStart();
+    }
+
+    @Override
+    public long getMovesRejected() {
+        return this.movesRejected.sum();
+    }
+
+    @Override
+    public double getRejectedMovesPerSecond() {
+        return this.sampling ? this.rejectedPerSecond : this.movesRejected.sum() / this.secondsSinceStart();
+    }
+
+    @Override
+    public Map<String, Long> getRejectedMovesByReason() {
+        Map<String, Long> counts = new TreeMap<>();
+        this.rejectedByReason.forEach((reason, count) -> counts.put(reason, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public double getMoveValidationMicrosP50() {
+        return this.validationNanos.getPercentile(50) / 1e3;
+    }
+
+    @Override
+    public double getMoveValidationMicrosP99() {
+        return this.validationNanos.getPercentile(99) / 1e3;
+    }
+
+    @Override
+    public double getMoveValidationMicrosMax() {
+        return this.validationNanos.getMax() / 1e3;
+    }
+
+    @Override
+    public long getEngineSearches() {
+        return this.thinkNanos.getCount();
+    }
+
+    @Override
+    public double getEngineNodesPerSecond() {
+        long nanos = this.searchNanos.sum();
+        return nanos == 0 ? 0 : this.searchNodes.sum() * 1e9 / nanos;
+    }
+
+    @Override
+    public double getTableHitRate() {
+        long probes = this.tableProbes.sum();
+        return probes == 0 ? 0 : (double) this.tableHits.sum() / probes;
+    }
+
+    @Override
+    public int getLastSearchDepth() {
+        return this.lastSearchDepth;
+    }
+
+    @Override
+    public double getAverageSearchDepth() {
+        long searches = this.getEngineSearches();
+        return searches == 0 ? 0 : (double) this.searchDepths.sum() / searches;
+    }
+
+    @Override
+    public double getEngineThinkMillisP50() {
+        return this.thinkNanos.getPercentile(50) / 1e6;
+    }
+
+    @Override
+    public double getEngineThinkMillisP99() {
+        return this.thinkNanos.getPercentile(99) / 1e6;
+    }
+
+    @Override
+    public double getEngineThinkMillisMax() {
+        return this.thinkNanos.getMax() / 1e6;
+    }
+
+    /**
+     * Returns every metric on one line as name=value pairs, the form written to the log
+     * @return the metrics
+     */
+    @Override
+    public String toString() {
+        return String.format("activeGames=%d moves=%d movesPerSecond=%.1f rejected=%d rejectedPerSecond=%.1f " +
+                        "rejectedByReason=%s validationUsP50=%.1f validationUsP99=%.1f validationUsMax=%.1f " +
+                        "searches=%d nodesPerSecond=%.0f tableHitRate=%.3f lastDepth=%d averageDepth=%.1f " +
+                        "thinkMsP50=%.1f thinkMsP99=%.1f thinkMsMax=%.1f",
+                this.getActiveGames(), this.getMovesPlayed(), this.getMovesPerSecond(), this.getMovesRejected(),
+                this.getRejectedMovesPerSecond(), this.getRejectedMovesByReason(), this.getMoveValidationMicrosP50(),
+                this.getMoveValidationMicrosP99(), this.getMoveValidationMicrosMax(), this.getEngineSearches(),
+                this.getEngineNodesPerSecond(), this.getTableHitRate(), this.getLastSearchDepth(),
+                this.getAverageSearchDepth(), this.getEngineThinkMillisP50(), this.getEngineThinkMillisP99(),
+                this.getEngineThinkMillisMax());
+    }
+
+    private double secondsSinceStart() {
+        return Math.max(1e-9, (System.nanoTime() - this.startNanos) / 1e9);
+    }
+
+    /**
+     * Starts the daemon thread that works out the rates every second, unless it is already running
+     */
+    private void startSampling() {
+        if (this.scheduler != null) {
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sampleNanos = System.nanoTime();
+        this.sampleMoves = this.movesPlayed.sum();
+        this.sampleRejected = this.movesRejected.sum();
+        this.scheduler.scheduleAtFixedRate(this::sample, SAMPLE_MILLIS, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void sample() {
+        long now = System.nanoTime();
+        long moves = this.movesPlayed.sum();
+        long rejected = this.movesRejected.sum();
+        double seconds = (now - this.sampleNanos) / 1e9;
+        this.movesPerSecond = (moves - this.sampleMoves) / seconds;
+        this.rejectedPerSecond = (rejected - this.sampleRejected) / seconds;
+        this.sampleNanos = now;
+        this.sampleMoves = moves;
+        this.sampleRejected = rejected;
+        this.sampling = true;
+    }
+}
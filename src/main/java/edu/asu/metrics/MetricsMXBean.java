@@ -0,0 +1,121 @@
+package edu.asu.metrics;
+
+import java.util.Map;
+
+/**
+ * This interface is the management view of Metrics, registered as edu.asu:type=Metrics with the platform MBean server.
+ * Rates are per second over the last sampling period, or since the start before Metrics.register is called.
+ * Latencies are in microseconds for move validation and in milliseconds for engine thinking.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public interface MetricsMXBean {
+
+    /**
+     * Returns the number of games being played
+     * @return games started and not yet finished
+     */
+    long getActiveGames();
+
+    /**
+     * Returns the number of games started
+     * @return the count
+     */
+    long getGamesStarted();
+
+    /**
+     * Returns the number of moves played
+     * @return the count
+     */
+    long getMovesPlayed();
+
+    /**
+     * Returns the rate moves are played at
+     * @return moves per second
+     */
+    double getMovesPerSecond();
+
+    /**
+     * Returns the number of moves rejected
+     * @return the count
+     */
+    long getMovesRejected();
+
+    /**
+     * Returns the rate moves are rejected at
+     * @return rejected moves per second
+     */
+    double getRejectedMovesPerSecond();
+
+    /**
+     * Returns the number of moves rejected for each reason
+     * @return counts by reason
+     */
+    Map<String, Long> getRejectedMovesByReason();
+
+    /**
+     * Returns the median time taken to validate and play a submitted move
+     * @return microseconds
+     */
+    double getMoveValidationMicrosP50();
+
+    /**
+     * Returns the 99th percentile of the time taken to validate and play a submitted move
+     * @return microseconds
+     */
+    double getMoveValidationMicrosP99();
+
+    /**
+     * Returns the longest time taken to validate and play a submitted move
+     * @return microseconds
+     */
+    double getMoveValidationMicrosMax();
+
+    /**
+     * Returns the number of moves the engine has thought about
+     * @return the count
+     */
+    long getEngineSearches();
+
+    /**
+     * Returns the positions the engine visits per second of thinking
+     * @return nodes per second
+     */
+    double getEngineNodesPerSecond();
+
+    /**
+     * Returns the share of transposition table probes that found an entry
+     * @return between 0 and 1
+     */
+    double getTableHitRate();
+
+    /**
+     * Returns the depth reached by the engine's last search
+     * @return depth in plies
+     */
+    int getLastSearchDepth();
+
+    /**
+     * Returns the mean depth reached by the engine's searches
+     * @return depth in plies
+     */
+    double getAverageSearchDepth();
+
+    /**
+     * Returns the median time the engine thinks about a move
+     * @return milliseconds
+     */
+    double getEngineThinkMillisP50();
+
+    /**
+     * Returns the 99th percentile of the time the engine thinks about a move
+     * @return milliseconds
+     */
+    double getEngineThinkMillisP99();
+
+    /**
+     * Returns the longest time the engine has thought about a move
+     * @return milliseconds
+     */
+    double getEngineThinkMillisMax();
+}
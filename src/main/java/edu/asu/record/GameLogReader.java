@@ -0,0 +1,269 @@
+package edu.asu.record;
+
+import edu.asu.core.board.MoveNotation;
+import edu.asu.util.PlayerSymbol;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * This class streams the games of a log written by GameLogWriter, one at a time through a small read buffer,
+ * so a log of any size is read in constant memory. It is a cursor: next() decodes the following game into the
+ * reader and the getters describe that game until next() is called again, so reading allocates nothing per game.
+ * Reading stops at the end of the log or at a torn or corrupt record, which isTruncated() then reports.
+ * Usage: GameLogReader FILE prints every game in the format SelfPlay writes
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class GameLogReader implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer record = ByteBuffer.allocate(BUFFER_SIZE);
+    private long position; // file offset of the next record
+    private boolean endOfFile;
+    private boolean truncated;
+
+    private int boardSize;
+    private int result;
+    private long startTimeMillis;
+    private int[] moves = new int[256];
+    private int moveCount;
+
+    /**
+     * Opens a log for reading
+     * @param file log file
+     * @throws IOException if the file can't be opened or is not a game log
+     */
+    public GameLogReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.buffer.limit(0);
+        if (!this.fill(4) || this.buffer.getInt() != GameLogWriter.MAGIC) {
+            this.channel.close();
+            throw new IOException("Not a game log: " + file);
+        }
+        this.position = 4;
+    }
+
+    /**
+     * Moves to the next game
+     * @return true if there is one, false at the end of the log or at a torn or corrupt record
+     * @throws IOException if the log can't be read
+     */
+    public boolean next() throws IOException {
+        if (this.truncated || !this.fill(1)) {
+            return false;
+        }
+        long length = this.readLength();
+        if (length < 0 || length > GameLogWriter.MAX_RECORD) {
+            this.truncated = true;
+            return false;
+        }
+        int size = (int) length;
+        if (this.record.capacity() < size) {
+            this.record = ByteBuffer.allocate(Math.max(size, this.record.capacity() * 2));
+        }
+        ByteBuffer record = this.record;
+        record.clear();
+        while (record.position() < size) {
+            if (!this.fill(1)) {
+                this.truncated = true;
+                return false;
+            }
+            int chunk = Math.min(size - record.position(), this.buffer.remaining());
+            record.put(record.position(), this.buffer, this.buffer.position(), chunk);
+            record.position(record.position() + chunk);
+            this.buffer.position(this.buffer.position() + chunk);
+        }
+        if (!this.fill(4)) {
+            this.truncated = true;
+            return false;
+        }
+        this.crc.reset();
+        this.crc.update(record.array(), 0, size);
+        if (this.buffer.getInt() != (int) this.crc.getValue()) {
+            this.truncated = true;
+            return false;
+        }
+        record.flip();
+        this.decode(record);
+        this.position += varintSize(length) + size + 4;
+        return true;
+    }
+
+    /**
+     * Returns whether reading stopped at a torn or corrupt record rather than the end of the log
+     * @return true if the log has a damaged tail
+     */
+    public boolean isTruncated() {
+        return this.truncated;
+    }
+
+    /**
+     * Returns the length of the log up to the end of the last game read, where appending can safely resume
+     * @return the offset in bytes
+     */
+    public long getPosition() {
+        return this.position;
+    }
+
+    /**
+     * Returns the board dimension of the current game
+     * @return the board size
+     */
+    public int getBoardSize() {
+        return this.boardSize;
+    }
+
+    /**
+     * Returns the result of the current game
+     * @return PlayerSymbol ordinal of the winner, GameLogWriter.DRAW or GameLogWriter.UNFINISHED
+     */
+    public int getResult() {
+        return this.result;
+    }
+
+    /**
+     * Returns the time the current game started
+     * @return epoch milliseconds
+     */
+    public long getStartTimeMillis() {
+        return this.startTimeMillis;
+    }
+
+    /**
+     * Returns the number of moves of the current game
+     * @return the number of moves
+     */
+    public int getMoveCount() {
+        return this.moveCount;
+    }
+
+    /**
+     * Returns a move of the current game
+     * @param index move index, 0 for the first move
+     * @return the packed move
+     */
+    public int getMove(int index) {
+        if (index >= this.moveCount) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return this.moves[index];
+    }
+
+    /**
+     * Closes the log
+     * @throws IOException if it can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private void decode(ByteBuffer record) {
+        this.boardSize = record.get() & 0xFF;
+        this.result = record.get() & 0xFF;
+        this.startTimeMillis = getVarint(record);
+        int count = (int) getVarint(record);
+        if (this.moves.length < count) {
+            this.moves = new int[Math.max(count, this.moves.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            this.moves[i] = (int) getVarint(record);
+        }
+        this.moveCount = count;
+    }
+
+    /**
+     * Reads the varint length of a record straight from the read buffer
+     * @return the length or -1 if the log ends inside it
+     */
+    private long readLength() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!this.fill(1)) {
+                return -1;
+            }
+            byte next = this.buffer.get();
+            value |= (long) (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Makes sure some bytes are buffered, reading more of the file if needed
+     * @return false if the log ends first
+     */
+    private boolean fill(int bytes) throws IOException {
+        if (this.buffer.remaining() >= bytes) {
+            return true;
+        }
+        if (this.endOfFile) {
+            return false;
+        }
+        this.buffer.compact();
+        while (this.buffer.position() < bytes) {
+            if (this.channel.read(this.buffer) < 0) {
+                this.endOfFile = true;
+                break;
+            }
+        }
+        this.buffer.flip();
+        return this.buffer.remaining() >= bytes;
+    }
+
+    static long getVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte next = buffer.get();
+            value |= (long) (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: GameLogReader FILE");
+            return;
+        }
+        long games = 0;
+        StringBuilder line = new StringBuilder();
+        try (GameLogReader reader = new GameLogReader(Path.of(args[0]))) {
+            while (reader.next()) {
+                games++;
+                int result = reader.getResult();
+                line.setLength(0);
+                line.append(games).append(' ')
+                        .append(result < 2 ? PlayerSymbol.values()[result].getValue() :
+                                result == GameLogWriter.DRAW ? "draw" : "unfinished")
+                        .append(' ').append(reader.getMoveCount());
+                for (int i = 0; i < reader.getMoveCount(); i++) {
+                    MoveNotation.format(reader.getMove(i), reader.getBoardSize(), line.append(' '));
+                }
+                System.out.println(line);
+            }
+            if (reader.isTruncated()) {
+                System.err.println("Log ends with a damaged record at offset " + reader.getPosition());
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package edu.asu.record;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * This class appends finished games to a binary game log. Games are only ever added at the end of the file, so a
+ * crash can at worst leave a torn last record, which GameLogReader detects and stops at, and which is cut off
+ * when the log is next opened for appending. Each record is
+ * <pre>
+ * varint length of the body
+ * body:  board size (1 byte), result (1 byte), varint start time in epoch milliseconds,
+ *        varint number of moves, then every packed move as a varint
+ * CRC32C of the body (4 bytes)
+ * </pre>
+ * A packed move of one step or one jump fits in 2 bytes and every further jump adds at most one more.
+ * Records are collected in a buffer and written when it fills up. The sync interval decides how much can be lost:
+ * 0 forces every game to disk as it is appended, a positive interval writes and forces the buffer that often
+ * from a background thread, and a negative interval leaves it to the operating system until close.
+ * Appending is safe from any number of threads.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public final class GameLogWriter implements AutoCloseable {
+    public static final int DRAW = 2; // results 0 and 1 are the PlayerSymbol ordinal of the winner
+    public static final int UNFINISHED = 3;
+
+    static final int MAGIC = 0x43474C31; // "CGL1", the first 4 bytes of a log file
+    static final int MAX_RECORD = 1 << 20;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer body = ByteBuffer.allocate(MAX_RECORD);
+    private final CRC32C crc = new CRC32C();
+    private final long syncIntervalMillis;
+    private final ScheduledExecutorService syncer;
+    private long games;
+    private boolean dirty;
+
+    /**
+     * Opens a log for appending, creating it if it does not exist. An existing log is read through once
+     * to find the end of its last complete game
+     * @param file log file
+     * @param syncIntervalMillis 0 to force every game to disk, a positive interval between forced writes,
+     * or a negative number to leave writing to the operating system
+     * @throws IOException if the file can't be opened or is not a game log
+     */
+    public GameLogWriter(Path file, long syncIntervalMillis) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        if (this.channel.size() == 0) {
+            this.channel.write(ByteBuffer.allocate(4).putInt(0, MAGIC));
+        } else {
+            try (GameLogReader reader = new GameLogReader(file)) {
+                while (reader.next()) {
+                    // skip to the end of the last complete game
+                }
+                if (reader.isTruncated()) {
+                    this.channel.truncate(reader.getPosition());
+                }
+            } catch (IOException e) {
+                this.channel.close();
+                throw e;
+            }
+        }
+        this.channel.position(this.channel.size());
+        this.syncIntervalMillis = syncIntervalMillis;
+        if (syncIntervalMillis > 0) {
+            this.syncer = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "game-log-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.syncer.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.syncer = null;
+        }
+    }
+
+    /**
+     * Appends a game
+     * @param boardSize board dimension
+     * @param result PlayerSymbol ordinal of the winner, DRAW or UNFINISHED
+     * @param startTimeMillis time the game started, in epoch milliseconds
+     * @param moves packed moves, oldest first
+     * @param count number of moves
+     * @throws IOException if the log can't be written
+     */
+    public synchronized void append(int boardSize, int result, long startTimeMillis, int[] moves, int count) throws IOException {
+        ByteBuffer body = this.body;
+        body.clear();
+        body.put((byte) boardSize).put((byte) result);
+        putVarint(body, startTimeMillis);
+        putVarint(body, count);
+        for (int i = 0; i < count; i++) {
+            putVarint(body, moves[i] & 0xFFFFFFFFL);
+        }
+        body.flip();
+        this.crc.reset();
+        this.crc.update(body.array(), 0, body.limit());
+
+        if (this.buffer.remaining() < body.limit() + 9) {
+            this.write(false);
+        }
+        if (this.buffer.remaining() < body.limit() + 9) {
+            throw new IOException("Game too long for the log: " + count + " moves");
+        }
+        putVarint(this.buffer, body.limit());
+        this.buffer.put(body);
+        this.buffer.putInt((int) this.crc.getValue());
+        this.games++;
+        this.dirty = true;
+        if (this.syncIntervalMillis == 0) {
+            this.sync();
+        }
+    }
+
+    /**
+     * Returns the number of games appended since the log was opened
+     * @return the number of games
+     */
+    public synchronized long getGames() {
+        return this.games;
+    }
+
+    /**
+     * Writes the buffered games and forces them to disk
+     * @throws IOException if the log can't be written
+     */
+    public synchronized void sync() throws IOException {
+        if (!this.dirty) {
+            return;
+        }
+        this.write(true);
+        this.dirty = false;
+    }
+
+    /**
+     * Writes the buffered games, forces them to disk and closes the log
+     * @throws IOException if the log can't be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.syncer != null) {
+            this.syncer.shutdown();
+        }
+        if (this.channel.isOpen()) {
+            try {
+                this.write(this.syncIntervalMillis >= 0);
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            this.sync();
+        } catch (IOException e) {
+            // kept buffered, the next sync or close reports the failure
+        }
+    }
+
+    /**
+     * Writes the buffer to the file and optionally forces it to disk. Game threads are often interrupted when their
+     * game ends, and an interrupt during a write would close the channel for every game, so it is held back until then
+     */
+    private void write(boolean force) throws IOException {
+        boolean interrupted = Thread.interrupted();
+        this.buffer.flip();
+        try {
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+            if (force) {
+                this.channel.force(false);
+            }
+        } finally {
+            this.buffer.compact(); // whatever could not be written stays buffered
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Writes an unsigned number 7 bits per byte, lowest first, with the top bit set on every byte but the last
+     */
+    static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+}
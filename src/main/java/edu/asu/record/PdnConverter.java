@@ -0,0 +1,129 @@
+package edu.asu.record;
+
+import edu.asu.util.PlayerSymbol;
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * This class converts between game logs and PDN collections and looks games up by number in large collections.
+ * Usage:
+ * <pre>
+ * PdnConverter export LOG PDN      writes every game of a game log as PDN
+ * PdnConverter import PDN LOG      appends every game of a PDN collection to a game log, reporting illegal moves
+ *                                  and skipping games set up from a FEN position
+ * PdnConverter index PDN           builds the offset index of a PDN collection
+ * PdnConverter show PDN N          prints game N of a PDN collection, counting from 1, building the index if needed
+ * </pre>
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class PdnConverter {
+    private static final int BOARD_SIZE = 8;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd").withZone(ZoneOffset.UTC);
+
+    /**
+     * Writes every game of a game log as PDN
+     * @param log game log
+     * @param pdn PDN file
+     * @return the number of games written
+     * @throws IOException if a file can't be read or written
+     */
+    public static long export(Path log, Path pdn) throws IOException {
+        long games = 0;
+        try (GameLogReader reader = new GameLogReader(log);
+             PdnWriter writer = new PdnWriter(Files.newBufferedWriter(pdn, StandardCharsets.UTF_8))) {
+            while (reader.next()) {
+                PdnGame game = new PdnGame(reader.getBoardSize());
+                game.setTag("Event", "Game " + (++games));
+                game.setTag("Date", DATE.format(Instant.ofEpochMilli(reader.getStartTimeMillis())));
+                game.setTag("Black", "Player 1");
+                game.setTag("White", "Player 2");
+                int result = reader.getResult();
+                game.setResult(result == PlayerSymbol.O.ordinal() ? PdnGame.BLACK_WINS :
+                        result == PlayerSymbol.X.ordinal() ? PdnGame.WHITE_WINS :
+                                result == GameLogWriter.DRAW ? PdnGame.DRAW : PdnGame.UNKNOWN);
+                game.setTag("Result", game.getResult());
+                for (int i = 0; i < reader.getMoveCount(); i++) {
+                    game.addMove(reader.getMove(i));
+                }
+                writer.write(game);
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Appends every game of a PDN collection to a game log. A game with an illegal move is logged up to that move
+     * as unfinished and reported. A game set up from a FEN position is skipped and reported, since a log record
+     * has no start position and its moves would be replayed from the usual opening
+     * @param pdn PDN file
+     * @param log game log
+     * @return the number of games read, including the skipped ones
+     * @throws IOException if a file can't be read or written
+     */
+    public static long importGames(Path pdn, Path log) throws IOException {
+        long games = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(pdn), 1 << 16);
+             PdnReader reader = new PdnReader(in, BOARD_SIZE);
+             GameLogWriter writer = new GameLogWriter(log, -1)) {
+            int[] moves = new int[256];
+            for (PdnGame game = reader.next(); game != null; game = reader.next()) {
+                games++;
+                if (game.getTag("FEN") != null) {
+                    System.err.println("Game " + games + " at offset " + game.getOffset() + ": skipped, it starts from a FEN position");
+                    continue;
+                }
+                if (game.getError() != null) {
+                    System.err.println("Game " + games + " at offset " + game.getOffset() + ": " + game.getError());
+                }
+                if (moves.length < game.getMoveCount()) {
+                    moves = new int[game.getMoveCount()];
+                }
+                for (int i = 0; i < game.getMoveCount(); i++) {
+                    moves[i] = game.getMove(i);
+                }
+                String result = game.getResult();
+                int code = game.getError() != null ? GameLogWriter.UNFINISHED :
+                        result.equals(PdnGame.BLACK_WINS) ? PlayerSymbol.O.ordinal() :
+                                result.equals(PdnGame.WHITE_WINS) ? PlayerSymbol.X.ordinal() :
+                                        result.equals(PdnGame.DRAW) ? GameLogWriter.DRAW : GameLogWriter.UNFINISHED;
+                writer.append(game.getBoardSize(), code, 0, moves, game.getMoveCount());
+            }
+        }
+        return games;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: PdnConverter export LOG PDN | import PDN LOG | index PDN | show PDN N");
+            return;
+        }
+        Path source = Path.of(args[1]);
+        switch (args[0]) {
+            case "export" -> System.out.println("Games: " + export(source, Path.of(args[2])));
+            case "import" -> System.out.println("Games: " + importGames(source, Path.of(args[2])));
+            case "index" -> System.out.println("Games: " + PdnIndex.build(source, BOARD_SIZE).size());
+            case "show" -> {
+                PdnIndex index = Files.exists(PdnIndex.indexFile(source)) ?
+                        PdnIndex.load(source, BOARD_SIZE) : PdnIndex.build(source, BOARD_SIZE);
+                BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+                PdnGame game = index.readGame(Integer.parseInt(args[2]) - 1);
+                new PdnWriter(out).write(game);
+                out.flush();
+                if (game.getError() != null) {
+                    System.err.println(game.getError());
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown command: " + args[0]);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package edu.asu.record;
+
+import edu.asu.core.Move;
+import edu.asu.core.board.PackedMove;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents one game read from or written to a PDN (Portable Draughts Notation) file: its tag pairs,
+ * its moves checked against a board, and its result.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class PdnGame {
+    public static final String BLACK_WINS = "1-0"; // Black is O, the side moving first
+    public static final String WHITE_WINS = "0-1";
+    public static final String DRAW = "1/2-1/2";
+    public static final String UNKNOWN = "*";
+
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    private final int boardSize;
+    private int[] moves = new int[128];
+    private int moveCount;
+    private String result = UNKNOWN;
+    private String error;
+    private long offset = -1;
+
+    /**
+     * Constructs an empty game
+     * @param boardSize board dimension
+     */
+    public PdnGame(int boardSize) {
+        this.boardSize = boardSize;
+    }
+
+    /**
+     * Returns the board dimension
+     * @return the board size
+     */
+    public int getBoardSize() {
+        return this.boardSize;
+    }
+
+    /**
+     * Returns the value of a tag pair
+     * @param name tag name, for example Event
+     * @return the value or null if the game has no such tag
+     */
+    public String getTag(String name) {
+        return this.tags.get(name);
+    }
+
+    /**
+     * Sets the value of a tag pair
+     * @param name tag name
+     * @param value tag value
+     */
+    public void setTag(String name, String value) {
+        this.tags.put(name, value);
+    }
+
+    /**
+     * Returns every tag pair in the order they were read or set
+     * @return a read-only view of the tags
+     */
+    public Map<String, String> getTags() {
+        return Collections.unmodifiableMap(this.tags);
+    }
+
+    /**
+     * Appends a move
+     * @param move packed move
+     */
+    public void addMove(int move) {
+        if (this.moveCount == this.moves.length) {
+            this.moves = Arrays.copyOf(this.moves, this.moveCount * 2);
+        }
+        this.moves[this.moveCount++] = move;
+    }
+
+    /**
+     * Returns the number of moves
+     * @return the number of moves
+     */
+    public int getMoveCount() {
+        return this.moveCount;
+    }
+
+    /**
+     * Returns a move
+     * @param index move index, 0 for the first move
+     * @return the packed move
+     */
+    public int getMove(int index) {
+        if (index >= this.moveCount) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return this.moves[index];
+    }
+
+    /**
+     * Returns the moves in the form players enter them
+     * @return the moves
+     */
+    public List<Move> getMoves() {
+        List<Move> moves = new ArrayList<>(this.moveCount);
+        for (int i = 0; i < this.moveCount; i++) {
+            moves.add(PackedMove.toMove(this.moves[i], this.boardSize));
+        }
+        return moves;
+    }
+
+    /**
+     * Returns the result
+     * @return BLACK_WINS, WHITE_WINS, DRAW or UNKNOWN
+     */
+    public String getResult() {
+        return this.result;
+    }
+
+    /**
+     * Sets the result
+     * @param result BLACK_WINS, WHITE_WINS, DRAW or UNKNOWN
+     */
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    /**
+     * Returns why the game could not be read to the end
+     * @return the reason or null if every move was legal
+     */
+    public String getError() {
+        return this.error;
+    }
+
+    void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * Returns the byte offset the game starts at in the file it was read from
+     * @return the offset or -1 for a game that was not read from a file
+     */
+    public long getOffset() {
+        return this.offset;
+    }
+
+    void setOffset(long offset) {
+        this.offset = offset;
+    }
+}
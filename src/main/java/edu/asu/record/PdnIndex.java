@@ -0,0 +1,121 @@
+package edu.asu.record;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class maps game numbers to the byte offsets the games start at in a PDN file, so one game of a large
+ * collection can be read without parsing the games before it. The index is built in one pass that skips the games
+ * without checking their moves and is kept next to the collection with the .idx extension added: a header of
+ * magic and game count followed by one 8 byte offset per game. It is memory mapped when loaded.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class PdnIndex {
+    static final int MAGIC = 0x50494458; // "PIDX"
+    static final int HEADER_SIZE = 12; // magic and number of games
+
+    private final Path pdn;
+    private final int boardSize;
+    private final LongBuffer offsets;
+
+    private PdnIndex(Path pdn, int boardSize, LongBuffer offsets) {
+        this.pdn = pdn;
+        this.boardSize = boardSize;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Returns the index file kept next to a PDN file
+     * @param pdn PDN file
+     * @return the index file
+     */
+    public static Path indexFile(Path pdn) {
+        return pdn.resolveSibling(pdn.getFileName() + ".idx");
+    }
+
+    /**
+     * Builds the index of a PDN file and writes it next to the file
+     * @param pdn PDN file
+     * @param boardSize board dimension of the games
+     * @return the index
+     * @throws IOException if the file can't be read or the index can't be written
+     */
+    public static PdnIndex build(Path pdn, int boardSize) throws IOException {
+        Path file = indexFile(pdn);
+        Path partial = file.resolveSibling(file.getFileName() + ".tmp");
+        long games = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(pdn), 1 << 16);
+             PdnReader reader = new PdnReader(in, boardSize);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(partial), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeLong(0); // the count is filled in once it is known
+            for (long offset = reader.skip(); offset >= 0; offset = reader.skip()) {
+                out.writeLong(offset);
+                games++;
+            }
+        }
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, games), 4);
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+        return load(pdn, boardSize);
+    }
+
+    /**
+     * Loads the index of a PDN file built earlier
+     * @param pdn PDN file
+     * @param boardSize board dimension of the games
+     * @return the index
+     * @throws IOException if the index can't be read or does not fit the file
+     */
+    public static PdnIndex load(Path pdn, int boardSize) throws IOException {
+        Path file = indexFile(pdn);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() < HEADER_SIZE || buffer.getInt(0) != MAGIC ||
+                    channel.size() != HEADER_SIZE + 8 * buffer.getLong(4)) {
+                throw new IOException("Not a PDN index: " + file);
+            }
+            return new PdnIndex(pdn, boardSize, buffer.position(HEADER_SIZE).slice().asLongBuffer());
+        }
+    }
+
+    /**
+     * Returns the number of games in the file
+     * @return the number of games
+     */
+    public int size() {
+        return this.offsets.limit();
+    }
+
+    /**
+     * Returns the offset a game starts at
+     * @param game game number, 0 for the first game
+     * @return the byte offset
+     */
+    public long getOffset(int game) {
+        return this.offsets.get(game);
+    }
+
+    /**
+     * Reads one game
+     * @param game game number, 0 for the first game
+     * @return the game
+     * @throws IOException if the file can't be read
+     */
+    public PdnGame readGame(int game) throws IOException {
+        return PdnReader.readGame(this.pdn, this.boardSize, this.getOffset(game));
+    }
+}
@@ -0,0 +1,406 @@
+package edu.asu.record;
+
+import edu.asu.core.Position;
+import edu.asu.core.board.BoardGeometry;
+import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.board.Fen;
+import edu.asu.core.board.PackedMove;
+import edu.asu.core.piece.Man;
+import edu.asu.core.player.Human;
+import edu.asu.core.player.Player;
+import edu.asu.util.BoardFactory;
+import edu.asu.util.BoardType;
+import edu.asu.util.PlayerSymbol;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * This class reads games from a PDN (Portable Draughts Notation) stream one at a time, so collections of any size
+ * are read in constant memory. The stream is scanned byte by byte with a hand-written tokenizer: tag pairs are kept,
+ * comments, variations, NAGs and move numbers are skipped, and every move is matched against the legal moves of a
+ * board playing the game, starting from the FEN tag when there is one. A move is written as squares numbered from 1
+ * as in PDN, joined by - for a move and x for a capture, with the landing squares of a multiple capture optional.
+ * Square n is dark square n - 1 of the board, Black is O and White is X.
+ * A game with an illegal move keeps the moves before it and reports the move in getError().
+ * Every game remembers the byte offset it starts at, which PdnIndex stores so a game can be read on its own.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class PdnReader implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_TOKEN = 256;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int bufferPosition;
+    private int bufferLimit;
+    private long position; // stream offset of buffer[bufferPosition]
+
+    private final byte[] token = new byte[MAX_TOKEN];
+    private int tokenLength;
+    private final StringBuilder text = new StringBuilder();
+
+    private final int boardSize;
+    private final CheckerBoard board;
+    private final Player[] players;
+    private final int[] moves = new int[CheckerBoard.MAX_MOVES];
+    private final int[] squares = new int[PackedMove.MAX_STEPS + 1];
+
+    /**
+     * Constructs a reader of a stream starting at the beginning of a PDN file
+     * @param in the stream, read through an internal buffer
+     * @param boardSize board dimension of the games
+     */
+    public PdnReader(InputStream in, int boardSize) {
+        this(in, boardSize, 0);
+    }
+
+    /**
+     * Constructs a reader of a stream starting part way into a PDN file
+     * @param in the stream, read through an internal buffer
+     * @param boardSize board dimension of the games
+     * @param offset offset in the file of the first byte of the stream
+     */
+    public PdnReader(InputStream in, int boardSize, long offset) {
+        this.in = in;
+        this.boardSize = boardSize;
+        this.position = offset;
+        this.board = new BoardFactory().createBoard(boardSize, BoardType.BITBOARD);
+        this.players = new Player[]{new Human("Black", Man.of(PlayerSymbol.O)), new Human("White", Man.of(PlayerSymbol.X))};
+    }
+
+    /**
+     * Reads the next game
+     * @return the game or null at the end of the stream
+     * @throws IOException if the stream can't be read
+     */
+    public PdnGame next() throws IOException {
+        PdnGame game = new PdnGame(this.boardSize);
+        return this.readGame(game) ? game : null;
+    }
+
+    /**
+     * Skips the next game without checking its moves, which is much faster than reading it
+     * @return the offset the game starts at or -1 at the end of the stream
+     * @throws IOException if the stream can't be read
+     */
+    public long skip() throws IOException {
+        this.skipWhitespace();
+        long start = this.position;
+        return this.readGame(null) ? start : -1;
+    }
+
+    /**
+     * Reads one game from a PDN file at an offset found in its index
+     * @param file PDN file
+     * @param boardSize board dimension of the games
+     * @param offset offset of the game
+     * @return the game or null if there is none at the offset
+     * @throws IOException if the file can't be read
+     */
+    public static PdnGame readGame(Path file, int boardSize, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(offset);
+            return new PdnReader(Channels.newInputStream(channel), boardSize, offset).next();
+        }
+    }
+
+    /**
+     * Closes the stream
+     * @throws IOException if it can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+
+    /**
+     * Reads tokens up to the end of a game: its result, the tags of the next game or the end of the stream
+     * @param game receives the tags and moves, or null to only skip the game
+     * @return false if the stream held no more game
+     */
+    private boolean readGame(PdnGame game) throws IOException {
+        boolean started = false;
+        boolean movetext = false;
+        while (true) {
+            this.skipWhitespace();
+            int next = this.peek();
+            if (next < 0 || next == '[' && movetext) {
+                return started;
+            }
+            if (!started) {
+                started = true;
+                if (game != null) {
+                    game.setOffset(this.position);
+                    this.board.initializeBoard(this.players[0], this.players[1]);
+                }
+            }
+            this.read();
+            switch (next) {
+                case '[' -> this.readTag(game);
+                case '{' -> this.skipPast('}');
+                case ';' -> this.skipPast('\n');
+                case '(' -> this.skipVariation();
+                case '$' -> this.readToken(next); // numeric annotation glyph
+                case ')', ']', '}', '"' -> {
+                    // stray closing character
+                }
+                default -> {
+                    this.readToken(next);
+                    String result = this.result();
+                    if (result != null) {
+                        if (game != null) {
+                            game.setResult(result);
+                        }
+                        return true;
+                    }
+                    movetext = true;
+                    if (game != null && game.getError() == null) {
+                        this.playToken(game);
+                    }
+                }
+            }
+        }
+    }
+
+    private void readTag(PdnGame game) throws IOException {
+        this.skipWhitespace();
+        StringBuilder text = this.text;
+        text.setLength(0);
+        for (int next = this.peek(); next > ' ' && next != '"' && next != ']'; next = this.peek()) {
+            text.append((char) this.read());
+        }
+        String name = text.toString();
+        text.setLength(0);
+        this.skipWhitespace();
+        if (this.peek() == '"') {
+            this.read();
+            for (int next = this.read(); next >= 0 && next != '"'; next = this.read()) {
+                if (next == '\\') {
+                    next = this.read();
+                }
+                text.append((char) next);
+            }
+        }
+        this.skipPast(']');
+        if (game != null) {
+            game.setTag(name, text.toString());
+            if (name.equals("FEN")) {
+                try {
+                    Fen.load(this.board, text.toString());
+                } catch (IllegalArgumentException e) {
+                    game.setError(e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a token starting with a character that has been consumed already
+     */
+    private void readToken(int first) throws IOException {
+        this.token[0] = (byte) first;
+        this.tokenLength = 1;
+        for (int next = this.peek(); next > ' ' && "[]{}();\"".indexOf(next) < 0; next = this.peek()) {
+            this.read();
+            if (this.tokenLength < MAX_TOKEN) {
+                this.token[this.tokenLength++] = (byte) next;
+            }
+        }
+    }
+
+    /**
+     * Returns the result the token stands for
+     * @return the result or null if the token is not a result
+     */
+    private String result() {
+        if (this.tokenIs("*")) {
+            return PdnGame.UNKNOWN;
+        }
+        if (this.tokenIs(PdnGame.BLACK_WINS) || this.tokenIs("2-0")) {
+            return PdnGame.BLACK_WINS;
+        }
+        if (this.tokenIs(PdnGame.WHITE_WINS) || this.tokenIs("0-2")) {
+            return PdnGame.WHITE_WINS;
+        }
+        if (this.tokenIs(PdnGame.DRAW) || this.tokenIs("1-1") || this.tokenIs("0-0")) {
+            return PdnGame.DRAW;
+        }
+        return null;
+    }
+
+    private boolean tokenIs(String value) {
+        if (this.tokenLength != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < this.tokenLength; i++) {
+            if (this.token[i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Plays the move in the token, after any move number in front of it
+     */
+    private void playToken(PdnGame game) {
+        byte[] token = this.token;
+        int start = 0;
+        for (int i = 0; i < this.tokenLength; i++) {
+            if (token[i] == '.') {
+                start = i + 1;
+            } else if (token[i] < '0' || token[i] > '9') {
+                break;
+            }
+        }
+        int end = this.tokenLength;
+        while (end > start && (token[end - 1] == '!' || token[end - 1] == '?')) {
+            end--;
+        }
+        if (start == end) {
+            return; // a move number on its own
+        }
+        int count = 0;
+        int square = 0;
+        boolean capture = false;
+        boolean digits = false;
+        for (int i = start; i <= end; i++) {
+            int c = i < end ? token[i] : '-';
+            if (c >= '0' && c <= '9') {
+                square = square * 10 + c - '0';
+                digits = true;
+            } else if ((c == '-' || c == 'x' || c == ':') && digits && count < this.squares.length) {
+                this.squares[count++] = square - 1;
+                capture |= c != '-';
+                square = 0;
+                digits = false;
+            } else {
+                game.setError("Unreadable move " + new String(token, start, end - start, StandardCharsets.US_ASCII));
+                return;
+            }
+        }
+        int move = count < 2 ? 0 : this.findMove(count, capture);
+        if (move == 0) {
+            game.setError("Illegal move " + new String(token, start, end - start, StandardCharsets.US_ASCII) +
+                    " at move " + (game.getMoveCount() + 1));
+            return;
+        }
+        this.board.applyMove(move);
+        game.addMove(move);
+    }
+
+    /**
+     * Finds the legal move going through the squares read. A capture has to land on every square given
+     * @return the packed move or 0 if no legal move fits
+     */
+    private int findMove(int count, boolean capture) {
+        CheckerBoard board = this.board;
+        int moveCount = board.generateMoves(board.getSideToMove(), this.moves);
+        for (int i = 0; i < moveCount; i++) {
+            int move = this.moves[i];
+            if (PackedMove.from(move) != this.squares[0] ||
+                    PackedMove.destination(move, this.boardSize) != this.squares[count - 1] ||
+                    capture && !PackedMove.isCapture(move)) {
+                continue;
+            }
+            if (count == 2 || this.landsOn(move, count)) {
+                return move;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Checks that a move lands on the intermediate squares read, in order
+     */
+    private boolean landsOn(int move, int count) {
+        if (PackedMove.isCapture(move) && this.boardSize >= BoardGeometry.INTERNATIONAL_SIZE) {
+            List<Position> positions = PackedMove.toMove(move, this.board).getMoves(); // the route depends on the position
+            if (positions.size() != 2 * count - 1) {
+                return false;
+            }
+            for (int step = 1; step < count - 1; step++) {
+                Position landing = positions.get(2 * step);
+                if (PackedMove.squareOf(landing.getRow(), landing.getColumn(), this.boardSize) != this.squares[step]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        int steps = PackedMove.steps(move);
+        if (steps != count - 1) {
+            return false;
+        }
+        int row = PackedMove.rowOf(PackedMove.from(move), this.boardSize);
+        int column = PackedMove.columnOf(PackedMove.from(move), this.boardSize);
+        int stride = PackedMove.isCapture(move) ? 2 : 1;
+        for (int step = 0; step < steps; step++) {
+            row += stride * PackedMove.rowStep(PackedMove.direction(move, step));
+            column += stride * PackedMove.columnStep(PackedMove.direction(move, step));
+            if (PackedMove.squareOf(row, column, this.boardSize) != this.squares[step + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        while (depth > 0) {
+            int next = this.read();
+            if (next < 0) {
+                return;
+            } else if (next == '(') {
+                depth++;
+            } else if (next == ')') {
+                depth--;
+            } else if (next == '{') {
+                this.skipPast('}');
+            }
+        }
+    }
+
+    private void skipPast(int end) throws IOException {
+        for (int next = this.read(); next >= 0 && next != end; next = this.read()) {
+            // skip
+        }
+    }
+
+    private void skipWhitespace() throws IOException {
+        for (int next = this.peek(); next >= 0 && next <= ' '; next = this.peek()) {
+            this.read();
+        }
+    }
+
+    private int peek() throws IOException {
+        if (this.bufferPosition == this.bufferLimit && !this.fill()) {
+            return -1;
+        }
+        return this.buffer[this.bufferPosition] & 0xFF;
+    }
+
+    private int read() throws IOException {
+        if (this.bufferPosition == this.bufferLimit && !this.fill()) {
+            return -1;
+        }
+        this.position++;
+        return this.buffer[this.bufferPosition++] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        int read = this.in.read(this.buffer, 0, this.buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        this.bufferPosition = 0;
+        this.bufferLimit = read;
+        return true;
+    }
+}
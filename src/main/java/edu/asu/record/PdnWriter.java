@@ -0,0 +1,91 @@
+package edu.asu.record;
+
+import edu.asu.core.board.BoardGeometry;
+import edu.asu.core.board.PackedMove;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * This class writes games as PDN (Portable Draughts Notation): the tag pairs, then the moves numbered in pairs
+ * with squares numbered from 1, wrapped at 80 columns, then the result. Captures are written with every landing
+ * square so they are never ambiguous. The writer adds no buffering of its own.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class PdnWriter implements AutoCloseable {
+    private static final int LINE_LENGTH = 80;
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(LINE_LENGTH * 2);
+
+    /**
+     * Constructs a writer
+     * @param out destination, which should be buffered
+     */
+    public PdnWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes one game followed by a blank line
+     * @param game the game
+     * @throws IOException if it can't be written
+     */
+    public void write(PdnGame game) throws IOException {
+        for (Map.Entry<String, String> tag : game.getTags().entrySet()) {
+            this.out.write('[');
+            this.out.write(tag.getKey());
+            this.out.write(" \"");
+            this.out.write(tag.getValue().replace("\\", "\\\\").replace("\"", "\\\""));
+            this.out.write("\"]\n");
+        }
+        this.out.write('\n');
+        StringBuilder line = this.line;
+        line.setLength(0);
+        for (int i = 0; i < game.getMoveCount(); i++) {
+            int length = line.length();
+            if (i % 2 == 0) {
+                line.append(i / 2 + 1).append(". ");
+            }
+            appendMove(line, game.getMove(i), game.getBoardSize());
+            if (line.length() > LINE_LENGTH && length > 0) {
+                this.out.append(line, 0, length - 1).append('\n');
+                line.delete(0, length);
+            }
+            line.append(' ');
+        }
+        line.append(game.getResult());
+        this.out.append(line).append("\n\n");
+    }
+
+    /**
+     * Closes the destination
+     * @throws IOException if it can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+
+    /**
+     * Appends a move in PDN: origin and destination joined by - for a move, origin and every landing square
+     * joined by x for a capture. A capture by the international rules gives its origin and final landing square only
+     */
+    static void appendMove(StringBuilder text, int move, int boardSize) {
+        int row = PackedMove.rowOf(PackedMove.from(move), boardSize);
+        int column = PackedMove.columnOf(PackedMove.from(move), boardSize);
+        text.append(PackedMove.from(move) + 1);
+        boolean capture = PackedMove.isCapture(move);
+        if (capture && boardSize >= BoardGeometry.INTERNATIONAL_SIZE) {
+            text.append('x').append(PackedMove.destination(move, boardSize) + 1);
+            return;
+        }
+        int stride = capture ? 2 : PackedMove.distance(move);
+        for (int step = 0; step < PackedMove.steps(move); step++) {
+            row += stride * PackedMove.rowStep(PackedMove.direction(move, step));
+            column += stride * PackedMove.columnStep(PackedMove.direction(move, step));
+            text.append(capture ? 'x' : '-').append(PackedMove.squareOf(row, column, boardSize) + 1);
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package edu.asu.server;
+
+import edu.asu.core.board.MoveResult;
+import edu.asu.metrics.Metrics;
+import edu.asu.record.GameLogWriter;
+import edu.asu.session.GameListener;
+import edu.asu.session.GameSession;
+import edu.asu.session.GameSessionManager;
+import edu.asu.util.BoardType;
+import edu.asu.util.PlayerSymbol;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class is a network front end for headless games. One thread multiplexes every client connection with
+ * an NIO selector and the games themselves run in a GameSessionManager. Clients speak a line protocol:
+ * <pre>
+ * NEW          creates a game and seats the client as player 1 (O)   -> GAME id O
+ * JOIN id      seats the client as player 2 (X) in a waiting game    -> GAME id X, and JOINED to player 1
+ * MOVE 3B-4C   plays a move in the board's notation                  -> OK, and MOVE 3B-4C to the opponent
+ *                                                                       or ERR and the MoveResult code of the
+ *                                                                       reason, for example ERR capture_required
+ * QUIT         leaves, ending the game                               -> LEFT to the opponent
+ * </pre>
+ * A move that wins the game is followed by WIN O or WIN X to both players, and a move that draws it by DRAW. Errors are answered with ERR and a reason.
+ * The server's Metrics are registered with the platform MBean server and, given a metrics log file, written to it
+ * every minute.
+ * Usage: GameServer [port] [game log file] [metrics log file]
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class GameServer implements Runnable, AutoCloseable, GameListener {
+    public static final int DEFAULT_PORT = 7777;
+
+    private static final int MAX_LINE = 128;
+    private static final long LOG_SYNC_MILLIS = 1000;
+    private static final long METRICS_LOG_MILLIS = 60_000;
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final GameSessionManager manager;
+    private final Queue<Reply> replies = new ConcurrentLinkedQueue<>(); // written by game threads
+    private final AtomicBoolean wakeupPending = new AtomicBoolean(); // one selector wakeup covers many replies
+    private final Map<Long, Connection[]> seats = new HashMap<>(); // selector thread only, indexed by side
+    private volatile boolean running = true;
+
+    /**
+     * Constructs a server listening on a port
+     * @param port TCP port, 0 for any free port
+     * @param manager manager hosting the games
+     * @throws IOException if the port can't be opened
+     */
+    public GameServer(int port, GameSessionManager manager) throws IOException {
+        this.manager = manager;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(port), 1024);
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Returns the port the server listens on
+     * @return the port
+     */
+    public int getPort() {
+        return this.serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Serves clients until the server is closed
+     */
+    @Override
+    public void run() {
+        try {
+            while (this.running) {
+                this.selector.select();
+                this.wakeupPending.set(false);
+                this.sendReplies();
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        this.accept();
+                    } else {
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isReadable()) {
+                                this.read(connection);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                this.flush(connection);
+                            }
+                        } catch (IOException e) {
+                            this.disconnect(connection);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Game server failed", e);
+        } finally {
+            this.closeChannels();
+        }
+    }
+
+    /**
+     * Queues the answers to a move played by a game. Called on the game's thread, the selector thread writes them
+     */
+    @Override
+    public void movePlayed(GameSession session, int side, String move, MoveResult result, boolean gameOver) {
+        long id = session.getId();
+        if (!result.isValid()) {
+            this.replies.add(new Reply(id, side, "ERR " + result.getCode()));
+        } else {
+            this.replies.add(new Reply(id, side, "OK"));
+            this.replies.add(new Reply(id, side ^ 1, "MOVE " + move));
+            if (gameOver) {
+                String outcome = session.isDraw() ? "DRAW" : "WIN " + PlayerSymbol.values()[side].getValue();
+                this.replies.add(new Reply(id, side, outcome));
+                this.replies.add(new Reply(id, side ^ 1, outcome));
+                this.replies.add(new Reply(id, -1, null)); // the game is over, free both seats
+            }
+        }
+        if (this.wakeupPending.compareAndSet(false, true)) {
+            this.selector.wakeup();
+        }
+    }
+
+    /**
+     * Stops the server and ends every game it hosts
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        this.selector.wakeup();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = this.serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(this.selector, SelectionKey.OP_READ, connection);
+    }
+
+    private void read(Connection connection) throws IOException {
+        if (connection.channel.read(connection.in) < 0) {
+            this.disconnect(connection);
+            return;
+        }
+        ByteBuffer in = connection.in;
+        int start = 0;
+        for (int i = 0; i < in.position(); i++) {
+            if (in.get(i) == '\n') {
+                int end = i > start && in.get(i - 1) == '\r' ? i - 1 : i;
+                this.handle(connection, new String(in.array(), start, end - start, StandardCharsets.US_ASCII));
+                if (!connection.channel.isOpen()) {
+                    return;
+                }
+                start = i + 1;
+            }
+        }
+        in.limit(in.position()).position(start);
+        in.compact();
+        if (!in.hasRemaining()) {
+            this.send(connection, "ERR line too long");
+            this.disconnect(connection);
+        }
+    }
+
+    private void handle(Connection connection, String line) throws IOException {
+        int space = line.indexOf(' ');
+        String command = space < 0 ? line : line.substring(0, space);
+        String argument = space < 0 ? "" : line.substring(space + 1).trim();
+        if (command.equalsIgnoreCase("MOVE")) {
+            this.move(connection, argument);
+        } else if (command.equalsIgnoreCase("NEW")) {
+            this.newGame(connection);
+        } else if (command.equalsIgnoreCase("JOIN")) {
+            this.join(connection, argument);
+        } else if (command.equalsIgnoreCase("QUIT")) {
+            this.disconnect(connection);
+        } else if (!command.isEmpty()) {
+            this.send(connection, "ERR unknown command");
+        }
+    }
+
+    private void newGame(Connection connection) throws IOException {
+        if (connection.session != null) {
+            this.send(connection, "ERR already playing");
+            return;
+        }
+        GameSession session = this.manager.startGame("Player 1", "Player 2", "H", "H", this);
+        this.seat(connection, session, PlayerSymbol.O.ordinal());
+    }
+
+    private void join(Connection connection, String argument) throws IOException {
+        if (connection.session != null) {
+            this.send(connection, "ERR already playing");
+            return;
+        }
+        long id;
+        try {
+            id = Long.parseLong(argument);
+        } catch (NumberFormatException e) {
+            this.send(connection, "ERR invalid game id");
+            return;
+        }
+        Connection[] players = this.seats.get(id);
+        GameSession session = this.manager.getSession(id);
+        if (players == null || session == null || players[PlayerSymbol.X.ordinal()] != null) {
+            this.send(connection, "ERR no such game waiting");
+            return;
+        }
+        this.seat(connection, session, PlayerSymbol.X.ordinal());
+        this.send(players[PlayerSymbol.O.ordinal()], "JOINED");
+    }
+
+    private void seat(Connection connection, GameSession session, int side) throws IOException {
+        connection.session = session;
+        connection.side = side;
+        this.seats.computeIfAbsent(session.getId(), id -> new Connection[2])[side] = connection;
+        this.send(connection, "GAME " + session.getId() + " " + PlayerSymbol.values()[side].getValue());
+    }
+
+    private void move(Connection connection, String move) throws IOException {
+        if (connection.session == null) {
+            this.send(connection, "ERR not in a game");
+            return;
+        }
+        Connection[] players = this.seats.get(connection.session.getId());
+        if (players == null || players[connection.side ^ 1] == null) {
+            this.send(connection, "ERR waiting for opponent");
+            return;
+        }
+        connection.session.submitMove(connection.side, move);
+    }
+
+    /**
+     * Writes the replies queued by the game threads to the players still seated
+     */
+    private void sendReplies() {
+        Reply reply;
+        while ((reply = this.replies.poll()) != null) {
+            Connection[] players = this.seats.get(reply.session());
+            if (players == null) {
+                continue;
+            }
+            if (reply.side() < 0) {
+                this.unseat(reply.session());
+                continue;
+            }
+            Connection connection = players[reply.side()];
+            if (connection != null) {
+                try {
+                    this.send(connection, reply.line());
+                } catch (IOException e) {
+                    this.disconnect(connection);
+                }
+            }
+        }
+    }
+
+    private void send(Connection connection, String line) throws IOException {
+        ByteBuffer out = connection.out;
+        if (out.remaining() < line.length() + 1) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + line.length() + 1));
+            out.flip();
+            larger.put(out);
+            connection.out = larger;
+            out = larger;
+        }
+        for (int i = 0; i < line.length(); i++) {
+            out.put((byte) line.charAt(i));
+        }
+        out.put((byte) '\n');
+        this.flush(connection);
+    }
+
+    private void flush(Connection connection) throws IOException {
+        ByteBuffer out = connection.out;
+        out.flip();
+        connection.channel.write(out);
+        out.compact();
+        int ops = out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+        if (connection.key.isValid() && connection.key.interestOps() != ops) {
+            connection.key.interestOps(ops);
+        }
+    }
+
+    private void disconnect(Connection connection) {
+        if (connection.session != null) {
+            long id = connection.session.getId();
+            Connection[] players = this.seats.get(id);
+            Connection opponent = players == null ? null : players[connection.side ^ 1];
+            this.unseat(id);
+            this.manager.endGame(id);
+            if (opponent != null) {
+                try {
+                    this.send(opponent, "LEFT");
+                } catch (IOException e) {
+                    this.disconnect(opponent);
+                }
+            }
+        }
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // already gone
+        }
+    }
+
+    private void unseat(long id) {
+        Connection[] players = this.seats.remove(id);
+        if (players != null) {
+            for (Connection player : players) {
+                if (player != null) {
+                    player.session = null;
+                }
+            }
+        }
+    }
+
+    private void closeChannels() {
+        for (SelectionKey key : this.selector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                // closing anyway
+            }
+        }
+        try {
+            this.selector.close();
+        } catch (IOException e) {
+            // closing anyway
+        }
+        this.manager.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        GameLogWriter log = args.length > 1 ? new GameLogWriter(Path.of(args[1]), LOG_SYNC_MILLIS) : null;
+        GameServer server = new GameServer(port, new GameSessionManager(BoardType.BITBOARD, log));
+        Metrics.get().register();
+        if (args.length > 2) {
+            Metrics.get().startLog(Path.of(args[2]), METRICS_LOG_MILLIS);
+        }
+        System.out.println("Listening on port " + server.getPort());
+        try {
+            server.run();
+        } finally {
+            if (log != null) {
+                log.close();
+            }
+        }
+    }
+
+    /**
+     * The state kept for one client: its channel, partial input line, pending output and seat
+     */
+    private static final class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocate(MAX_LINE);
+        private ByteBuffer out = ByteBuffer.allocate(64);
+        private SelectionKey key;
+        private GameSession session;
+        private int side;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * A line for the player on one side of a game, or with side -1 a request to free the game's seats
+     */
+    private record Reply(long session, int side, String line) {
+    }
+}
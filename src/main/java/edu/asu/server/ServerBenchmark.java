@@ -0,0 +1,121 @@
+package edu.asu.server;
+
+import edu.asu.session.GameSessionManager;
+import edu.asu.session.SessionBenchmark;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class measures the game server over local TCP. It starts a server in the same JVM, connects pairs of clients
+ * that create and join a game each, plays the same opening in every game at once and reports the moves per second
+ * and the latency from sending a move to receiving its OK. Each pair of clients runs on its own virtual thread.
+ * Usage: ServerBenchmark [pairs] [plies]
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class ServerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int pairs = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        String[] opening = SessionBenchmark.opening(plies);
+
+        try (GameServer server = new GameServer(0, new GameSessionManager());
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            Thread serverThread = new Thread(server, "game-server");
+            serverThread.start();
+
+            List<Future<long[]>> results = new ArrayList<>(pairs);
+            long start = System.nanoTime();
+            for (int i = 0; i < pairs; i++) {
+                results.add(clients.submit(() -> play(server.getPort(), opening)));
+            }
+            long[] latencies = new long[pairs * opening.length];
+            for (int i = 0; i < pairs; i++) {
+                System.arraycopy(results.get(i).get(), 0, latencies, i * opening.length, opening.length);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            System.out.printf("Connections: %d%n", 2 * pairs);
+            System.out.printf("Moves: %d in %.2f s, %.0f moves/sec%n", latencies.length, seconds, latencies.length / seconds);
+            System.out.printf("Move latency us: p50 %.0f, p90 %.0f, p99 %.0f, max %.0f%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.90),
+                    percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e3);
+        }
+    }
+
+    /**
+     * Plays one game between two clients
+     * @return the latency of every move in nanoseconds
+     */
+    private static long[] play(int port, String[] opening) throws IOException {
+        try (Client first = new Client(port); Client second = new Client(port)) {
+            String[] game = first.call("NEW").split(" ");
+            second.call("JOIN " + game[1]);
+            first.expect("JOINED");
+            long[] latencies = new long[opening.length];
+            for (int ply = 0; ply < opening.length; ply++) {
+                Client mover = ply % 2 == 0 ? first : second;
+                Client opponent = ply % 2 == 0 ? second : first;
+                long sent = System.nanoTime();
+                mover.call("MOVE " + opening[ply]);
+                latencies[ply] = System.nanoTime() - sent;
+                opponent.expect("MOVE " + opening[ply]);
+            }
+            return latencies;
+        }
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[(int) Math.min(sorted.length - 1, fraction * sorted.length)] / 1e3;
+    }
+
+    /**
+     * A blocking client speaking the server's line protocol
+     */
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final OutputStream out;
+
+        private Client(int port) throws IOException {
+            this.socket = new Socket("localhost", port);
+            this.socket.setTcpNoDelay(true);
+            this.in = new BufferedReader(new InputStreamReader(this.socket.getInputStream(), StandardCharsets.US_ASCII));
+            this.out = this.socket.getOutputStream();
+        }
+
+        private String call(String line) throws IOException {
+            this.out.write((line + "\n").getBytes(StandardCharsets.US_ASCII));
+            this.out.flush();
+            String reply = this.in.readLine();
+            if (reply == null || reply.startsWith("ERR")) {
+                throw new IOException(line + " failed: " + reply);
+            }
+            return reply;
+        }
+
+        private void expect(String line) throws IOException {
+            String reply = this.in.readLine();
+            if (!line.equals(reply)) {
+                throw new IOException("Expected " + line + " but got " + reply);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.socket.close();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package edu.asu.session;
+
+import edu.asu.core.board.MoveResult;
+
+/**
+ * This interface is implemented by anything that wants to hear about the moves played in a GameSession,
+ * for example a network front end answering its clients. It is called on the game's own thread
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public interface GameListener {
+
+    /**
+     * Called after a submitted move has been played or rejected
+     * @param session the game
+     * @param side PlayerSymbol ordinal of the side that submitted the move
+     * @param move the submitted move
+     * @param result OK if the move was played, otherwise the reason it was rejected
+     * @param gameOver true if the move won the game for the side that made it or drew it
+     */
+    void movePlayed(GameSession session, int side, String move, MoveResult result, boolean gameOver);
+}
@@ -0,0 +1,175 @@
+package edu.asu.session;
+
+import edu.asu.controller.GameController;
+import edu.asu.core.board.MoveResult;
+import edu.asu.core.player.Computer;
+import edu.asu.core.player.Player;
+import edu.asu.metrics.Metrics;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * This class represents one headless game hosted by a GameSessionManager. The game runs on its own virtual thread,
+ * which parks while it waits for the next move, so an idle game costs little more than its board and players.
+ * Moves are submitted from any thread and played in order on the game's thread, the only thread touching the board.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class GameSession implements Runnable {
+    private final long id;
+    private final GameController controller;
+    private final BlockingQueue<SubmittedMove> moves = new LinkedBlockingQueue<>();
+    private final GameSessionManager manager;
+    private final GameListener listener;
+    private final long startTimeMillis = System.currentTimeMillis();
+    private volatile int movesPlayed;
+    private volatile int movesRejected;
+    private volatile boolean finished;
+
+    /**
+     * Constructs a session around a controller holding a game that has been set up
+     * @param id session id
+     * @param controller game controller
+     * @param manager manager to tell when the game ends
+     * @param listener listener told about every submitted move, or null
+     */
+    GameSession(long id, GameController controller, GameSessionManager manager, GameListener listener) {
+        this.id = id;
+        this.controller = controller;
+        this.manager = manager;
+        this.listener = listener;
+    }
+
+    /**
+     * Plays the game until it is won or the session is closed. Computers move as soon as it is their turn
+     * and humans' moves are taken from the submitted moves
+     */
+    @Override
+    public void run() {
+        try {
+            while (!this.controller.isOver()) {
+                if (this.isComputerToMove()) {
+                    this.count(this.controller.playMove(null));
+                    continue;
+                }
+                SubmittedMove next = this.moves.take();
+                int side = this.controller.getCurrentPlayer().getPiece().getColour().ordinal();
+                int mover = next.side() < 0 ? side : next.side();
+                MoveResult result;
+                if (mover == side) {
+                    this.controller.playMove(next.move()); // counted in the Metrics by the controller
+                    result = this.controller.getLastMoveResult();
+                } else {
+                    result = MoveResult.WRONG_TURN;
+                    Metrics.get().moveRejected(result.getCode(), -1);
+                }
+                this.count(result.isValid());
+                if (this.listener != null) {
+                    this.listener.movePlayed(this, mover, next.move(), result, this.controller.isOver());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // the session was closed
+        } finally {
+            this.finished = true;
+            this.manager.finished(this);
+        }
+    }
+
+    /**
+     * Queues a move for the player whose turn it will be when the move comes up
+     * @param move the move in the board's notation, for example 3B-4C
+     */
+    public void submitMove(String move) {
+        this.submitMove(-1, move);
+    }
+
+    /**
+     * Queues a move for one side. The move is rejected if it is not that side's turn when the move comes up
+     * @param side PlayerSymbol ordinal of the side making the move, or -1 for whoever's turn it is
+     * @param move the move in the board's notation, for example 3B-4C
+     */
+    public void submitMove(int side, String move) {
+        this.moves.add(new SubmittedMove(side, move));
+    }
+
+    /**
+     * Returns the session id
+     * @return the id
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Returns the time the game started
+     * @return epoch milliseconds
+     */
+    public long getStartTimeMillis() {
+        return this.startTimeMillis;
+    }
+
+    /**
+     * Returns the controller of the game. Only the game's thread may use it while the game is running
+     * @return the controller
+     */
+    GameController getController() {
+        return this.controller;
+    }
+
+    /**
+     * Returns the number of moves played so far
+     * @return the number of moves
+     */
+    public int getMovesPlayed() {
+        return this.movesPlayed;
+    }
+
+    /**
+     * Returns the number of submitted moves that were rejected
+     * @return the number of rejected moves
+     */
+    public int getMovesRejected() {
+        return this.movesRejected;
+    }
+
+    /**
+     * Returns whether the game has ended, because it was won or the session was closed
+     * @return true if the game has ended
+     */
+    public boolean isFinished() {
+        return this.finished;
+    }
+
+    /**
+     * Returns whether the game ended in a draw. Safe to call from the game's thread, for example in a GameListener,
+     * or once the game has finished
+     * @return true if the game was drawn
+     */
+    public boolean isDraw() {
+        return this.controller.isDraw();
+    }
+
+    /**
+     * Returns the winner once the game has ended
+     * @return the winner or null if there is none yet
+     */
+    public Player getWinner() {
+        return this.finished ? this.controller.getWinner() : null;
+    }
+
+    private void count(boolean played) {
+        if (played) {
+            this.movesPlayed++;
+        } else {
+            this.movesRejected++;
+        }
+    }
+
+    private boolean isComputerToMove() {
+        return this.controller.getCurrentPlayer() instanceof Computer;
+    }
+
+    private record SubmittedMove(int side, String move) {
+    }
+}
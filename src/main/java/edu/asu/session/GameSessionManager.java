@@ -0,0 +1,171 @@
+package edu.asu.session;
+
+import edu.asu.controller.GameController;
+import edu.asu.engine.Search;
+import edu.asu.engine.TranspositionTable;
+import edu.asu.metrics.Metrics;
+import edu.asu.record.GameLogWriter;
+import edu.asu.util.BoardType;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class hosts many independent headless games in one JVM. Every game is a GameSession running on its own
+ * virtual thread, so thousands of games waiting for their players' moves only hold their small game state.
+ * Games use bitboards by default, the smallest board representation. With a game log, every game is appended to it
+ * when it ends, whether it was won or abandoned. Computer players of every game share one transposition table,
+ * allocated when the first of them joins, so a computer game does not pin a table of its own.
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class GameSessionManager implements AutoCloseable {
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, Thread> threads = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final BoardType boardType;
+    private final GameLogWriter log;
+    private TranspositionTable computerTable;
+
+    /**
+     * Constructs a manager whose games are played on bitboards
+     */
+    public GameSessionManager() {
+        this(BoardType.BITBOARD);
+    }
+
+    /**
+     * Constructs a manager
+     * @param boardType board implementation used by new games
+     */
+    public GameSessionManager(BoardType boardType) {
+        this(boardType, null);
+    }
+
+    /**
+     * Constructs a manager recording its games
+     * @param boardType board implementation used by new games
+     * @param log log every ended game is appended to, or null
+     */
+    public GameSessionManager(BoardType boardType, GameLogWriter log) {
+        this.boardType = boardType;
+        this.log = log;
+    }
+
+    /**
+     * Starts a new 8x8 game on its own virtual thread
+     * @param player1Name player1's name, who moves first
+     * @param player2Name player2's name
+     * @param player1Type H for a human or C for a computer
+     * @param player2Type H for a human or C for a computer
+     * @return the session of the new game
+     */
+    public GameSession startGame(String player1Name, String player2Name, String player1Type, String player2Type) {
+        return this.startGame(player1Name, player2Name, player1Type, player2Type, null);
+    }
+
+    /**
+     * Starts a new 8x8 game on its own virtual thread, reporting its moves to a listener
+     * @param player1Name player1's name, who moves first
+     * @param player2Name player2's name
+     * @param player1Type H for a human or C for a computer
+     * @param player2Type H for a human or C for a computer
+     * @param listener listener told about every submitted move, or null
+     * @return the session of the new game
+     */
+    public GameSession startGame(String player1Name, String player2Name, String player1Type, String player2Type,
+                                 GameListener listener) {
+        GameController controller = new GameController();
+        if (player1Type.equalsIgnoreCase("C") || player2Type.equalsIgnoreCase("C")) {
+            controller.setComputerTable(this.computerTable());
+        }
+        controller.newGame(player1Name, player2Name, player1Type, player2Type, 8, this.boardType);
+        GameSession session = new GameSession(this.nextId.getAndIncrement(), controller, this, listener);
+        Thread thread = Thread.ofVirtual().name("game-", session.getId()).unstarted(session);
+        this.sessions.put(session.getId(), session);
+        this.threads.put(session.getId(), thread);
+        Metrics.get().gameStarted();
+        thread.start();
+        return session;
+    }
+
+    /**
+     * Returns the table shared by the computer players, allocating it the first time
+     */
+    private synchronized TranspositionTable computerTable() {
+        if (this.computerTable == null) {
+            this.computerTable = new TranspositionTable(Search.DEFAULT_TABLE_SIZE_MB);
+        }
+        return this.computerTable;
+    }
+
+    /**
+     * Returns a game that is still being played
+     * @param id session id
+     * @return the session or null if there is no such game or it has ended
+     */
+    public GameSession getSession(long id) {
+        return this.sessions.get(id);
+    }
+
+    /**
+     * Returns the games that are still being played
+     * @return a live view of the sessions
+     */
+    public Collection<GameSession> getSessions() {
+        return this.sessions.values();
+    }
+
+    /**
+     * Returns the number of games that are still being played
+     * @return the number of active games
+     */
+    public int activeGames() {
+        return this.sessions.size();
+    }
+
+    /**
+     * Ends a game that is still being played, for example when a player leaves
+     * @param id session id
+     */
+    public void endGame(long id) {
+        Thread thread = this.threads.get(id);
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Forgets a game that has ended, after appending it to the game log. Called on the game's thread
+     * @param session the session
+     */
+    void finished(GameSession session) {
+        this.sessions.remove(session.getId());
+        this.threads.remove(session.getId());
+        Metrics.get().gameFinished();
+        if (this.log != null) {
+            GameController controller = session.getController();
+            int result = controller.isDraw() ? GameLogWriter.DRAW : controller.isOver() ?
+                    controller.getWinner().getPiece().getColour().ordinal() : GameLogWriter.UNFINISHED;
+            try {
+                this.log.append(controller.getCheckerBoard().getBoardSize(), result, session.getStartTimeMillis(),
+                        controller.getMoveHistory(), controller.getMoveCount());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Game " + session.getId() + " could not be logged", e);
+            }
+        }
+    }
+
+    /**
+     * Ends every game still being played
+     */
+    @Override
+    public void close() {
+        for (Thread thread : this.threads.values()) {
+            thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package edu.asu.session;
+
+import edu.asu.core.board.BitboardCheckerBoard;
+import edu.asu.core.board.CheckerBoard;
+import edu.asu.core.board.PackedMove;
+import edu.asu.core.piece.Man;
+import edu.asu.core.player.Human;
+import edu.asu.util.PlayerSymbol;
+import java.util.Arrays;
+
+/**
+ * This class measures how many headless games fit in one JVM. It starts a number of human against human games
+ * that wait for moves, reports the heap each game holds and the active games per GB of heap,
+ * then plays the same opening moves in every game and reports the move rate.
+ * Usage: SessionBenchmark [games] [plies]
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class SessionBenchmark {
+    private static final long GB = 1024L * 1024 * 1024;
+
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        String[] opening = opening(plies);
+
+        try (GameSessionManager manager = new GameSessionManager()) {
+            long before = usedHeap();
+            GameSession[] sessions = new GameSession[games];
+            for (int i = 0; i < games; i++) {
+                sessions[i] = manager.startGame("Player 1", "Player 2", "H", "H");
+            }
+            Thread.sleep(500); // let every game park waiting for its first move
+            long perGame = (usedHeap() - before) / games;
+            System.out.printf("Active games: %d%n", manager.activeGames());
+            System.out.printf("Heap per idle game: %d bytes%n", perGame);
+            System.out.printf("Idle games per GB: %d%n", GB / Math.max(1, perGame));
+
+            long start = System.nanoTime();
+            for (String move : opening) {
+                for (GameSession session : sessions) {
+                    session.submitMove(move);
+                }
+            }
+            long target = (long) games * opening.length;
+            long played = 0;
+            long rejected = 0;
+            while (played + rejected < target) {
+                Thread.sleep(1);
+                played = 0;
+                rejected = 0;
+                for (GameSession session : sessions) {
+                    played += session.getMovesPlayed();
+                    rejected += session.getMovesRejected();
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            perGame = (usedHeap() - before) / games;
+            System.out.printf("Moves played: %d, rejected: %d%n", played, rejected);
+            System.out.printf("Moves/sec: %.0f%n", played / seconds);
+            System.out.printf("Heap per game after %d plies: %d bytes%n", opening.length, perGame);
+            System.out.printf("Active games per GB: %d%n", GB / Math.max(1, perGame));
+        }
+    }
+
+    /**
+     * Builds a legal opening by always playing the first generated move
+     * @param plies number of moves, fewer if the game ends first
+     * @return the moves in the board's notation
+     */
+    public static String[] opening(int plies) {
+        CheckerBoard board = new BitboardCheckerBoard();
+        board.initializeBoard(new Human("Player 1", Man.of(PlayerSymbol.O)), new Human("Player 2", Man.of(PlayerSymbol.X)));
+        int[] moves = new int[CheckerBoard.MAX_MOVES];
+        String[] opening = new String[plies];
+        for (int ply = 0; ply < plies; ply++) {
+            int count = board.generateMoves(board.getSideToMove(), moves);
+            if (count == 0) {
+                return Arrays.copyOf(opening, ply);
+            }
+            opening[ply] = PackedMove.toString(moves[0], board.getBoardSize());
+            board.applyMove(moves[0]);
+        }
+        return opening;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
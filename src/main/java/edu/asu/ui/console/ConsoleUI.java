@@ -1,7 +1,6 @@
 package edu.asu.ui.console;
 
 import edu.asu.controller.GameController;
-import edu.asu.core.piece.Piece;
 import edu.asu.ui.UI;
 import java.util.HashMap;
 import java.util.Map;
@@ -10,18 +9,35 @@ import java.util.regex.Pattern;
 
 /**
  * This class serves the UI for the Game. It's a console based UI which has implemented the UI interface.
+ * The board is drawn by a FrameRenderer, in full every move or, in ANSI mode, only the squares that changed.
  * @author Martin Alemajoh
  * @version 1.0
  */
 public class ConsoleUI implements UI {
+    private static final Pattern PLAYER_NAME_PATTERN = Pattern.compile("^[a-zA-Z0-9]+$");
+    private static final Pattern BOARD_TYPE_PATTERN = Pattern.compile("\\b(?:8|10|12)\\b");
+
     GameController gameController;
+    private Pattern movePattern; // compiled once for the board's move regex
+    private final Scanner scanner = new Scanner(System.in); // one for the whole game so no typed input is lost
+    private final FrameRenderer renderer;
 
     /**
      * Constructs a console UI
      * @param gameController game controller instance
      */
     public ConsoleUI(GameController gameController){
+        this(gameController, false);
+    }
+
+    /**
+     * Constructs a console UI
+     * @param gameController game controller instance
+     * @param ansi true to redraw only the squares that changed since the last move, for ANSI terminals
+     */
+    public ConsoleUI(GameController gameController, boolean ansi){
         this.gameController = gameController;
+        this.renderer = new FrameRenderer(System.out, ansi);
     }
 
     /**
@@ -32,30 +48,39 @@ public class ConsoleUI implements UI {
     public Map<String, String> renderGameMenu() {
         System.out.println("Welcome To Checker Game");
 
-        Scanner scanner = new Scanner(System.in);
-        Pattern playerNamePattern = Pattern.compile("^[a-zA-Z0-9]+$");
-        Pattern boardTypePattern = Pattern.compile("\\b(?:8|10|12)\\b");
         String boardType = "";
         String player1Name = "";
         String player2Name = "";
+        String player1Type = "";
+        String player2Type = "";
         String option = "";
 
-        boolean isPlayer1NameValid = playerNamePattern.matcher(player1Name).matches();
-        boolean isPlayer2NameValid = playerNamePattern.matcher(player2Name).matches();
+        boolean isPlayer1NameValid = PLAYER_NAME_PATTERN.matcher(player1Name).matches();
+        boolean isPlayer2NameValid = PLAYER_NAME_PATTERN.matcher(player2Name).matches();
 
         while(!isPlayer1NameValid){
             System.out.println("Enter Player 1 Name:");
-            player1Name = scanner.next();
-            isPlayer1NameValid = playerNamePattern.matcher(player1Name).matches();
+            player1Name = this.scanner.next();
+            isPlayer1NameValid = PLAYER_NAME_PATTERN.matcher(player1Name).matches();
         }
 
         while(!isPlayer2NameValid){
             System.out.println("Enter Player 2 Name:");
-            player2Name = scanner.next();
-            isPlayer2NameValid = playerNamePattern.matcher(player2Name).matches();
+            player2Name = this.scanner.next();
+            isPlayer2NameValid = PLAYER_NAME_PATTERN.matcher(player2Name).matches();
         }
 
-        boolean isValidBoardType = boardTypePattern.matcher(boardType).matches();
+        while(!player1Type.equalsIgnoreCase("H") && !player1Type.equalsIgnoreCase("C")){
+            System.out.println("Is Player 1 a Human (H) or a Computer (C):");
+            player1Type = this.scanner.next();
+        }
+
+        while(!player2Type.equalsIgnoreCase("H") && !player2Type.equalsIgnoreCase("C")){
+            System.out.println("Is Player 2 a Human (H) or a Computer (C):");
+            player2Type = this.scanner.next();
+        }
+
+        boolean isValidBoardType = BOARD_TYPE_PATTERN.matcher(boardType).matches();
 
         while(!isValidBoardType){
             System.out.println("What board type would you like to use:\n");
@@ -63,18 +88,20 @@ public class ConsoleUI implements UI {
             System.out.println("10 - Standard 10x10");
             System.out.println("12 - Standard 12x12");
 
-            boardType = scanner.next();
-            isValidBoardType = boardTypePattern.matcher(boardType).matches();
+            boardType = this.scanner.next();
+            isValidBoardType = BOARD_TYPE_PATTERN.matcher(boardType).matches();
         }
 
         while(!option.equalsIgnoreCase("S") && !option.equalsIgnoreCase("E")){
             System.out.println("Enter S to start or E to end the game:");
-            option = scanner.next();
+            option = this.scanner.next();
         }
 
         Map<String, String> payload = new HashMap<>();
         payload.put("player1Name", player1Name);
         payload.put("player2Name", player2Name);
+        payload.put("player1Type", player1Type);
+        payload.put("player2Type", player2Type);
         payload.put("boardType", boardType);
         payload.put("option", option);
         return payload;
@@ -93,20 +120,7 @@ public class ConsoleUI implements UI {
      */
     @Override
     public void renderGameBoard() {
-        Piece[][] board = this.gameController.getBoardState();
-        System.out.println("   A  B  C  D  E  F  G  H");
-        for (int row = 0; row < board.length; row++) {
-            System.out.print(row + 1 + " ");
-            for (int col = 0; col < board.length; col++) {
-                if(board[row][col] != null){
-                    System.out.print("["+board[row][col].getSymbol()+ "]");
-                }else{
-                    System.out.print("[ ]");
-                }
-            }
-            System.out.println(" " + (row + 1));
-        }
-        System.out.println("   A  B  C  D  E  F  G  H");
+        this.renderer.render(this.gameController.getBoardState());
     }
 
     /**
@@ -125,13 +139,16 @@ public class ConsoleUI implements UI {
      */
     @Override
     public String getMove(String moveRegex) {
-        Scanner scanner = new Scanner(System.in);
-        Pattern movePattern = Pattern.compile(moveRegex);
-        String playerMove = scanner.next();
+        Pattern movePattern = this.movePattern;
+        if(movePattern == null || !movePattern.pattern().equals(moveRegex)){
+            movePattern = Pattern.compile(moveRegex);
+            this.movePattern = movePattern;
+        }
+        String playerMove = this.scanner.next();
         boolean isValidPlayerMove = movePattern.matcher(playerMove).matches();
         while(!isValidPlayerMove){
             System.out.println("Invalid move: Try again");
-            playerMove = scanner.next();
+            playerMove = this.scanner.next();
             isValidPlayerMove = movePattern.matcher(playerMove).matches();
         }
         return playerMove;
@@ -0,0 +1,126 @@
+package edu.asu.ui.console;
+
+import edu.asu.core.piece.Piece;
+import java.io.PrintStream;
+import java.util.Objects;
+
+/**
+ * This class draws the board on a console. A frame is built in one buffer reused from frame to frame and written
+ * with a single call, so a slow terminal gets one write per move instead of one per square.
+ * In diff mode the first frame clears the screen and every later frame only moves the cursor to the squares that
+ * changed since the last frame and redraws them with ANSI escape codes, a few bytes per move. Anything printed
+ * after a frame appears below the board and is cleared by the next frame.
+ * Usage: new FrameRenderer(System.out, true).render(board)
+ * @author Martin Alemajoh
+ * @version 1.0
+ */
+public class FrameRenderer {
+    private static final String CSI = "\u001B[";
+    private static final int FIRST_ROW_LINE = 2; // screen line of row 1, below the column letters
+    private static final int FIRST_SYMBOL_COLUMN = 5; // screen column of the symbol in column A, after the row label and [
+
+    private final PrintStream out;
+    private final boolean diff;
+    private final StringBuilder frame = new StringBuilder(1024);
+    private byte[] bytes = new byte[1024];
+    private String[] shown; // symbol on screen per square in diff mode, null for an empty square
+    private int shownSize;
+
+    /**
+     * Constructs a renderer
+     * @param out console to draw on
+     * @param diff true to redraw only the squares that changed, using ANSI escape codes
+     */
+    public FrameRenderer(PrintStream out, boolean diff) {
+        this.out = out;
+        this.diff = diff;
+    }
+
+    /**
+     * Draws a board
+     * @param board the board state, as returned by CheckerBoard.getBoardState
+     */
+    public void render(Piece[][] board) {
+        int size = board.length;
+        StringBuilder frame = this.frame;
+        frame.setLength(0);
+        if (!this.diff) {
+            appendBoard(frame, board);
+        } else if (this.shown == null || this.shownSize != size) {
+            frame.append(CSI).append('H').append(CSI).append("2J"); // home and clear the screen
+            appendBoard(frame, board);
+            this.shown = new String[size * size];
+            this.shownSize = size;
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    this.shown[row * size + col] = board[row][col] == null ? null : board[row][col].getSymbol();
+                }
+            }
+        } else {
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    String symbol = board[row][col] == null ? null : board[row][col].getSymbol();
+                    if (!Objects.equals(symbol, this.shown[row * size + col])) {
+                        this.shown[row * size + col] = symbol;
+                        moveCursor(frame, FIRST_ROW_LINE + row, FIRST_SYMBOL_COLUMN + 3 * col);
+                        frame.append(symbol == null ? " " : symbol);
+                    }
+                }
+            }
+            moveCursor(frame, FIRST_ROW_LINE + size + 1, 1);
+        }
+        if (this.diff) {
+            frame.append(CSI).append('J'); // clear whatever was printed below the board since the last frame
+        }
+        this.write(frame);
+    }
+
+    /**
+     * Makes the next frame a full redraw, for example after something else has drawn over the board
+     */
+    public void invalidate() {
+        this.shown = null;
+    }
+
+    /**
+     * Appends the whole board: the column letters, one line per row labelled on both sides, and the letters again
+     */
+    private static void appendBoard(StringBuilder frame, Piece[][] board) {
+        int size = board.length;
+        int header = frame.length();
+        frame.append("   ");
+        for (int col = 0; col < size; col++) {
+            frame.append(' ').append((char) ('A' + col)).append(' ');
+        }
+        frame.append('\n');
+        int headerEnd = frame.length();
+        for (int row = 0; row < size; row++) {
+            frame.append(row + 1 < 10 ? " " : "").append(row + 1).append(' ');
+            for (int col = 0; col < size; col++) {
+                frame.append('[').append(board[row][col] == null ? " " : board[row][col].getSymbol()).append(']');
+            }
+            frame.append(' ').append(row + 1).append('\n');
+        }
+        frame.append(frame, header, headerEnd);
+    }
+
+    private static void moveCursor(StringBuilder frame, int line, int column) {
+        frame.append(CSI).append(line).append(';').append(column).append('H');
+    }
+
+    /**
+     * Writes the frame, which is plain ASCII, through the reused byte buffer in one call
+     */
+    private void write(StringBuilder frame) {
+        int length = frame.length();
+        if (this.bytes.length < length) {
+            this.bytes = new byte[Math.max(length, 2 * this.bytes.length)];
+        }
+        byte[] bytes = this.bytes;
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) frame.charAt(i);
+        }
+        this.out.write(bytes, 0, length);
+        this.out.flush();
+    }
+}
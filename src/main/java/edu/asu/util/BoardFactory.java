@@ -1,14 +1,19 @@
 package edu.asu.util;
 
+import edu.asu.core.board.BitboardCheckerBoard;
 import edu.asu.core.board.CheckerBoard;
 import edu.asu.core.board.StandardCheckerBoard;
 
 public class BoardFactory {
 
     public CheckerBoard createBoard(int size) {
-        if (size == 8) {
-            return new StandardCheckerBoard();
+        return this.createBoard(size, BoardType.STANDARD);
+    }
+
+    public CheckerBoard createBoard(int size, BoardType type) {
+        if (size == 8 && type == BoardType.BITBOARD) {
+            return new BitboardCheckerBoard();
         }
-        throw new IllegalArgumentException("Invalid board size or we don't support it at the moment: " + size);
+        return new StandardCheckerBoard(size); // the bitboard holds 32 squares, larger boards use the standard one
     }
 }
@@ -0,0 +1,11 @@
+package edu.asu.util;
+
+/**
+ * Enum representing the implementations a checkerboard can be backed by.
+ * BITBOARD holds the 32 dark squares of an 8x8 board in bit masks, so BoardFactory only uses it for size 8
+ * and gives a STANDARD board for any other size
+ */
+public enum BoardType {
+    STANDARD,
+    BITBOARD
+}
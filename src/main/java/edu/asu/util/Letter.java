@@ -1,8 +0,0 @@
-package edu.asu.util;
-
-/**
- * Enum representing the columns of the board
- */
-public enum Letter {
-    A,B,C,D, E, F, G, H, I, J, K, L, M, N, O, P, Q, R, S, T, U, V, W, X, Y, Z
-}
@@ -16,4 +16,13 @@ public enum PlayerSymbol {
     public String getValue() {
         return this.value;
     }
+
+    /**
+     * Returns the player symbol matching a piece symbol, ignoring case
+     * @param symbol a symbol X or O
+     * @return the matching player symbol
+     */
+    public static PlayerSymbol of(String symbol) {
+        return X.value.equalsIgnoreCase(symbol) ? X : O;
+    }
 }